@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the linter on generated YAML documents.
+ * <p>
+ * Run with <code>mvn -Pbenchmark test-compile exec:exec</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinterBenchmark {
+    /**
+     * Number of times the sample document is repeated in the linted content
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private String buffer;
+    private YamlLintConfig conf;
+
+
+    @Setup
+    public void setUp() throws YamlLintConfigException {
+        buffer = generate(size);
+        conf = new YamlLintConfig("extends: default");
+    }
+
+
+    /**
+     * Former way of linting: the content is parsed for syntax errors, then scanned again for the rules
+     *
+     * @param bh JMH black hole
+     */
+    @Benchmark
+    public void twoPasses(Blackhole bh) {
+        bh.consume(Linter.getSyntaxError(buffer, new Yaml()));
+        bh.consume(Linter.getCosmeticProblems(buffer, conf, null));
+    }
+
+    /**
+     * Syntax errors and cosmetic problems come from a single scan of the content
+     *
+     * @param bh JMH black hole
+     */
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        List<LintProblem> problems = Linter.run(buffer, conf);
+        bh.consume(problems);
+    }
+
+
+    /**
+     * Generates a YAML content made of the passed number of blocks of various YAML constructs
+     *
+     * @param blocks the number of blocks to generate
+     * @return a YAML string
+     */
+    static String generate(int blocks) {
+        StringBuilder sb = new StringBuilder("---\n");
+        for (int i = 0; i < blocks; i++) {
+            sb.append("# Block ").append(i).append('\n')
+                    .append("service-").append(i).append(":\n")
+                    .append("  name: \"service ").append(i).append("\"\n")
+                    .append("  enabled: true  # inline comment\n")
+                    .append("  replicas: ").append(i % 7).append('\n')
+                    .append("  ratio: 0.").append(i % 10).append('\n')
+                    .append("  mode: 0644\n")
+                    .append("  tags: [web, 'tier-").append(i % 3).append("', {zone: eu}]\n")
+                    .append("  env:\n")
+                    .append("    - key: HOME\n")
+                    .append("      value: /home/user").append(i).append('\n')
+                    .append("    - key: PATH\n")
+                    .append("      value: /usr/bin:/bin\n")
+                    .append("  anchor: &anchor").append(i).append(" {a: 1, b: 2}\n")
+                    .append("  alias: *anchor").append(i).append('\n')
+                    .append("  description: >\n")
+                    .append("    A folded text that spans\n")
+                    .append("    several lines.\n")
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the allocations made per token on the scanner hot path. The figures to look at are the bytes
+ * allocated per operation (<code>gc.alloc.rate.norm</code>) reported by the GC profiler; divide them by the number
+ * of tokens printed at setup to get the bytes allocated per token.
+ * <p>
+ * Run with <code>mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=TokenAllocationBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAllocationBenchmark {
+    /**
+     * Number of times the sample document is repeated in the scanned content
+     */
+    @Param({"100"})
+    public int size;
+
+    private String buffer;
+
+
+    @Setup
+    public void setUp() {
+        buffer = LinterBenchmark.generate(size);
+        int tokens = 0;
+        LintScanner scanner = new LintScanner(new LintStreamReader(buffer));
+        while (scanner.peekToken() != null) {
+            scanner.getToken();
+            tokens++;
+        }
+        System.out.println(System.lineSeparator() + "Tokens: " + tokens);
+    }
+
+
+    /**
+     * Scanning only: the SnakeYAML tokens and their marks
+     *
+     * @param bh JMH black hole
+     */
+    @Benchmark
+    public void scan(Blackhole bh) {
+        LintScanner scanner = new LintScanner(new LintStreamReader(buffer));
+        while (scanner.peekToken() != null) {
+            bh.consume(scanner.getToken());
+        }
+    }
+
+    /**
+     * Tokens, comments and lines as returned by the public API: a new wrapper object per token
+     *
+     * @param bh JMH black hole
+     */
+    @Benchmark
+    public void iterateWithWrappers(Blackhole bh) {
+        iterate(bh, false);
+    }
+
+    /**
+     * Tokens, comments and lines as passed to the rules by the linter: the token wrappers are reused
+     *
+     * @param bh JMH black hole
+     */
+    @Benchmark
+    public void iterateWithCursors(Blackhole bh) {
+        iterate(bh, true);
+    }
+
+    private void iterate(Blackhole bh, boolean cursors) {
+        Iterator<Parser.Lined> items = Parser.iterate(buffer, new LintScanner(new LintStreamReader(buffer)), true, true, true, null, 1, null, cursors);
+        while (items.hasNext()) {
+            bh.consume(items.next());
+        }
+    }
+}
@@ -21,6 +21,10 @@ import java.io.*;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import static com.github.sbaudoin.yamllint.Format.OutputFormat;
@@ -85,6 +89,16 @@ public final class Cli {
     private static final String ARG_VERSION = "version";
     private static final String ARG_HELP = "help";
     private static final String ARG_LIST_FILES = "list-files";
+    private static final String ARG_JOBS = "jobs";
+    private static final String ARG_SYNTAX_ONLY = "syntax-only";
+    private static final String ARG_MAX_PROBLEMS = "max-problems";
+    private static final String ARG_MAX_PROBLEMS_PER_RULE = "max-problems-per-rule";
+    private static final String ARG_FAIL_FAST = "fail-fast";
+
+    /**
+     * Number of files, per job, that can be linted ahead of the file whose problems are being printed
+     */
+    private static final int FILES_AHEAD_PER_JOB = 4;
 
 
     private OutputStream stdout = System.out;
@@ -138,35 +152,52 @@ public final class Cli {
             System.exit(0);
         }
 
+        // Files are linted in parallel but their problems are printed in the order of the paths
+        List<String> paths = findFilesRecursively(conf, (String[])arguments.get(ARG_FILES_OR_DIR));
+        int jobs = Math.max(1, Math.min((int)arguments.get(ARG_JOBS), paths.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        LintLimits limits = new LintLimits((int)arguments.get(ARG_MAX_PROBLEMS), (int)arguments.get(ARG_MAX_PROBLEMS_PER_RULE),
+                Boolean.TRUE.equals(arguments.get(ARG_FAIL_FAST)));
+        int errorLevel = (int)Linter.getProblemLevel(Linter.ERROR_LEVEL);
         int maxLevel = 0;
-        boolean first = true;
-        for (String path : findFilesRecursively(conf, (String[])arguments.get(ARG_FILES_OR_DIR))) {
-            try (InputStream in = "-".equals(path)?System.in:new FileInputStream(path)) {
-                File file = new File("-".equals(path)?"stdin":path);
-                // Get problems and remove warnings if requested
-                List<LintProblem> problems = Linter.run(in, conf, file).stream().filter(problem -> Boolean.FALSE.equals(arguments.get(ARG_NO_WARNINGS)) ||
-                        problem.getLevel() == null || Linter.ERROR_LEVEL.equals(problem.getLevel())).collect(Collectors.toList());
-                String output = Format.format(file.getPath(), problems, OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)));
-                if (!"".equals(output)) {
-                    out(output);
+        try {
+            Deque<Future<FileResult>> pending = new ArrayDeque<>();
+            Iterator<String> toLint = paths.iterator();
+            boolean first = true;
+            while (toLint.hasNext() || !pending.isEmpty()) {
+                while (toLint.hasNext() && pending.size() < jobs * FILES_AHEAD_PER_JOB) {
+                    String path = toLint.next();
+                    pending.add(executor.submit(() -> lint(path, conf, limits, arguments)));
+                }
+
+                FileResult result = getResult(pending.poll());
+                if (result.error != null) {
+                    err(result.error);
+                } else if (!"".equals(result.output)) {
+                    out(result.output);
                 }
                 // Save max level
-                int level = problems.stream().mapToInt(problem -> (Integer)Linter.getProblemLevel(problem.getLevel())).max().orElse(0);
-                if (level > maxLevel) {
-                    maxLevel = level;
+                if (result.level > maxLevel) {
+                    maxLevel = result.level;
                 }
-            } catch (IOException e) {
-                err("Cannot read " + ("-".equals(path)?"standard input":("file `" + path + "'")) + ", skipping");
-            }
 
-            // Add an extra line break for standard and colored formats
-            if (!first && OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)) != OutputFormat.PARSABLE && OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)) != OutputFormat.GITHUB) {
-                out("");
+                // Add an extra line break for standard and colored formats
+                if (!first && OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)) != OutputFormat.PARSABLE && OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)) != OutputFormat.GITHUB) {
+                    out("");
+                }
+                first = false;
+
+                // Stop at the first file with an error if requested
+                if (limits.isFailFast() && result.level == errorLevel) {
+                    pending.forEach(future -> future.cancel(true));
+                    break;
+                }
             }
-            first = false;
+        } finally {
+            executor.shutdownNow();
         }
 
-        if (maxLevel == (int)Linter.getProblemLevel(Linter.ERROR_LEVEL)) {
+        if (maxLevel == errorLevel) {
             System.exit(1);
         } else if (maxLevel == (int)Linter.getProblemLevel(Linter.WARNING_LEVEL) && Boolean.TRUE.equals(arguments.get(ARG_STRICT))) {
             System.exit(2);
@@ -175,6 +206,68 @@ public final class Cli {
         System.exit(0);
     }
 
+    /**
+     * Lints a file and formats the problems found
+     *
+     * @param path the path to the file to be linted or - for the standard input
+     * @param conf the yamllint configuration
+     * @param limits the limits of the linting of the file
+     * @param arguments the command line arguments
+     * @return the formatted problems and their maximum level, or an error message if the file cannot be read
+     */
+    private FileResult lint(final String path, final YamlLintConfig conf, final LintLimits limits, final Map<String, Object> arguments) {
+        try (InputStream in = "-".equals(path)?System.in:new FileInputStream(path)) {
+            File file = new File("-".equals(path)?"stdin":path);
+            // Get problems and remove warnings if requested
+            List<LintProblem> problems = lint(in, conf, file, limits, arguments).stream().filter(problem -> Boolean.FALSE.equals(arguments.get(ARG_NO_WARNINGS)) ||
+                    problem.getLevel() == null || Linter.ERROR_LEVEL.equals(problem.getLevel())).collect(Collectors.toList());
+            String output = Format.format(file.getPath(), problems, OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)));
+            int level = problems.stream().mapToInt(problem -> (Integer)Linter.getProblemLevel(problem.getLevel())).max().orElse(0);
+            return new FileResult(output, level, null);
+        } catch (IOException e) {
+            return new FileResult(null, 0, "Cannot read " + ("-".equals(path)?"standard input":("file `" + path + "'")) + ", skipping");
+        }
+    }
+
+    /**
+     * Lints a YAML stream, or only checks its syntax if requested
+     *
+     * @param in the YAML stream
+     * @param conf the yamllint configuration
+     * @param file the file whose content is read from the stream
+     * @param limits the limits of the linting of the file
+     * @param arguments the command line arguments
+     * @return the problems found
+     * @throws IOException if the stream cannot be read
+     */
+    private List<LintProblem> lint(final InputStream in, final YamlLintConfig conf, final File file, final LintLimits limits, final Map<String, Object> arguments) throws IOException {
+        if (Boolean.TRUE.equals(arguments.get(ARG_SYNTAX_ONLY))) {
+            LintProblem syntaxError = Linter.getSyntaxError(in);
+            return (syntaxError == null) ? Collections.emptyList() : Collections.singletonList(syntaxError);
+        }
+        return Linter.run(in, conf, file, limits);
+    }
+
+    /**
+     * Waits for the result of the lint of a file
+     *
+     * @param future the lint task of a file
+     * @return the result of the lint
+     */
+    private FileResult getResult(Future<FileResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Returns a map with the options and arguments passed on the command line
      *
@@ -191,6 +284,11 @@ public final class Cli {
         arguments.put(ARG_NO_WARNINGS, cmdLine.hasOption(ARG_NO_WARNINGS));
         arguments.put(ARG_LIST_FILES, cmdLine.hasOption(ARG_LIST_FILES));
         arguments.put(ARG_STRICT, cmdLine.hasOption('s'));
+        arguments.put(ARG_SYNTAX_ONLY, cmdLine.hasOption(ARG_SYNTAX_ONLY));
+        arguments.put(ARG_MAX_PROBLEMS, (cmdLine.hasOption(ARG_MAX_PROBLEMS))?Integer.parseInt(cmdLine.getOptionValue(ARG_MAX_PROBLEMS)):0);
+        arguments.put(ARG_MAX_PROBLEMS_PER_RULE, (cmdLine.hasOption(ARG_MAX_PROBLEMS_PER_RULE))?Integer.parseInt(cmdLine.getOptionValue(ARG_MAX_PROBLEMS_PER_RULE)):0);
+        arguments.put(ARG_FAIL_FAST, cmdLine.hasOption(ARG_FAIL_FAST));
+        arguments.put(ARG_JOBS, (cmdLine.hasOption('j'))?Integer.parseInt(cmdLine.getOptionValue('j')):Runtime.getRuntime().availableProcessors());
         arguments.put(ARG_FILES_OR_DIR, cmdLine.getArgs());
 
         return arguments;
@@ -216,7 +314,12 @@ public final class Cli {
                 OUTPUT_FORMATS.keySet().stream().map(f -> (DEFAULT_FORMAT.equals(f))?("'" + f + "' (default)"):("'" + f + "'")).collect(Collectors.joining(", "))).build());
         options.addOption(Option.builder().longOpt(ARG_NO_WARNINGS).hasArg(false).argName(ARG_NO_WARNINGS).desc("output only error level problems").build());
         options.addOption(Option.builder().longOpt(ARG_LIST_FILES).hasArg(false).argName(ARG_LIST_FILES).desc("list files to lint and exit").build());
+        options.addOption(Option.builder().longOpt(ARG_SYNTAX_ONLY).hasArg(false).argName(ARG_SYNTAX_ONLY).desc("only check the YAML syntax, without applying the rules").build());
+        options.addOption(Option.builder().longOpt(ARG_MAX_PROBLEMS).hasArg().argName("max").desc("maximum number of problems reported per file").build());
+        options.addOption(Option.builder().longOpt(ARG_MAX_PROBLEMS_PER_RULE).hasArg().argName("max").desc("maximum number of problems reported per rule and per file").build());
+        options.addOption(Option.builder().longOpt(ARG_FAIL_FAST).hasArg(false).argName(ARG_FAIL_FAST).desc("stop at the first file with an error level problem").build());
         options.addOption(Option.builder("s").longOpt(ARG_STRICT).hasArg(false).argName(ARG_STRICT).desc("return non-zero exit code on warnings as well as errors").build());
+        options.addOption(Option.builder("j").longOpt(ARG_JOBS).hasArg().argName(ARG_JOBS).desc("number of files linted in parallel (default: number of available processors)").build());
 
         return options;
     }
@@ -254,6 +357,15 @@ public final class Cli {
                 );
             }
 
+            if (cmdLine.hasOption(ARG_JOBS) && !cmdLine.getOptionValue(ARG_JOBS).matches("[1-9][0-9]{0,8}")) {
+                endOnError(String.format("invalid number of jobs '%s': must be a positive integer", cmdLine.getOptionValue(ARG_JOBS)), false);
+            }
+            for (String option : Arrays.asList(ARG_MAX_PROBLEMS, ARG_MAX_PROBLEMS_PER_RULE)) {
+                if (cmdLine.hasOption(option) && !cmdLine.getOptionValue(option).matches("[1-9][0-9]{0,8}")) {
+                    endOnError(String.format("invalid maximum number of problems '%s': must be a positive integer", cmdLine.getOptionValue(option)), false);
+                }
+            }
+
             // If no argument, we show a short error message
             if (cmdLine.getArgs().length == 0) {
                 endOnError("FILE_OR_DIR is required", true);
@@ -410,7 +522,7 @@ public final class Cli {
      * @param options the options this program takes
      */
     private void showHelpAndExit(Options options, OutputStream output, int exitCode) {
-        String syntax = "yamllint [-h] [-v] [-c <config_file> | -d <config_data>] [-f <format>] [--no-warnings] [-s] FILE_OR_DIR ...";
+        String syntax = "yamllint [-h] [-v] [-c <config_file> | -d <config_data>] [-f <format>] [--no-warnings] [--syntax-only] [--max-problems <max>] [--max-problems-per-rule <max>] [--fail-fast] [-s] [-j <jobs>] FILE_OR_DIR ...";
         HelpFormatter formatter = new HelpFormatter();
         // Show the options in the order they were added
         formatter.setOptionComparator((Option o1, Option o2) -> 1);
@@ -484,4 +596,20 @@ public final class Cli {
             System.exit(1);
         }
     }
+
+
+    /**
+     * Result of the lint of a file
+     */
+    private static class FileResult {
+        private final String output;
+        private final int level;
+        private final String error;
+
+        FileResult(String output, int level, String error) {
+            this.output = output;
+            this.level = level;
+            this.error = error;
+        }
+    }
 }
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.util.Arrays;
+
+/**
+ * Index of the lines of a string, built once with a single pass over the string. Lines are separated by
+ * <code>\n</code> (a <code>\r</code> before it is not part of the line) and numbered from 1: the last line is the
+ * text after the last <code>\n</code>, possibly empty. The index gives the boundaries, the indentation and the
+ * blank line runs of the lines in constant time.
+ */
+public final class LineIndex {
+    private final String buffer;
+    /**
+     * Offsets of the starts of the lines: the line <var>n</var> starts at <code>starts[n - 1]</code>
+     */
+    private final int[] starts;
+    private final int count;
+    private final boolean mixedLineBreaks;
+    /**
+     * Number of consecutive blank lines ending at each line, computed on demand
+     */
+    private volatile int[] blankRuns = null;
+
+
+    /**
+     * Constructor
+     *
+     * @param buffer the string to be indexed
+     */
+    public LineIndex(String buffer) {
+        this.buffer = buffer;
+        int[] offsets = new int[64];
+        int lines = 1;
+        boolean crlf = false;
+        boolean lf = false;
+        for (int i = buffer.indexOf('\n'); i >= 0; i = buffer.indexOf('\n', i + 1)) {
+            if (lines == offsets.length) {
+                offsets = Arrays.copyOf(offsets, lines * 2);
+            }
+            offsets[lines++] = i + 1;
+            if (i > 0 && buffer.charAt(i - 1) == '\r') {
+                crlf = true;
+            } else {
+                lf = true;
+            }
+        }
+        this.starts = offsets;
+        this.count = lines;
+        this.mixedLineBreaks = crlf && lf;
+    }
+
+
+    /**
+     * Returns the indexed string
+     *
+     * @return the string
+     */
+    public String getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of lines
+     *
+     * @return the number of lines, at least 1
+     */
+    public int getLineCount() {
+        return count;
+    }
+
+    /**
+     * Returns the offset of the start of a line
+     *
+     * @param lineNo a line number
+     * @return the offset of the first character of the line
+     * @throws IndexOutOfBoundsException if there is no such line
+     */
+    public int getStart(int lineNo) {
+        checkLineNo(lineNo);
+        return starts[lineNo - 1];
+    }
+
+    /**
+     * Returns the offset of the end of a line, line break excluded
+     *
+     * @param lineNo a line number
+     * @return the offset of the character that follows the last character of the line
+     * @throws IndexOutOfBoundsException if there is no such line
+     */
+    public int getEnd(int lineNo) {
+        checkLineNo(lineNo);
+        if (lineNo == count) {
+            return buffer.length();
+        }
+        int end = starts[lineNo] - 1;
+        return (end > starts[lineNo - 1] && buffer.charAt(end - 1) == '\r') ? end - 1 : end;
+    }
+
+    /**
+     * Returns the number of the line that contains the passed offset
+     *
+     * @param offset an offset in the string, the length of the string included
+     * @return a line number
+     * @throws IndexOutOfBoundsException if the offset is not in the string
+     */
+    public int getLineNo(int offset) {
+        if (offset < 0 || offset > buffer.length()) {
+            throw new IndexOutOfBoundsException("Offset out of the string: " + offset);
+        }
+        int index = Arrays.binarySearch(starts, 0, count, offset);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Returns the indentation of a line, i.e. the number of spaces it starts with
+     *
+     * @param lineNo a line number
+     * @return the number of leading spaces
+     * @throws IndexOutOfBoundsException if there is no such line
+     */
+    public int getIndent(int lineNo) {
+        int start = getStart(lineNo);
+        int end = getEnd(lineNo);
+        int content = start;
+        while (content < end && buffer.charAt(content) == ' ') {
+            content++;
+        }
+        return content - start;
+    }
+
+    /**
+     * Tells if a line is empty
+     *
+     * @param lineNo a line number
+     * @return <code>true</code> if the line has no character, line break excluded
+     * @throws IndexOutOfBoundsException if there is no such line
+     */
+    public boolean isBlank(int lineNo) {
+        return getStart(lineNo) == getEnd(lineNo);
+    }
+
+    /**
+     * Returns the number of consecutive blank lines that end at the passed line
+     *
+     * @param lineNo a line number
+     * @return the number of blank lines, this line included, or 0 if this line is not blank
+     * @throws IndexOutOfBoundsException if there is no such line
+     * @see #isBlank(int)
+     */
+    public int getBlankRun(int lineNo) {
+        checkLineNo(lineNo);
+        if (blankRuns == null) {
+            int[] runs = new int[count];
+            for (int i = 1; i <= count; i++) {
+                runs[i - 1] = isBlank(i) ? ((i > 1) ? runs[i - 2] : 0) + 1 : 0;
+            }
+            blankRuns = runs;
+        }
+        return blankRuns[lineNo - 1];
+    }
+
+    /**
+     * Tells if the string has both <code>\n</code> and <code>\r\n</code> line breaks
+     *
+     * @return <code>true</code> if the line breaks are mixed
+     */
+    public boolean hasMixedLineBreaks() {
+        return mixedLineBreaks;
+    }
+
+
+    private void checkLineNo(int lineNo) {
+        if (lineNo < 1 || lineNo > count) {
+            throw new IndexOutOfBoundsException("No such line: " + lineNo);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Buffers reused by the successive lint runs of a thread. When many (small) files are linted, their bytes are read
+ * into the same array from one file to the next instead of a new array growing for each file.
+ * <p>
+ * A context is acquired at the beginning of a run and released at its end; the bytes read must not be used after
+ * that. If a run is started while the context of the thread is in use (a rule that lints some YAML content, for
+ * example), the nested run gets its own context. A buffer that has grown larger than {@link #MAX_RETAINED_SIZE} is not
+ * kept after the run so that one big file does not hold memory for the life of the thread.
+ * <p>
+ * The code points decoded from the bytes are not part of the context: the marks of the tokens expose them to the
+ * rules, which expect an array of the exact size of the content.
+ */
+final class LintContext {
+    /**
+     * Maximum size of the buffer kept from one run to the next
+     */
+    static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_SIZE = 8 * 1024;
+    private static final ThreadLocal<LintContext> CONTEXTS = ThreadLocal.withInitial(LintContext::new);
+
+    private byte[] bytes = new byte[INITIAL_SIZE];
+    private boolean inUse = false;
+
+
+    private LintContext() {
+    }
+
+
+    /**
+     * Returns the context of the current thread or, if it is already in use, a new context
+     *
+     * @return a context for a lint run, to be released at the end of the run
+     */
+    static LintContext acquire() {
+        LintContext context = CONTEXTS.get();
+        if (context.inUse) {
+            context = new LintContext();
+        }
+        context.inUse = true;
+        return context;
+    }
+
+    /**
+     * Releases this context at the end of a run
+     */
+    void release() {
+        inUse = false;
+        if (bytes.length > MAX_RETAINED_SIZE) {
+            bytes = new byte[INITIAL_SIZE];
+        }
+    }
+
+    /**
+     * Reads the passed stream until its end
+     *
+     * @param in a stream. It is not closed by this method.
+     * @return the bytes read, wrapping the byte buffer of this context
+     * @throws IOException if the stream cannot be read
+     */
+    ByteBuffer read(InputStream in) throws IOException {
+        int length = 0;
+        int read;
+        while ((read = in.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+        }
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+
+    /**
+     * Reads the passed number of bytes from a channel
+     *
+     * @param channel a channel
+     * @param size the number of bytes to be read
+     * @return the bytes read, wrapping the byte buffer of this context
+     * @throws IOException if the channel cannot be read
+     */
+    ByteBuffer read(FileChannel channel, int size) throws IOException {
+        if (bytes.length < size) {
+            bytes = new byte[size];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+        while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+            // Read until the buffer is full
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
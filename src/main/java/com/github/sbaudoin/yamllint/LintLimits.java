@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+/**
+ * Limits put on the linting of a YAML content, for the callers that do not need all the problems: the linting stops
+ * as soon as the limits are reached. A limit of 0 means no limit.
+ */
+public class LintLimits {
+    /**
+     * No limit: all the problems are returned
+     */
+    public static final LintLimits NONE = new LintLimits(0, 0, false);
+
+    private final int maxProblems;
+    private final int maxProblemsPerRule;
+    private final boolean failFast;
+
+
+    /**
+     * Constructor
+     *
+     * @param maxProblems maximum number of problems returned for a YAML content, or 0 for no limit. The syntax error
+     *                    is always returned, even once this limit is reached: it then replaces the last problem.
+     * @param maxProblemsPerRule maximum number of problems returned by each rule for a YAML content, or 0 for no
+     *                           limit. A rule that reached this limit is no longer applied.
+     * @param failFast if <code>true</code>, the linting stops at the first error level problem
+     * @throws IllegalArgumentException if one of the limits is negative
+     */
+    public LintLimits(int maxProblems, int maxProblemsPerRule, boolean failFast) {
+        if (maxProblems < 0 || maxProblemsPerRule < 0) {
+            throw new IllegalArgumentException("Limits cannot be negative");
+        }
+        this.maxProblems = maxProblems;
+        this.maxProblemsPerRule = maxProblemsPerRule;
+        this.failFast = failFast;
+    }
+
+
+    /**
+     * Returns the maximum number of problems returned for a YAML content
+     *
+     * @return a number of problems, 0 meaning no limit
+     */
+    public int getMaxProblems() {
+        return maxProblems;
+    }
+
+    /**
+     * Returns the maximum number of problems returned by each rule for a YAML content
+     *
+     * @return a number of problems, 0 meaning no limit
+     */
+    public int getMaxProblemsPerRule() {
+        return maxProblemsPerRule;
+    }
+
+    /**
+     * Tells if the linting stops at the first error level problem
+     *
+     * @return <code>true</code> if the linting stops at the first error
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Tells if the passed number of problems reaches the maximum number of problems
+     *
+     * @param problems a number of problems
+     * @return <code>true</code> if there is a maximum number of problems and it is reached
+     */
+    boolean isReached(int problems) {
+        return maxProblems > 0 && problems >= maxProblems;
+    }
+
+    /**
+     * Tells if the passed number of problems found by a rule reaches the maximum number of problems per rule
+     *
+     * @param problems a number of problems found by a rule
+     * @return <code>true</code> if there is a maximum number of problems per rule and it is reached
+     */
+    boolean isReachedForRule(int problems) {
+        return maxProblemsPerRule > 0 && problems >= maxProblemsPerRule;
+    }
+}
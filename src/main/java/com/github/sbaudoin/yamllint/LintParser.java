@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.ReaderException;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.scanner.Scanner;
+import org.yaml.snakeyaml.scanner.ScannerException;
+import org.yaml.snakeyaml.tokens.Token;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * <code>LintScanner</code> that also runs SnakeYAML's event parser on top of the scanned tokens. This way, the tokens
+ * passed to the rules and the syntax error of the YAML content come from one single scan of this content.
+ * <p>
+ * The tokens are returned in the very same way as with {@link LintScanner}: <code>null</code> when there are no more
+ * tokens and a <code>ScannerException</code> when the content cannot be tokenized any further. When the parser fails,
+ * the remaining tokens are read directly from the scanner so that the rules still get all the tokens they would
+ * have got from a simple <code>LintScanner</code>.
+ *
+ * @see LintScanner
+ */
+public class LintParser extends LintScanner {
+    private final Scanner scanner;
+    private final ParserImpl parser;
+    private final StreamReader reader;
+
+    /**
+     * Tokens consumed by the parser but not yet returned by this scanner
+     */
+    private final Deque<Token> tokens = new ArrayDeque<>();
+
+    private boolean parsing = true;
+    /**
+     * Line of the last token consumed by the parser
+     */
+    private int parsedLine = -1;
+    private boolean ended = false;
+    private ScannerException scannerError = null;
+    private MarkedYAMLException syntaxError = null;
+
+
+    /**
+     * Constructor
+     *
+     * @param reader a reader to the YAML content
+     * @see org.yaml.snakeyaml.reader.StreamReader
+     * @see LintStreamReader
+     */
+    public LintParser(StreamReader reader) {
+        super(reader);
+        this.reader = reader;
+        this.scanner = getScanner();
+        this.parser = new ParserImpl(new RecordingScanner());
+    }
+
+
+    @Override
+    public Token peekToken() {
+        return fill() ? tokens.peek() : end();
+    }
+
+    @Override
+    public Token getToken() {
+        return fill() ? tokens.poll() : end();
+    }
+
+    @Override
+    public boolean hasMoreTokens() {
+        return fill() || end() != null;
+    }
+
+    /**
+     * Returns the first syntax error met in the YAML content. If the tokens have not all been read yet, the rest of
+     * the content is scanned and parsed first.
+     *
+     * @return a problem or <code>null</code> if there is no syntax error
+     */
+    public LintProblem getSyntaxError() {
+        while (!ended) {
+            advance();
+        }
+
+        LintProblem readerError = getReaderError();
+        if (readerError != null) {
+            return readerError;
+        }
+        return (syntaxError == null) ? null : Linter.getSyntaxError(syntaxError);
+    }
+
+
+    /**
+     * Tells if the parser meets a syntax error before it consumes a token of the passed line. The content is parsed
+     * up to this line if needed. Errors found by the reader are not taken into account.
+     *
+     * @param line a line number (starting at 0)
+     * @return <code>true</code> if there is a syntax error before this line or on its first token
+     */
+    boolean hasSyntaxError(int line) {
+        while (!ended && parsing && parsedLine < line) {
+            advance();
+        }
+        return syntaxError != null;
+    }
+
+    /**
+     * Makes sure there is at least one token available in the buffer, unless the end of the stream (or a scanner
+     * error) has been reached
+     *
+     * @return <code>true</code> if there is a token available, <code>false</code> if not
+     */
+    private boolean fill() {
+        while (tokens.isEmpty() && !ended) {
+            advance();
+        }
+        return !tokens.isEmpty();
+    }
+
+    /**
+     * Returns <code>null</code> or throws the scanner error met, if any
+     *
+     * @return <code>null</code>
+     * @throws ScannerException if the scanner failed
+     */
+    private Token end() {
+        if (scannerError != null) {
+            throw scannerError;
+        }
+        return null;
+    }
+
+    /**
+     * Parses one more event or, once the parser has stopped, scans one more token
+     */
+    private void advance() {
+        try {
+            if (parsing) {
+                if (parser.peekEvent() == null) {
+                    parsing = false;
+                } else {
+                    parser.getEvent();
+                }
+            } else if (scanner.checkToken()) {
+                tokens.add(scanner.getToken());
+            } else {
+                ended = true;
+            }
+        } catch (ScannerException e) {
+            // The scanner cannot go any further
+            recordError(e);
+            scannerError = e;
+            ended = true;
+        } catch (MarkedYAMLException e) {
+            // Parser error: scan the remaining tokens without parsing them
+            recordError(e);
+            parsing = false;
+        }
+    }
+
+    private void recordError(MarkedYAMLException e) {
+        if (syntaxError == null) {
+            syntaxError = e;
+        }
+    }
+
+    /**
+     * Returns a problem for the first non-printable character found by the reader if it comes before any other
+     * syntax error. SnakeYAML's readers reject such characters whereas <code>LintStreamReader</code> does not.
+     *
+     * @return a problem or <code>null</code>
+     */
+    private LintProblem getReaderError() {
+        if (!(reader instanceof LintStreamReader)) {
+            return null;
+        }
+        LintStreamReader lintReader = (LintStreamReader)reader;
+        int pointer = lintReader.getNonPrintablePointer();
+        if (pointer < 0 || (syntaxError != null && syntaxError.getProblemMark() != null && syntaxError.getProblemMark().getPointer() < pointer)) {
+            return null;
+        }
+
+        Mark mark = lintReader.getMark(pointer);
+        ReaderException e = new ReaderException(mark.getName(), lintReader.getStreamOffset() + pointer, mark.getBuffer()[pointer], "special characters are not allowed");
+        LintProblem problem = new LintProblem(mark.getLine() + 1, mark.getColumn() + 1, "syntax error: " + e.getMessage());
+        problem.setLevel(Linter.ERROR_LEVEL);
+        problem.setExtraDesc(e.toString());
+        return problem;
+    }
+
+
+    /**
+     * Scanner passed to the parser that keeps a copy of all the tokens it consumes
+     */
+    private class RecordingScanner implements Scanner {
+        @Override
+        public boolean checkToken(Token.ID... choices) {
+            return scanner.checkToken(choices);
+        }
+
+        @Override
+        public Token peekToken() {
+            return scanner.peekToken();
+        }
+
+        @Override
+        public Token getToken() {
+            Token token = scanner.getToken();
+            tokens.add(token);
+            parsedLine = token.getStartMark().getLine();
+            return token;
+        }
+
+        @Override
+        public void resetDocumentIndex() {
+            scanner.resetDocumentIndex();
+        }
+    }
+}
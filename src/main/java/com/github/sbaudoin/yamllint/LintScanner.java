@@ -17,6 +17,7 @@ package com.github.sbaudoin.yamllint;
 
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.scanner.Scanner;
 import org.yaml.snakeyaml.scanner.ScannerImpl;
 import org.yaml.snakeyaml.tokens.Token;
 
@@ -29,7 +30,12 @@ import org.yaml.snakeyaml.tokens.Token;
  * @see org.yaml.snakeyaml.scanner.ScannerImpl
  */
 public class LintScanner {
-    private ScannerImpl scanner;
+    /**
+     * Scanner options, only read by the scanners and then shared by all of them
+     */
+    private static final LoaderOptions LOADER_OPTIONS = new LoaderOptions();
+
+    private final ScannerImpl scanner;
 
     /**
      * Constructor
@@ -39,7 +45,17 @@ public class LintScanner {
      * @see LintStreamReader
      */
     public LintScanner(StreamReader reader) {
-        scanner = new ScannerImpl(reader, new LoaderOptions());
+        scanner = new ScannerImpl(reader, LOADER_OPTIONS);
+    }
+
+
+    /**
+     * Returns the underlying SnakeYAML scanner
+     *
+     * @return the scanner wrapped by this class
+     */
+    protected Scanner getScanner() {
+        return scanner;
     }
 
 
@@ -21,16 +21,22 @@ import org.yaml.snakeyaml.scanner.Constant;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.MalformedInputException;
+import java.util.Arrays;
 
 /**
  * <code>StreamReader</code> intended to replace SnakeYAML's standard class for loading the whole content in memory.
- * This is not optimized but this is a requirement to permanently be able to have a complete access to the complete file
- * content without windowing.
+ * This is a requirement to permanently be able to have a complete access to the complete file content without
+ * windowing. The content is read in bulk and converted once into an array of code points.
  */
 public class LintStreamReader extends StreamReader {
+    /**
+     * Size of the chunks read from readers
+     */
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
     private String name;
 
     /**
@@ -51,6 +57,19 @@ public class LintStreamReader extends StreamReader {
     private int line = 0;
     private int column = 0; //in code points
     private int[] buffer;
+    /**
+     * Position of the first non-printable code point of the stream, -1 if none, computed on demand
+     */
+    private int nonPrintable = -2;
+    /**
+     * Position of the content of this reader in the stream it comes from
+     */
+    private int streamOffset = 0;
+    /**
+     * Last mark returned by {@link #getMark()}: the scanner often asks several times for the mark of the same position
+     * (e.g. for a simple key and its scalar) and marks are immutable
+     */
+    private Mark lastMark;
 
 
     /**
@@ -59,8 +78,30 @@ public class LintStreamReader extends StreamReader {
      * @param stream a string representing a YAML content
      */
     public LintStreamReader(String stream) {
-        this(new StringReader(stream));
-        this.name = "'string'";
+        this(stream, "'string'");
+    }
+
+    /**
+     * Constructor
+     *
+     * @param stream a YAML content
+     * @param name the name of the stream, used in marks
+     */
+    LintStreamReader(CharSequence stream, String name) {
+        this(toCodePoints(stream), name);
+    }
+
+    /**
+     * Constructor. The passed array is used as is, it is not copied.
+     *
+     * @param codePoints the code points of the YAML content
+     * @param name the name of the stream, used in marks
+     */
+    LintStreamReader(int[] codePoints, String name) {
+        super("");
+        this.name = name;
+        this.buffer = codePoints;
+        this.dataLength = codePoints.length;
     }
 
     /**
@@ -72,9 +113,9 @@ public class LintStreamReader extends StreamReader {
         super(reader);
 
         this.name = "'reader'";
-        this.dataLength = 0;
         try {
             this.buffer = read(reader);
+            this.dataLength = buffer.length;
         } catch (IOException e) {
             this.buffer = new int[0];
             throw new IllegalArgumentException("cannot read data from reader", e);
@@ -84,7 +125,83 @@ public class LintStreamReader extends StreamReader {
 
     @Override
     public Mark getMark() {
-        return new Mark(name, this.index, this.line, this.column, this.buffer, this.pointer);
+        if (lastMark == null || lastMark.getPointer() != pointer) {
+            lastMark = new Mark(name, this.index, this.line, this.column, this.buffer, this.pointer);
+        }
+        return lastMark;
+    }
+
+    /**
+     * Returns the mark of the passed position of the stream
+     *
+     * @param pointer a position (in code points) in the stream
+     * @return the mark of the passed position
+     */
+    Mark getMark(int pointer) {
+        int l = 0;
+        int col = 0;
+        for (int i = 0; i < pointer; i++) {
+            int c = buffer[i];
+            if (isPrintableAscii(c)) {
+                col++;
+            } else if (Constant.LINEBR.has(c) || (c == '\r' && i + 1 < buffer.length && buffer[i + 1] != '\n')) {
+                l++;
+                col = 0;
+            } else if (c != 0xFEFF) {
+                col++;
+            }
+        }
+        return new Mark(name, pointer, l, col, buffer, pointer);
+    }
+
+    /**
+     * Moves the reader to the position of the passed mark
+     *
+     * @param mark a mark returned by a reader of the same content
+     */
+    void seek(Mark mark) {
+        this.pointer = mark.getPointer();
+        this.index = mark.getIndex();
+        this.line = mark.getLine();
+        this.column = mark.getColumn();
+    }
+
+    /**
+     * Sets the position of the content of this reader in the stream it comes from, when the content is a part of a
+     * bigger stream. This position is added to the positions given in the reader errors.
+     *
+     * @param streamOffset a position in code points
+     */
+    void setStreamOffset(int streamOffset) {
+        this.streamOffset = streamOffset;
+    }
+
+    /**
+     * Returns the position of the content of this reader in the stream it comes from
+     *
+     * @return a position in code points, 0 if the content is the whole stream
+     */
+    int getStreamOffset() {
+        return streamOffset;
+    }
+
+    /**
+     * Returns the position of the first code point of the stream that is not accepted by YAML
+     *
+     * @return the position (in code points) of the first non-printable character or -1 if all characters are printable
+     * @see StreamReader#isPrintable(int)
+     */
+    int getNonPrintablePointer() {
+        if (nonPrintable == -2) {
+            nonPrintable = -1;
+            for (int i = 0; i < buffer.length; i++) {
+                if (!isPrintableAscii(buffer[i]) && !isPrintable(buffer[i])) {
+                    nonPrintable = i;
+                    break;
+                }
+            }
+        }
+        return nonPrintable;
     }
 
     /**
@@ -95,10 +212,14 @@ public class LintStreamReader extends StreamReader {
      */
     @Override
     public void forward(int length) {
-        for (int i = 0; i < length && hasEnoughData(); i++) {
+        int end = (length < dataLength - pointer) ? pointer + length : dataLength;
+        while (pointer < end) {
             int c = buffer[pointer++];
             this.index++;
-            if (Constant.LINEBR.has(c)
+            if (isPrintableAscii(c)) {
+                // Fast path: neither a line break nor a BOM
+                this.column++;
+            } else if (Constant.LINEBR.has(c)
                     || (c == '\r' && (hasEnoughData() && buffer[pointer] != '\n'))) {
                 this.line++;
                 this.column = 0;
@@ -163,6 +284,17 @@ public class LintStreamReader extends StreamReader {
     }
 
 
+    /**
+     * Tells if the passed code point is a printable ASCII character, i.e. neither a control character nor a line
+     * break
+     *
+     * @param c a code point
+     * @return <code>true</code> if the code point is between <code>0x20</code> and <code>0x7E</code>
+     */
+    private static boolean isPrintableAscii(int c) {
+        return c >= ' ' && c <= '~';
+    }
+
     private boolean hasEnoughData() {
         return hasEnoughData(0);
     }
@@ -171,19 +303,17 @@ public class LintStreamReader extends StreamReader {
         return (this.pointer + size) < buffer.length;
     }
 
-    private int[] read(Reader reader) throws IOException {
-        List<Character> data = new ArrayList<>();
-        int c;
-        while ((c = reader.read()) >= 0) {
-            data.add((char)c);
-        }
-        // Convert list to array
-        dataLength = data.size();
-        char[] b = new char[dataLength];
-        for(int i = 0; i < dataLength; i++) {
-            b[i] = data.get(i);
+    private static int[] read(Reader reader) throws IOException {
+        char[] data = new char[READ_BUFFER_SIZE];
+        int length = 0;
+        int read;
+        while ((read = reader.read(data, length, data.length - length)) != -1) {
+            length += read;
+            if (length == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
         }
-        return toCodePoints(b);
+        return toCodePoints(CharBuffer.wrap(data, 0, length));
     }
 
 
@@ -206,13 +336,95 @@ public class LintStreamReader extends StreamReader {
     }
 
 
-    private static int[] toCodePoints(char[] str) {
-        int[] codePoints = new int[Character.codePointCount(str, 0, str.length)];
-        for (int i = 0, c = 0; i < str.length; c++) {
+    /**
+     * Converts the passed characters into code points
+     *
+     * @param str a sequence of characters
+     * @return the code points of the passed characters
+     */
+    static int[] toCodePoints(CharSequence str) {
+        int length = str.length();
+        int count = Character.codePointCount(str, 0, length);
+        int[] codePoints = new int[count];
+        if (count == length) {
+            // No surrogate pair: one code point per character
+            for (int i = 0; i < length; i++) {
+                codePoints[i] = str.charAt(i);
+            }
+            return codePoints;
+        }
+        for (int i = 0, c = 0; i < length; c++) {
             int cp = Character.codePointAt(str, i);
             codePoints[c] = cp;
             i += Character.charCount(cp);
         }
         return codePoints;
     }
+
+    /**
+     * Decodes the passed UTF-8 bytes into code points. The bytes are read from the current position to the limit of
+     * the buffer.
+     *
+     * @param bytes UTF-8 encoded bytes, for example a memory-mapped file
+     * @return the decoded code points
+     * @throws MalformedInputException if the bytes are not valid UTF-8
+     */
+    static int[] decodeUtf8(ByteBuffer bytes) throws MalformedInputException {
+        int start = bytes.position();
+        int limit = bytes.limit();
+
+        // Count the code points first so that the array has the right size
+        int count = 0;
+        for (int i = start; i < limit; i++) {
+            if ((bytes.get(i) & 0xC0) != 0x80) {
+                count++;
+            }
+        }
+
+        int[] codePoints = new int[count];
+        int c = 0;
+        int i = start;
+        while (i < limit) {
+            int b = bytes.get(i);
+            if (b >= 0) {
+                codePoints[c++] = b;
+                i++;
+                continue;
+            }
+            int length;
+            int cp;
+            int min;
+            if ((b & 0xE0) == 0xC0) {
+                length = 2;
+                cp = b & 0x1F;
+                min = 0x80;
+            } else if ((b & 0xF0) == 0xE0) {
+                length = 3;
+                cp = b & 0x0F;
+                min = 0x800;
+            } else if ((b & 0xF8) == 0xF0) {
+                length = 4;
+                cp = b & 0x07;
+                min = 0x10000;
+            } else {
+                throw new MalformedInputException(1);
+            }
+            if (i + length > limit) {
+                throw new MalformedInputException(limit - i);
+            }
+            for (int j = 1; j < length; j++) {
+                int cont = bytes.get(i + j);
+                if ((cont & 0xC0) != 0x80) {
+                    throw new MalformedInputException(j);
+                }
+                cp = (cp << 6) | (cont & 0x3F);
+            }
+            if (cp < min || cp > Character.MAX_CODE_POINT || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+                throw new MalformedInputException(length);
+            }
+            codePoints[c++] = cp;
+            i += length;
+        }
+        return codePoints;
+    }
 }
@@ -19,22 +19,41 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.CharSequenceReader;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.tokens.BlockEndToken;
+import org.yaml.snakeyaml.tokens.DocumentEndToken;
+import org.yaml.snakeyaml.tokens.StreamStartToken;
+import org.yaml.snakeyaml.tokens.Token;
 import com.github.sbaudoin.yamllint.rules.CommentRule;
 import com.github.sbaudoin.yamllint.rules.LineRule;
 import com.github.sbaudoin.yamllint.rules.Rule;
+import com.github.sbaudoin.yamllint.rules.RuleOptions;
 import com.github.sbaudoin.yamllint.rules.TokenRule;
-import org.yaml.snakeyaml.reader.UnicodeReader;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Main linter class. This is the class that does the main lint job. As it contains only static methods can be invoked
  * directly outside of the {@link Cli} class.
+ * <p>
+ * The <code>run</code> methods are thread-safe: they can be called concurrently from several threads, with the same
+ * or with different configurations. Each run has its own scanner, rule states and problem list; the configuration
+ * and its rules are only read.
  */
 public class Linter {
     /**
@@ -42,6 +61,35 @@ public class Linter {
      */
     private static final String RULE_TOKEN = "rule:";
 
+    /**
+     * Start of all yamllint directives
+     */
+    private static final String DIRECTIVE_PREFIX = "# yamllint ";
+
+    private static final String DISABLE = "disable";
+    private static final String ENABLE = "enable";
+    private static final String DISABLE_LINE = "disable-line";
+
+    /**
+     * Pattern of the yamllint directives
+     */
+    private static final Pattern DIRECTIVE_PATTERN = Pattern.compile(
+            DIRECTIVE_PREFIX + "(" + DISABLE_LINE + "|" + DISABLE + "|" + ENABLE + ")((?: " + RULE_TOKEN + "\\S+)*)\\s*$");
+
+    /**
+     * Name given to the YAML content in syntax error messages
+     */
+    private static final String READER_NAME = "'reader'";
+
+    /**
+     * Size from which files are memory-mapped rather than read
+     */
+    private static final int MAPPING_THRESHOLD = 256 * 1024;
+
+    private static final byte[] BOM_UTF8 = { (byte)0xEF, (byte)0xBB, (byte)0xBF };
+    private static final byte[] BOM_UTF16BE = { (byte)0xFE, (byte)0xFF };
+    private static final byte[] BOM_UTF16LE = { (byte)0xFF, (byte)0xFE };
+
     /**
      * Key for error levels
      */
@@ -101,7 +149,7 @@ public class Linter {
      * @throws IllegalArgumentException if <var>conf</var> is {@code null}
      */
     public static List<LintProblem> run(CharSequence buffer, YamlLintConfig conf) {
-        return run(buffer, conf, new Yaml());
+        return run(buffer, conf, (Yaml)null);
     }
 
     /**
@@ -109,7 +157,7 @@ public class Linter {
      *
      * @param buffer a YAML configuration
      * @param conf yamllint configuration
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the scan of the YAML content. May be <code>null</code>.
      * @return the list of problems found for the passed file, possibly empty (never <code>null</code>)
      */
     public static List<LintProblem> run(CharSequence buffer, YamlLintConfig conf, Yaml yaml) {
@@ -127,7 +175,7 @@ public class Linter {
      * @throws IllegalArgumentException if <var>conf</var> is {@code null}
      */
     public static List<LintProblem> run(InputStream in, YamlLintConfig conf) throws IOException {
-        return run(in, conf, new Yaml());
+        return run(in, conf, (Yaml)null);
     }
 
     /**
@@ -141,7 +189,7 @@ public class Linter {
      * @throws IllegalArgumentException if <var>conf</var> is {@code null}
      */
     public static List<LintProblem> run(Reader in, YamlLintConfig conf) throws IOException {
-        return run(in, conf, new Yaml());
+        return run(in, conf, (Yaml)null);
     }
 
     /**
@@ -150,7 +198,7 @@ public class Linter {
      * @param in a YAML stream. Be aware that this {@code InputStream} is not closed by this method,
      *           you will have to do it yourself later.
      * @param conf yamllint configuration
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the scan of the YAML content. May be <code>null</code>.
      * @return the list of problems found for the passed file, possibly empty (never <code>null</code>)
      * @throws IOException if there is a problem reading the file
      */
@@ -164,7 +212,7 @@ public class Linter {
      * @param in the YAML content to be analyzed. Be aware that this {@code Reader} is not closed by this method,
      *           you will have to do it yourself later.
      * @param conf yamllint configuration
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the scan of the YAML content. May be <code>null</code>.
      * @return the list of problems found for the passed file, possibly empty (never <code>null</code>)
      * @throws IOException if there is a problem reading the file
      */
@@ -181,14 +229,14 @@ public class Linter {
      * @throws IOException if there is a problem reading the file
      */
     public static List<LintProblem> run(YamlLintConfig conf, File file) throws IOException {
-        return run(conf, new Yaml(), file);
+        return run(conf, (Yaml)null, file);
     }
 
     /**
      * Lints a YAML source represented as a file
      *
      * @param conf yamllint configuration. Cannot be <code>null</code>.
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the scan of the YAML content. May be <code>null</code>.
      * @param file the (YAML) file to lint
      * @return the list of problems found for the passed file, possibly empty (never <code>null</code>)
      * @throws IOException if there is a problem reading the file
@@ -202,9 +250,43 @@ public class Linter {
             return new ArrayList<>();
         }
 
-        try (FileInputStream in = new FileInputStream(file)) {
-            return run(in, conf, yaml, file);
+        return run(file.toPath(), conf, file, LintLimits.NONE);
+    }
+
+    /**
+     * Lints a YAML file. Large files are memory-mapped and decoded straight into the buffer of the scanner.
+     *
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param path the path to the (YAML) file to lint
+     * @return the list of problems found for the passed file, possibly empty (never <code>null</code>)
+     * @throws IOException if there is a problem reading the file
+     * @throws NullPointerException if <var>conf</var> or <var>path</var> is {@code null}
+     */
+    public static List<LintProblem> run(YamlLintConfig conf, Path path) throws IOException {
+        return run(conf, path, LintLimits.NONE);
+    }
+
+    /**
+     * Lints a YAML file, stopping as soon as the passed limits are reached. Large files are memory-mapped and decoded
+     * straight into the buffer of the scanner.
+     *
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param path the path to the (YAML) file to lint
+     * @param limits the limits of the linting. Cannot be <code>null</code>.
+     * @return the list of problems found for the passed file, possibly empty (never <code>null</code>)
+     * @throws IOException if there is a problem reading the file
+     * @throws NullPointerException if <var>conf</var>, <var>path</var> or <var>limits</var> is {@code null}
+     */
+    public static List<LintProblem> run(YamlLintConfig conf, Path path, LintLimits limits) throws IOException {
+        Objects.requireNonNull(conf);
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(limits);
+
+        if (conf.isFileIgnored(path.toString())) {
+            return new ArrayList<>();
         }
+
+        return run(path, conf, path.toFile(), limits);
     }
 
     /**
@@ -219,7 +301,7 @@ public class Linter {
      * @throws NullPointerException if <var>conf</var> is {@code null}
      */
     public static List<LintProblem> run(InputStream in, YamlLintConfig conf, File file) throws IOException {
-        return run(in, conf, new Yaml(), file);
+        return run(in, conf, null, file);
     }
 
     /**
@@ -234,7 +316,7 @@ public class Linter {
      * @throws NullPointerException if <var>conf</var> is {@code null}
      */
     public static List<LintProblem> run(Reader in, YamlLintConfig conf, File file) throws IOException {
-        return run(in, conf, new Yaml(), file);
+        return run(in, conf, null, file);
     }
 
     /**
@@ -243,26 +325,38 @@ public class Linter {
      * @param in the YAML content to be analyzed. Be aware that this {@code InputStream} is not closed by this method,
      *           you will have to do it yourself later.
      * @param conf yamllint configuration. Cannot be <code>null</code>.
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the scan of the YAML content. May be <code>null</code>.
      * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
      * @return the list of problems found on the passed YAML string
      * @throws IOException if an error occurred while reading the input stream
      */
     public static List<LintProblem> run(final InputStream in, final YamlLintConfig conf, final Yaml yaml, final File file) throws IOException {
+        return run(in, conf, file, LintLimits.NONE);
+    }
+
+    /**
+     * Checks a YAML stream and returns a list of problems, stopping as soon as the passed limits are reached
+     *
+     * @param in the YAML content to be analyzed. Be aware that this {@code InputStream} is not closed by this method,
+     *           you will have to do it yourself later.
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @param limits the limits of the linting. Cannot be <code>null</code>.
+     * @return the list of problems found on the passed YAML string
+     * @throws IOException if an error occurred while reading the input stream
+     * @throws NullPointerException if <var>conf</var> or <var>limits</var> is {@code null}
+     */
+    public static List<LintProblem> run(final InputStream in, final YamlLintConfig conf, final File file, final LintLimits limits) throws IOException {
         Objects.requireNonNull(conf);
         Objects.requireNonNull(in);
+        Objects.requireNonNull(limits);
 
-        // Properly read buffer, taking the BOM into account
-        Reader reader = new UnicodeReader(in);
-
-        char[] arr = new char[8 * 1024];
-        StringBuilder buffer = new StringBuilder();
-        int numCharsRead;
-        while ((numCharsRead = reader.read(arr, 0, arr.length)) != -1) {
-            buffer.append(arr, 0, numCharsRead);
+        LintContext context = LintContext.acquire();
+        try {
+            return run(context.read(in), conf, file, limits);
+        } finally {
+            context.release();
         }
-
-        return run(buffer, conf, yaml, file);
     }
 
     /**
@@ -271,7 +365,7 @@ public class Linter {
      * @param in the YAML content to be analyzed. Be aware that this {@code Reader} is not closed by this method,
      *           you will have to do it yourself later.
      * @param conf yamllint configuration. Cannot be <code>null</code>.
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the scan of the YAML content. May be <code>null</code>.
      * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
      * @return the list of problems found on the passed YAML string
      * @throws IOException if an error occurred while reading the input stream
@@ -290,7 +384,7 @@ public class Linter {
      * @throws NullPointerException if <var>conf</var> is {@code null}
      */
     public static List<LintProblem> run(CharSequence buffer, YamlLintConfig conf, File file) {
-        return run(buffer, conf, new Yaml(), file);
+        return run(buffer, conf, null, file);
     }
 
     /**
@@ -298,49 +392,687 @@ public class Linter {
      *
      * @param buffer the YAML content to be analyzed
      * @param conf yamllint configuration. Cannot be <code>null</code>.
-     * @param yaml the YAML parser to use for syntax checking
+     * @param yaml not used any more: the syntax is checked with the same scan of the YAML content as the one used by
+     *             the rules. May be <code>null</code>.
      * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
      * @return the list of problems found on the passed YAML string
      */
     public static List<LintProblem> run(final CharSequence buffer, final YamlLintConfig conf, final Yaml yaml, final File file) {
+        return run(buffer, conf, file, LintLimits.NONE);
+    }
+
+    /**
+     * Checks a YAML string and returns a list of problems, stopping as soon as the passed limits are reached
+     *
+     * @param buffer the YAML content to be analyzed
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @param limits the limits of the linting. Cannot be <code>null</code>.
+     * @return the list of problems found on the passed YAML string
+     * @throws NullPointerException if <var>conf</var> or <var>limits</var> is {@code null}
+     */
+    public static List<LintProblem> run(final CharSequence buffer, final YamlLintConfig conf, final File file, final LintLimits limits) {
+        Objects.requireNonNull(conf);
+        Objects.requireNonNull(limits);
+
+        String sBuffer = buffer.toString();
+        return run(sBuffer, new LintStreamReader(sBuffer, READER_NAME), 0, 1, conf, file, limits, new ProblemSink());
+    }
+
+    /**
+     * Lints a YAML string again after it has been edited, reusing the problems found before the edit. The content is
+     * only checked again from the start of the document that contains the edit: the problems found before this
+     * document are kept as is and the problems of the rest of the content are spliced in. The result is the same as
+     * with {@link #run(CharSequence, YamlLintConfig, File)}.
+     * <p>
+     * A document can be checked again on its own if it starts with a <code>---</code> line that comes before the
+     * edit. The whole content is checked again if there is no such line, if the content before this line contains a
+     * yamllint directive, a YAML directive (the tag handles declared by <code>%TAG</code> apply to the next
+     * documents) or a syntax error, or if one of the enabled token rules cannot check a document
+     * independently of the previous ones (see {@link TokenRule#isDocumentScoped(RuleOptions)}).
+     * <p>
+     * Documents are the only points from which the content is checked again: a content made of a single document is
+     * always checked again as a whole, even if the edit comes after a top-level key of its root mapping. The state of
+     * the token rules at such a key depends on the keys and anchors that come before it (see
+     * {@link com.github.sbaudoin.yamllint.rules.KeyDuplicates} and {@link com.github.sbaudoin.yamllint.rules.Anchors}),
+     * so it cannot be rebuilt without checking these keys again. With the default configuration, which detects the
+     * indentation on the whole content, the content is always checked again as a whole.
+     *
+     * @param buffer the YAML content after the edit
+     * @param conf yamllint configuration, the one with which the previous problems were found. Cannot be <code>null</code>.
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @param previous all the problems found in the content before the edit. Cannot be <code>null</code>.
+     * @param offset the offset in <var>buffer</var> of the first character changed by the edit: the content before
+     *               this offset must be the same as before the edit
+     * @return the list of problems found on the passed YAML string
+     * @throws NullPointerException if <var>conf</var> or <var>previous</var> is {@code null}
+     * @throws IllegalArgumentException if <var>offset</var> is not in the passed content
+     */
+    public static List<LintProblem> relint(final CharSequence buffer, final YamlLintConfig conf, final File file, final List<LintProblem> previous, final int offset) {
+        Objects.requireNonNull(conf);
+        Objects.requireNonNull(previous);
+        if (offset < 0 || offset > buffer.length()) {
+            throw new IllegalArgumentException("Offset out of the content: " + offset);
+        }
+
+        String sBuffer = buffer.toString();
+        List<Rule> rules = conf.getEnabledRules(file);
+        int start = getDocumentStart(sBuffer, offset);
+        int directive = sBuffer.indexOf(DIRECTIVE_PREFIX);
+        if (start <= 0 || (directive >= 0 && directive < start) || hasLineStartingWith(sBuffer, "%", start) || !isDocumentScoped(rules, conf)) {
+            return run(sBuffer, conf, file);
+        }
+
+        int lineNo = 1;
+        for (int i = sBuffer.indexOf('\n'); i >= 0 && i < start; i = sBuffer.indexOf('\n', i + 1)) {
+            lineNo++;
+        }
+
+        // Keep the problems found before the document
+        Map<String, Integer> ruleIndices = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            ruleIndices.put(rules.get(i).getId(), i);
+        }
+        ProblemSink problems = new ProblemSink();
+        for (LintProblem problem : previous) {
+            if (problem.getRuleId() == null && problem.getLine() <= lineNo) {
+                // Syntax error in the previous documents or on the document start: the rest of the content depends on it
+                return run(sBuffer, conf, file);
+            }
+            if (problem.getLine() < lineNo) {
+                problems.add(problem, ruleIndices.getOrDefault(problem.getRuleId(), -1));
+            }
+        }
+
+        return run(sBuffer, new LintStreamReader(sBuffer, READER_NAME), start, lineNo, conf, file, LintLimits.NONE, problems);
+    }
+
+    /**
+     * Lints a YAML string made of several documents, checking its documents in parallel in the common fork-join
+     * pool. The result is the same as with {@link #run(CharSequence, YamlLintConfig, File)}.
+     *
+     * @param buffer the YAML content to be analyzed
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @return the list of problems found on the passed YAML string
+     * @throws NullPointerException if <var>conf</var> is {@code null}
+     * @see #runParallel(CharSequence, YamlLintConfig, File, ForkJoinPool)
+     */
+    public static List<LintProblem> runParallel(final CharSequence buffer, final YamlLintConfig conf, final File file) {
+        return runParallel(buffer, conf, file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Lints a YAML string made of several documents, checking its documents in parallel in the passed fork-join
+     * pool. The result is the same as with {@link #run(CharSequence, YamlLintConfig, File)}.
+     * <p>
+     * The content is split before each <code>---</code> line that starts a new document and each document is checked
+     * on its own, the rules being given the same previous token as when the content is checked at once. The problems
+     * of the documents are then merged. The content is checked at once if it has a single document, if it contains
+     * yamllint directives or <code>%TAG</code> directives (they apply across documents), line breaks other than <code>\n</code> and
+     * <code>\r\n</code>, non-printable characters or a syntax error, or if one of the enabled token rules cannot
+     * check a document independently of the previous ones (see {@link TokenRule#isDocumentScoped(RuleOptions)}).
+     *
+     * @param buffer the YAML content to be analyzed
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @param pool the pool in which the documents are checked. Cannot be <code>null</code>.
+     * @return the list of problems found on the passed YAML string
+     * @throws NullPointerException if <var>conf</var> or <var>pool</var> is {@code null}
+     */
+    public static List<LintProblem> runParallel(final CharSequence buffer, final YamlLintConfig conf, final File file, final ForkJoinPool pool) {
+        Objects.requireNonNull(conf);
+        Objects.requireNonNull(pool);
+
+        String sBuffer = buffer.toString();
+        List<Integer> starts = getDocumentStarts(sBuffer);
+        if (starts.isEmpty() || sBuffer.contains(DIRECTIVE_PREFIX) || hasLineStartingWith(sBuffer, "%TAG", sBuffer.length())
+                || hasOtherLineBreaks(sBuffer) || !isDocumentScoped(conf.getEnabledRules(file), conf)) {
+            return run(sBuffer, conf, file);
+        }
+        int[] codePoints = LintStreamReader.toCodePoints(sBuffer);
+        LintStreamReader reader = new LintStreamReader(codePoints, READER_NAME);
+        if (reader.getNonPrintablePointer() >= 0) {
+            return run(sBuffer, conf, file);
+        }
+
+        // Locate the documents with a single pass over the content
+        LineIndex lineIndex = new LineIndex(sBuffer);
+        List<Document> documents = new ArrayList<>(starts.size() + 1);
+        documents.add(new Document(0, 1, null));
+        int previous = 0;
+        int codePoint = 0;
+        for (int start : starts) {
+            codePoint += sBuffer.codePointCount(previous, start);
+            reader.forward(codePoint - 1 - reader.getIndex());
+            documents.add(new Document(start, lineIndex.getLineNo(start), reader.getMark()));
+            previous = start;
+        }
+
+        ProblemSink problems = pool.invoke(new DocumentTask(sBuffer, lineIndex, codePoints, documents, 0, documents.size(), conf, file));
+        // A syntax error changes the way the next documents are scanned: check the content at once
+        return (problems == null) ? run(sBuffer, conf, file) : problems.toList();
+    }
+
+    /**
+     * Lints a YAML content document by document, keeping only two documents in memory at a time. The problems are
+     * passed to the consumer, in order, as soon as the document in which they are found has been checked. They are
+     * the same as with {@link #run(Reader, YamlLintConfig, File)}.
+     * <p>
+     * The content is read line by line and a document ends before the next <code>---</code> line that starts a new
+     * document. A document is checked once the next one has been read, since the scanner may have to read ahead of
+     * the end of the document (a syntax error at the start of the next document changes the tokens of the previous
+     * one): the memory used is bounded by the size of the two biggest consecutive documents rather than by the size
+     * of the content. The rest of the content is read at once from the first document that contains yamllint
+     * directives, line breaks other than <code>\n</code> and <code>\r\n</code>, non-printable characters or a syntax
+     * error, or that comes before a <code>%TAG</code> directive (the tag handles apply to the next documents), and
+     * the whole content is read at once if one of the enabled token rules cannot check a document independently of
+     * the previous ones (see {@link TokenRule#isDocumentScoped(RuleOptions)}).
+     *
+     * @param in the YAML content to be analyzed. Be aware that this {@code Reader} is not closed by this method,
+     *           you will have to do it yourself later.
+     * @param conf yamllint configuration. Cannot be <code>null</code>.
+     * @param file the file whose content is read from <var>in</var>. May be <code>null</code>.
+     * @param consumer the consumer of the problems found. Cannot be <code>null</code>.
+     * @throws IOException if an error occurred while reading the content
+     * @throws NullPointerException if <var>conf</var> or <var>consumer</var> is {@code null}
+     */
+    public static void runStreaming(final Reader in, final YamlLintConfig conf, final File file, final Consumer<LintProblem> consumer) throws IOException {
         Objects.requireNonNull(conf);
+        Objects.requireNonNull(consumer);
 
-        // Use a set to avoid duplicated problems
-        TreeSet<LintProblem> problems = new TreeSet<>((p1, p2) -> {
-            if (p1.getLine() < p2.getLine()) {
-                return -1;
+        if (!isDocumentScoped(conf.getEnabledRules(file), conf)) {
+            run(in, conf, file).forEach(consumer);
+            return;
+        }
+
+        LineReader reader = new LineReader(in);
+        // The current document, preceded by the lines from the last significant line before it, which tell what
+        // comes before the document
+        StringBuilder window = new StringBuilder();
+        int windowLine = 1;
+        int windowPointer = 0;
+        int docStart = 0;
+        int docLine = 1;
+        // The window of the previous document, checked once the current document has been read
+        Window pending = null;
+        // The lines from the last significant line (neither empty nor a comment) read
+        StringBuilder tail = new StringBuilder();
+        int tailLine = 1;
+        boolean afterDirective = false;
+
+        int lineNo = 0;
+        String line;
+        while ((line = reader.next()) != null) {
+            lineNo++;
+            if (line.startsWith("%TAG")) {
+                // The tag handles declared by the directive apply to the next documents: read the rest at once
+                if (pending == null) {
+                    runRemainder(window.append(line).append(reader.rest()).toString(), windowLine, windowPointer, docStart, docLine, conf, file, consumer);
+                } else {
+                    runRemainder(pending.join(window.append(line), docStart) + reader.rest(), pending.line, pending.pointer, pending.docStart, pending.docLine, conf, file, consumer);
+                }
+                return;
             }
-            if (p1.getLine() > p2.getLine()) {
-                return 1;
+            if (lineNo > 1 && line.startsWith("---") && line.endsWith("\n") && !afterDirective && isDocumentStart(line, 0, line.length() - 1)) {
+                String text = window.append(line).toString();
+                Window current = new Window(text, windowLine, windowPointer, docStart, docLine, text.length() - line.length(), lineNo);
+                if (pending != null && !runPending(pending, current, reader, conf, file, consumer)) {
+                    return;
+                }
+                pending = current;
+
+                windowPointer += text.codePointCount(0, text.length() - line.length() - tail.length());
+                window = new StringBuilder(tail).append(line);
+                windowLine = tailLine;
+                docStart = tail.length();
+                docLine = lineNo;
+            } else {
+                window.append(line);
             }
-            if (p1.getColumn() < p2.getColumn()) {
-                return -1;
+
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                tail.setLength(0);
+                tailLine = lineNo;
+                afterDirective = trimmed.startsWith("%");
             }
-            if (p1.getColumn() > p2.getColumn()) {
-                return 1;
+            tail.append(line);
+        }
+
+        Window last = new Window(window.toString(), windowLine, windowPointer, docStart, docLine, -1, -1);
+        if (pending == null || runPending(pending, last, reader, conf, file, consumer)) {
+            runPending(last, null, reader, conf, file, consumer);
+        }
+    }
+
+    /**
+     * Checks the document of a window read by {@link #runStreaming(Reader, YamlLintConfig, File, Consumer)}, reading
+     * ahead up to the end of the next window, and passes the problems found to the consumer. If the window cannot be
+     * checked on its own, the rest of the content is checked at once from the start of the document.
+     *
+     * @param window the window to be checked
+     * @param next the next window, or <code>null</code> if this is the last one
+     * @param reader the reader of the content, positioned after the next window
+     * @param conf yamllint configuration
+     * @param file the file whose content is checked. May be <code>null</code>.
+     * @param consumer the consumer of the problems found
+     * @return <code>true</code> if the window has been checked on its own, <code>false</code> if the rest of the
+     * content has been checked
+     * @throws IOException if the content cannot be read
+     */
+    private static boolean runPending(final Window window, final Window next, final LineReader reader,
+                                      final YamlLintConfig conf, final File file, final Consumer<LintProblem> consumer) throws IOException {
+        String text = (next == null) ? window.text : window.join(next.text, next.docStart);
+        ProblemSink problems = runWindow(text, window.docStart, window.docLine - window.line + 1, window.nextStart,
+                window.nextLine - window.line + 1, conf, file);
+        if (problems == null) {
+            runRemainder(text + reader.rest(), window.line, window.pointer, window.docStart, window.docLine, conf, file, consumer);
+            return false;
+        }
+        emit(problems, window.line - 1, consumer);
+        return true;
+    }
+
+    /**
+     * Checks a document of a window of a YAML content read by {@link #runStreaming(Reader, YamlLintConfig, File, Consumer)}
+     *
+     * @param window the window: the document, preceded by the empty and comment lines and the last significant line
+     *               before it, and followed by the next document if any
+     * @param start the offset of the document in the window
+     * @param lineNo the number of the first line of the document in the window
+     * @param nextStart the offset of the start line of the next document in the window, or -1 if there is none
+     * @param nextLineNo the number of this line in the window
+     * @param conf yamllint configuration
+     * @param file the file whose content is checked. May be <code>null</code>.
+     * @return the problems found, with line numbers relative to the window, or <code>null</code> if the window
+     * cannot be checked on its own
+     */
+    private static ProblemSink runWindow(final String window, final int start, final int lineNo, final int nextStart, final int nextLineNo,
+                                         final YamlLintConfig conf, final File file) {
+        if (window.contains(DIRECTIVE_PREFIX) || hasOtherLineBreaks(window)) {
+            return null;
+        }
+        int[] codePoints = LintStreamReader.toCodePoints(window);
+        LintStreamReader reader = new LintStreamReader(codePoints, READER_NAME);
+        if (reader.getNonPrintablePointer() >= 0) {
+            return null;
+        }
+
+        Mark markBefore = null;
+        if (start > 0) {
+            reader.forward(window.codePointCount(0, start) - 1);
+            markBefore = reader.getMark();
+        }
+        return runDocument(window, new LineIndex(window), codePoints, new Document(start, lineNo, markBefore),
+                (nextStart < 0) ? null : new Document(nextStart, nextLineNo, null), conf, file);
+    }
+
+    /**
+     * Checks the rest of a YAML content read by {@link #runStreaming(Reader, YamlLintConfig, File, Consumer)} at once,
+     * from the start of a document
+     *
+     * @param text the rest of the content, starting with a window
+     * @param windowLine the number of the first line of the window in the content
+     * @param windowPointer the position (in code points) of the window in the content
+     * @param docStart the offset of the document in the window
+     * @param docLine the number of the first line of the document in the content
+     * @param conf yamllint configuration
+     * @param file the file whose content is checked. May be <code>null</code>.
+     * @param consumer the consumer of the problems found
+     */
+    private static void runRemainder(final String text, final int windowLine, final int windowPointer, final int docStart, final int docLine,
+                                     final YamlLintConfig conf, final File file, final Consumer<LintProblem> consumer) {
+        // Empty lines stand for the lines before the window so that the marks and the problems have the right lines
+        char[] padding = new char[windowLine - 1];
+        Arrays.fill(padding, '\n');
+        String buffer = new StringBuilder(padding.length + text.length()).append(padding).append(text).toString();
+        LintStreamReader reader = new LintStreamReader(buffer, READER_NAME);
+        reader.setStreamOffset(windowPointer - padding.length);
+        run(buffer, reader, padding.length + docStart, docLine, conf, file, LintLimits.NONE, new ProblemSink())
+                .forEach(consumer);
+    }
+
+    /**
+     * Passes the problems found in a window to a consumer, moving them to their line in the content
+     *
+     * @param problems the problems found in a window
+     * @param shift the number of lines before the window
+     * @param consumer the consumer of the problems
+     */
+    private static void emit(ProblemSink problems, int shift, Consumer<LintProblem> consumer) {
+        for (LintProblem problem : problems.toList()) {
+            LintProblem moved = new LintProblem(problem.getLine() + shift, problem.getColumn(), problem.getDesc(), problem.getRuleId(), problem.getExtraDesc());
+            moved.setLevel(problem.getLevel());
+            consumer.accept(moved);
+        }
+    }
+
+    /**
+     * Checks a document of a YAML string and returns the problems found on its lines
+     *
+     * @param buffer the YAML content
+     * @param lineIndex the index of the lines of the content
+     * @param codePoints the code points of the content
+     * @param document the document to be checked
+     * @param next the next document, or <code>null</code> if this is the last one
+     * @param conf yamllint configuration
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @return the problems found, or <code>null</code> if the parser met a syntax error
+     */
+    private static ProblemSink runDocument(final String buffer, final LineIndex lineIndex, final int[] codePoints, final Document document, final Document next,
+                                           final YamlLintConfig conf, final File file) {
+        LintStreamReader reader = new LintStreamReader(codePoints, READER_NAME);
+        Token prev = null;
+        if (document.start > 0) {
+            reader.seek(document.markBefore);
+            reader.forward(1);
+            prev = getTokenBefore(buffer, document.start, document.markBefore);
+        }
+
+        // The document is checked up to the start line of the next one, included, since the tokens of this line
+        // still belong to the document
+        LintParser parser = new LintParser(reader);
+        ProblemSink problems = new ProblemSink();
+        getCosmeticProblems(buffer, lineIndex, document.start, document.lineNo, (next == null) ? buffer.length() : next.start, prev,
+                conf, file, parser, problems, LintLimits.NONE);
+        if (parser.hasSyntaxError((next == null) ? Integer.MAX_VALUE : next.lineNo - 1)) {
+            return null;
+        }
+        if (next != null) {
+            problems.truncateAtLine(next.lineNo);
+        }
+        return problems;
+    }
+
+    /**
+     * Tells if all the enabled token rules can check a document independently of the previous ones
+     *
+     * @param rules the enabled rules
+     * @param conf yamllint configuration
+     * @return <code>true</code> if the documents can be checked one by one
+     */
+    private static boolean isDocumentScoped(List<Rule> rules, YamlLintConfig conf) {
+        return rules.stream().allMatch(rule -> rule.getType() != Rule.TYPE.TOKEN || ((TokenRule)rule).isDocumentScoped(conf.getRuleOptions(rule.getId())));
+    }
+
+    /**
+     * Tells if the passed content contains line breaks that SnakeYAML counts as such but not the linter, i.e.
+     * others than <code>\n</code> and <code>\r\n</code>
+     *
+     * @param buffer a YAML content
+     * @return <code>true</code> if the content contains such line breaks
+     */
+    private static boolean hasOtherLineBreaks(String buffer) {
+        for (int i = 0; i < buffer.length(); i++) {
+            char c = buffer.charAt(i);
+            if (c == '\u0085' || c == '\u2028' || c == '\u2029' || (c == '\r' && (i + 1 == buffer.length() || buffer.charAt(i + 1) != '\n'))) {
+                return true;
             }
-            if (p1.getRuleId() == null && p2.getRuleId() != null) {
-                // p1 is a syntax error, it comes first
-                return -1;
+        }
+        return false;
+    }
+
+    /**
+     * Tells if a line that starts before the passed offset starts with the passed prefix
+     *
+     * @param buffer a YAML content
+     * @param prefix the prefix of the line
+     * @param end the offset before which the line must start
+     * @return <code>true</code> if there is such a line
+     */
+    private static boolean hasLineStartingWith(String buffer, String prefix, int end) {
+        if (end > 0 && buffer.startsWith(prefix)) {
+            return true;
+        }
+        int i = buffer.indexOf("\n" + prefix);
+        return i >= 0 && i + 1 < end;
+    }
+
+    /**
+     * Returns the offset of the last line before the passed offset that starts a new document
+     *
+     * @param buffer a YAML content
+     * @param offset an offset in the content
+     * @return the offset of the start of the line, or -1 if there is no such line
+     * @see #isDocumentStart(String, int, int)
+     */
+    private static int getDocumentStart(String buffer, int offset) {
+        for (int i = buffer.lastIndexOf("\n---", offset - 1); i >= 0; i = buffer.lastIndexOf("\n---", i - 1)) {
+            int start = i + 1;
+            int end = buffer.indexOf('\n', start);
+            if (end < 0 || end >= offset) {
+                // The line itself has been edited
+                continue;
+            }
+            if (isDocumentStart(buffer, start, end)) {
+                return start;
             }
-            return p1.getMessage().compareTo(p2.getMessage());
-        });
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offsets of all the lines that start a new document, except the first line of the content
+     *
+     * @param buffer a YAML content
+     * @return the offsets of the start of the lines, in ascending order
+     * @see #isDocumentStart(String, int, int)
+     */
+    private static List<Integer> getDocumentStarts(String buffer) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = buffer.indexOf("\n---"); i >= 0; i = buffer.indexOf("\n---", i + 1)) {
+            int start = i + 1;
+            int end = buffer.indexOf('\n', start);
+            if (end >= 0 && isDocumentStart(buffer, start, end)) {
+                starts.add(start);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Tells if the passed line starts a new document, i.e. if it is a <code>---</code> line with nothing else than a
+     * comment, and that is not preceded by YAML directives
+     *
+     * @param buffer a YAML content
+     * @param start the offset of the start of a line starting with <code>---</code>
+     * @param end the offset of the end of the line
+     * @return <code>true</code> if the line starts a document
+     */
+    private static boolean isDocumentStart(String buffer, int start, int end) {
+        String rest = buffer.substring(start + 3, end).trim();
+        return (rest.isEmpty() || (rest.startsWith("#") && Character.isWhitespace(buffer.charAt(start + 3)))) && !followsDirective(buffer, start);
+    }
+
+    /**
+     * Returns a token that stands for the last token of the document that precedes the document starting at the
+     * passed offset. Only its type matters to the rules: it is a document end token if the document is explicitly
+     * ended, a stream start token if there is no document before, a block end token otherwise.
+     *
+     * @param buffer a YAML content
+     * @param start the offset of the start of a document
+     * @param mark the mark of the end of the line before the document
+     * @return a token
+     */
+    private static Token getTokenBefore(String buffer, int start, Mark mark) {
+        int end = start - 1;
+        while (end >= 0) {
+            int lineStart = buffer.lastIndexOf('\n', end - 1) + 1;
+            String line = buffer.substring(lineStart, end);
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                if (line.startsWith("...") && (line.length() == 3 || Character.isWhitespace(line.charAt(3)))) {
+                    return new DocumentEndToken(mark, mark);
+                }
+                return new BlockEndToken(mark, mark);
+            }
+            end = lineStart - 1;
+        }
+        return new StreamStartToken(mark, mark);
+    }
+
+    /**
+     * Tells if the line starting at the passed offset follows a YAML directive (<code>%YAML</code> or
+     * <code>%TAG</code>), possibly separated from it by empty or comment lines
+     *
+     * @param buffer a YAML content
+     * @param start the offset of the start of a line
+     * @return <code>true</code> if the line comes after a directive
+     */
+    private static boolean followsDirective(String buffer, int start) {
+        int end = start - 1;
+        while (end > 0) {
+            int lineStart = buffer.lastIndexOf('\n', end - 1) + 1;
+            String line = buffer.substring(lineStart, end).trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                return line.startsWith("%");
+            }
+            end = lineStart - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Reads and lints a YAML file
+     *
+     * @param path the path to the file
+     * @param conf yamllint configuration
+     * @param file the file to lint
+     * @param limits the limits of the linting
+     * @return the list of problems found in the file
+     * @throws IOException if there is a problem reading the file
+     */
+    private static List<LintProblem> run(final Path path, final YamlLintConfig conf, final File file, final LintLimits limits) throws IOException {
+        LintContext context = LintContext.acquire();
+        try {
+            return run(read(path, context), conf, file, limits);
+        } finally {
+            context.release();
+        }
+    }
+
+    /**
+     * Decodes the passed bytes, taking the BOM into account, and lints them
+     *
+     * @param bytes the YAML content to be analyzed
+     * @param conf yamllint configuration
+     * @param file the file whose content has been passed as the <var>bytes</var>. May be <code>null</code>.
+     * @param limits the limits of the linting
+     * @return the list of problems found on the passed YAML content
+     * @throws IOException if the bytes cannot be decoded
+     */
+    private static List<LintProblem> run(final ByteBuffer bytes, final YamlLintConfig conf, final File file, final LintLimits limits) throws IOException {
+        int[] codePoints = decode(bytes);
+        return run(new String(codePoints, 0, codePoints.length), new LintStreamReader(codePoints, READER_NAME), 0, 1, conf, file, limits, new ProblemSink());
+    }
+
+    /**
+     * Decodes the passed bytes into code points, taking the BOM into account
+     *
+     * @param bytes some YAML content
+     * @return the code points of the content
+     * @throws IOException if the bytes cannot be decoded
+     */
+    private static int[] decode(final ByteBuffer bytes) throws IOException {
+        Charset utf16 = null;
+        if (startsWith(bytes, BOM_UTF16BE)) {
+            utf16 = StandardCharsets.UTF_16BE;
+        } else if (startsWith(bytes, BOM_UTF16LE)) {
+            utf16 = StandardCharsets.UTF_16LE;
+        }
+        if (utf16 != null) {
+            // Rare enough not to deserve a specific decoding
+            bytes.position(bytes.position() + BOM_UTF16BE.length);
+            return LintStreamReader.toCodePoints(utf16.newDecoder().decode(bytes));
+        }
+
+        if (startsWith(bytes, BOM_UTF8)) {
+            bytes.position(bytes.position() + BOM_UTF8.length);
+        }
+        return LintStreamReader.decodeUtf8(bytes);
+    }
+
+    /**
+     * Checks a YAML string from the passed line and returns a list of problems
+     *
+     * @param buffer the YAML content to be analyzed
+     * @param reader the reader of <var>buffer</var>
+     * @param start the offset of the line from which the content is checked. If not 0, it must be the start of a
+     *              document.
+     * @param lineNo the number of this line
+     * @param conf yamllint configuration
+     * @param file the file whose content has been passed as the <var>buffer</var>. May be <code>null</code>.
+     * @param limits the limits of the linting
+     * @param problems the problems already found before the passed line
+     * @return the list of problems found on the passed YAML string
+     */
+    private static List<LintProblem> run(final String buffer, final LintStreamReader reader, final int start, final int lineNo,
+                                         final YamlLintConfig conf, final File file, final LintLimits limits, final ProblemSink problems) {
+        Token prev = null;
+        if (start > 0) {
+            reader.forward(buffer.codePointCount(0, start) - 1);
+            prev = getTokenBefore(buffer, start, reader.getMark());
+            reader.forward(1);
+        }
+        // The content is scanned once: the parser consumes the tokens passed to the rules
+        LintParser parser = new LintParser(reader);
+        if (getCosmeticProblems(buffer, null, start, lineNo, buffer.length(), prev, conf, file, parser, problems, limits)) {
+            // Fail fast: there is no need to look for the syntax error
+            return problems.toList();
+        }
 
         // If the document contains a syntax error, save it
-        LintProblem syntaxError = getSyntaxError(buffer, yaml);
+        LintProblem syntaxError = parser.getSyntaxError();
+        int maxProblems = limits.getMaxProblems();
         if (syntaxError != null) {
-            problems.add(syntaxError);
+            // If there is already a yamllint error at the same place, discard
+            // it as it is probably redundant (and maybe it's just a 'warning',
+            // in which case the script won't even exit with a failure status).
+            problems.discard(syntaxError.getLine(), syntaxError.getColumn());
+            if (maxProblems > 0) {
+                // The syntax error is always kept, in place of the last problem if the budget is spent
+                problems.truncate(maxProblems - 1);
+            }
+            problems.add(syntaxError, -1);
+        } else if (maxProblems > 0) {
+            problems.truncate(maxProblems);
         }
+        return problems.toList();
+    }
 
-        // If there is already a yamllint error at the same place, discard
-        // it as it is probably redundant (and maybe it's just a 'warning',
-        // in which case the script won't even exit with a failure status).
-        problems.addAll(
-                getCosmeticProblems(buffer, conf, file).stream().filter(
-                        problem -> syntaxError == null || syntaxError.getLine() != problem.getLine() || syntaxError.getColumn() != problem.getColumn()
-                ).collect(Collectors.toList()));
+    /**
+     * Reads the passed file. Files bigger than {@link #MAPPING_THRESHOLD} are memory-mapped, the others are read into
+     * the byte buffer of the context.
+     *
+     * @param path the path to a file
+     * @param context the context of the run
+     * @return the content of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static ByteBuffer read(Path path, LintContext context) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + path);
+            }
+            if (size >= MAPPING_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return context.read(channel, (int)size);
+        }
+    }
 
-        return new ArrayList<>(problems);
+    private static boolean startsWith(ByteBuffer bytes, byte[] prefix) {
+        if (bytes.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes.get(bytes.position() + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -361,7 +1093,27 @@ public class Linter {
      * @return a problem or <code>null</code> if there is no syntax error
      */
     public static LintProblem getSyntaxError(CharSequence buffer) {
-        return getSyntaxError(buffer, new Yaml());
+        return new LintParser(new LintStreamReader(buffer, READER_NAME)).getSyntaxError();
+    }
+
+    /**
+     * Parses the passed YAML stream to detect syntax errors. This is the syntax-only mode of the linter: no rule is
+     * applied, the content is only scanned and parsed, and neither the comments nor the lines are extracted.
+     *
+     * @param in a YAML stream. Be aware that this {@code InputStream} is not closed by this method,
+     *           you will have to do it yourself later.
+     * @return a problem or <code>null</code> if there is no syntax error
+     * @throws IOException if an error occurred while reading the input stream
+     */
+    public static LintProblem getSyntaxError(InputStream in) throws IOException {
+        Objects.requireNonNull(in);
+
+        LintContext context = LintContext.acquire();
+        try {
+            return new LintParser(new LintStreamReader(decode(context.read(in)), READER_NAME)).getSyntaxError();
+        } finally {
+            context.release();
+        }
     }
 
     /**
@@ -376,16 +1128,26 @@ public class Linter {
             // Need to use loadAll in the event there are multiple documents in the same stream
             yaml.parse(new CharSequenceReader(buffer)).forEach(o -> { /* Do nothing on purpose, required to have the parser to process each document */ });
         } catch (MarkedYAMLException e) {
-            LintProblem problem = new LintProblem(e.getProblemMark().getLine() + 1,
-                    e.getProblemMark().getColumn() + 1,
-                    "syntax error: " + e.getProblem());
-            problem.setLevel(ERROR_LEVEL);
-            problem.setExtraDesc(e.getMessage());
-            return problem;
+            return getSyntaxError(e);
         }
         return null;
     }
 
+    /**
+     * Converts a SnakeYAML exception into a syntax error problem
+     *
+     * @param e the exception raised by SnakeYAML
+     * @return a syntax error problem
+     */
+    static LintProblem getSyntaxError(MarkedYAMLException e) {
+        LintProblem problem = new LintProblem(e.getProblemMark().getLine() + 1,
+                e.getProblemMark().getColumn() + 1,
+                "syntax error: " + e.getProblem());
+        problem.setLevel(ERROR_LEVEL);
+        problem.setExtraDesc(e.getMessage());
+        return problem;
+    }
+
     /**
      * Returns the list of non-syntax related problems found with the passed YAML string. The file is optional ({@code null}) and is there
      * for filtering the rules to be applied.
@@ -393,164 +1155,607 @@ public class Linter {
      * @param buffer the YAML string to be checked
      * @param conf the YAML lint configuration. Cannot be {@code null}.
      * @param file file supposed to be the passed YAML string. Used to determined the rules to be applied. May be {@code null}.
-     * @return a list of problems found on the passed string
+     * @return a list of problems found on the passed string, ordered by line, column and rule
      * @throws NullPointerException if <var>conf</var> is {@code null}
      */
-    @SuppressWarnings("unchecked")
     public static List<LintProblem> getCosmeticProblems(final CharSequence buffer, final YamlLintConfig conf, final File file) {
+        ProblemSink problems = new ProblemSink();
+        getCosmeticProblems(buffer, null, 0, 1, buffer.length(), null, conf, file, new LintScanner(new LintStreamReader(buffer.toString())), problems, LintLimits.NONE);
+        return problems.toList();
+    }
+
+    /**
+     * Collects the non-syntax related problems found with the passed YAML string, using the passed scanner
+     * to get the tokens of this string
+     *
+     * @param buffer the YAML string to be checked
+     * @param lineIndex the index of the lines of the string, or {@code null} to build it if needed
+     * @param start the offset of the line from which the string is checked. The scanner must start on this line.
+     * @param lineNo the number of this line
+     * @param end the offset of the last line checked: the string is checked up to this line, included
+     * @param prev the token before this line, or {@code null} if the string is checked from its start
+     * @param conf the YAML lint configuration. Cannot be {@code null}.
+     * @param file file supposed to be the passed YAML string. May be {@code null}.
+     * @param scanner the scanner of the passed YAML string
+     * @param problems the sink the problems found on the passed string are added to
+     * @param limits the limits of the linting
+     * @return <code>true</code> if the linting has been stopped by an error in fail-fast mode
+     */
+    private static boolean getCosmeticProblems(final CharSequence buffer, final LineIndex lineIndex, final int start, final int lineNo, final int end, final Token prev, final YamlLintConfig conf, final File file,
+                                               final LintScanner scanner, final ProblemSink problems, final LintLimits limits) {
         Objects.requireNonNull(conf);
 
         List<Rule> rules = conf.getEnabledRules(file);
 
-        // Split token rules from line rules
-        List<Rule> tokenRules = rules.stream().filter(rule -> rule.getType() == Rule.TYPE.TOKEN).collect(Collectors.toList());
-        List<Rule> commentRules = rules.stream().filter(rule -> rule.getType() == Rule.TYPE.COMMENT).collect(Collectors.toList());
-        List<Rule> lineRules = rules.stream().filter(rule -> rule.getType() == Rule.TYPE.LINE).collect(Collectors.toList());
+        // Resolve the IDs and options of the rules once for all
+        String[] ruleIds = new String[rules.size()];
+        RuleOptions[] ruleOptions = new RuleOptions[rules.size()];
+        Object[] states = new Object[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            ruleIds[i] = rules.get(i).getId();
+            ruleOptions[i] = conf.getRuleOptions(ruleIds[i]);
+            if (rules.get(i).getType() == Rule.TYPE.TOKEN) {
+                states[i] = ((TokenRule)rules.get(i)).createState(ruleOptions[i]);
+            }
+        }
 
-        final Map<String, Object> context = new HashMap<>();
-        tokenRules.forEach(rule -> context.put(rule.getId(), new HashMap<String, Object>()));
+        // Dispatch the tokens to the rules that check them, the comments and the lines to the other rules
+        int[][] tokenRules = getTokenRuleIndices(rules, ruleOptions);
+        int[] commentRules = getRuleIndices(rules, Rule.TYPE.COMMENT);
+        int[] firstLineRules = getLineRuleIndices(rules, ruleOptions, LineRule.LINES.FIRST);
+        int[] lastLineRules = getLineRuleIndices(rules, ruleOptions, LineRule.LINES.LAST);
+        int[] otherLineRules = getLineRuleIndices(rules, ruleOptions, LineRule.LINES.ALL);
+        int[] allLineRules = getRuleIndices(rules, Rule.TYPE.LINE);
+
+        String sBuffer = buffer.toString();
+        Plan plan = Plan.of(rules, tokenRules, sBuffer, start, end);
+        if (plan.isSyntaxOnly()) {
+            return false;
+        }
 
         // Use a cache to store problems and flush it only when a end of line is
         // found. This allows the use of yamllint directive to disable some rules on
         // some lines.
         List<LintProblem> cache = new ArrayList<>();
-        DisableDirective disabled = new DisableDirective(rules);
-        DisableLineDirective disabledForLine = new DisableLineDirective(rules);
-        DisableLineDirective disabledForNextLine = new DisableLineDirective(rules);
+        int[] cacheRules = new int[16];
+        Directives directives = new Directives(rules);
+        Budget budget = new Budget(limits, rules.size());
 
-        String sBuffer = buffer.toString();
-        List<LintProblem> problems = new ArrayList<>();
-        List<Parser.Lined> items = Parser.getTokensOrCommentsOrLines(sBuffer);
-        for (Parser.Lined elem : items) {
+        Iterator<Parser.Lined> items = Parser.iterate(sBuffer, scanner, plan.tokens, plan.comments, plan.lines, lineIndex, lineNo, prev, true);
+        while (items.hasNext() && !budget.ended) {
+            Parser.Lined elem = items.next();
             if (elem instanceof Parser.Token) {
-                for (Rule rule : tokenRules) {
-                    Map<Object, Object> ruleConf = (Map<Object, Object>)conf.getRuleConf(rule.getId());
-                    saveProblemsInCache(cache, rule, ruleConf,
-                            ((TokenRule)rule).check(ruleConf, ((Parser.Token)elem).getCurr(), ((Parser.Token)elem).getPrev(), ((Parser.Token)elem).getNext(),
-                            ((Parser.Token) elem).getNextNext(), (Map<String, Object>)context.get(rule.getId())));
+                Parser.Token token = (Parser.Token)elem;
+                for (int i : tokenRules[token.getCurr().getTokenId().ordinal()]) {
+                    if (budget.stopped[i]) {
+                        continue;
+                    }
+                    cacheRules = saveProblemsInCache(cache, cacheRules, ruleIds[i], i, ruleOptions[i],
+                            ((TokenRule)rules.get(i)).check(ruleOptions[i], token.getCurr(), token.getPrev(), token.getNext(), token.getNextNext(), states[i]));
                 }
             } else if (elem instanceof Parser.Comment) {
-                for (Rule rule : commentRules) {
-                    Map<Object, Object> ruleConf = (Map<Object, Object>)conf.getRuleConf(rule.getId());
-                    saveProblemsInCache(cache, rule, ruleConf, ((CommentRule)rule).check(ruleConf, (Parser.Comment)elem));
+                for (int i : commentRules) {
+                    if (budget.stopped[i]) {
+                        continue;
+                    }
+                    cacheRules = saveProblemsInCache(cache, cacheRules, ruleIds[i], i, ruleOptions[i], ((CommentRule)rules.get(i)).check(ruleOptions[i], (Parser.Comment)elem));
                 }
 
-                disabled.processComment((Parser.Comment)elem);
-                if (((Parser.Comment)elem).isInline()) {
-                    disabledForLine.processComment((Parser.Comment)elem);
-                } else {
-                    disabledForNextLine.processComment((Parser.Comment)elem);
-                }
+                directives.processComment((Parser.Comment)elem);
             } else if (elem instanceof Parser.Line) {
-                for (Rule rule : lineRules) {
-                    Map<Object, Object> ruleConf = (Map<Object, Object>)conf.getRuleConf(rule.getId());
-                    saveProblemsInCache(cache, rule, ruleConf, ((LineRule)rule).check(ruleConf, (Parser.Line)elem));
+                Parser.Line line = (Parser.Line)elem;
+                boolean first = line.getStart() == 0;
+                boolean last = line.getEnd() == line.getBuffer().length();
+                int[] lineRules = first ? (last ? allLineRules : firstLineRules) : (last ? lastLineRules : otherLineRules);
+                for (int i : lineRules) {
+                    if (budget.stopped[i]) {
+                        continue;
+                    }
+                    cacheRules = saveProblemsInCache(cache, cacheRules, ruleIds[i], i, ruleOptions[i], ((LineRule)rules.get(i)).check(ruleOptions[i], line));
                 }
 
                 // This is the last token / comment / line of this line, let's flush the
                 // problems found (but filter them according to the directives)
-                for (LintProblem problem : cache) {
-                    if (!(disabledForLine.isDisabledByDirective(problem) || disabled.isDisabledByDirective(problem))) {
-                        problems.add(problem);
-                    }
-                }
+                flush(cache, cacheRules, directives, budget, problems);
 
-                disabledForLine = disabledForNextLine;
-                disabledForNextLine = new DisableLineDirective(rules);
+                directives.nextLine();
                 cache.clear();
+                if (line.getStart() >= end) {
+                    break;
+                }
             }
         }
-        return problems;
+
+        // Without lines, there is no directive and the problems are flushed at once
+        flush(cache, cacheRules, directives, budget, problems);
+        return budget.failed;
     }
 
+    /**
+     * Adds the problems of the cache that are not disabled by a directive to the sink, within the limits of the
+     * budget
+     *
+     * @param cache the problems found
+     * @param cacheRules the indices of the rules that found the problems of the cache
+     * @param directives the directives met so far
+     * @param budget the budget of the linting
+     * @param problems the sink the problems are added to
+     */
+    private static void flush(List<LintProblem> cache, int[] cacheRules, Directives directives, Budget budget, ProblemSink problems) {
+        for (int i = 0; i < cache.size() && !budget.ended; i++) {
+            int rule = cacheRules[i];
+            if (!directives.isDisabled(rule) && !budget.stopped[rule] && problems.add(cache.get(i), rule)) {
+                budget.count(cache.get(i), rule, problems.size());
+            }
+        }
+    }
+
+
+    /**
+     * Returns the indices of the rules of the passed type
+     *
+     * @param rules a list of rules
+     * @param type a rule type
+     * @return the indices in <var>rules</var> of the rules of type <var>type</var>
+     */
+    private static int[] getRuleIndices(List<Rule> rules, Rule.TYPE type) {
+        return IntStream.range(0, rules.size()).filter(i -> rules.get(i).getType() == type).toArray();
+    }
+
+    /**
+     * Returns the dispatch table of the tokens: for each token ID, the indices of the token rules that check the
+     * tokens with this ID
+     *
+     * @param rules a list of rules
+     * @param ruleOptions the options of the rules
+     * @return an array of rule indices per token ID, indexed by the ordinal of the token ID
+     */
+    private static int[][] getTokenRuleIndices(List<Rule> rules, RuleOptions[] ruleOptions) {
+        List<Set<Token.ID>> tokenIds = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            tokenIds.add(rules.get(i).getType() == Rule.TYPE.TOKEN ? ((TokenRule)rules.get(i)).getTokenIds(ruleOptions[i]) : Collections.emptySet());
+        }
+
+        Token.ID[] ids = Token.ID.values();
+        int[][] indices = new int[ids.length][];
+        for (Token.ID id : ids) {
+            indices[id.ordinal()] = IntStream.range(0, rules.size()).filter(i -> tokenIds.get(i).contains(id)).toArray();
+        }
+        return indices;
+    }
+
+    /**
+     * Returns the indices of the line rules that check the lines at the passed position. Rules that check all the
+     * lines are always returned.
+     *
+     * @param rules a list of rules
+     * @param ruleOptions the options of the rules
+     * @param lines {@link LineRule.LINES#FIRST} or {@link LineRule.LINES#LAST} for the first or last line, or
+     *              {@link LineRule.LINES#ALL} for the lines in between
+     * @return the indices in <var>rules</var> of the line rules that check the lines at this position
+     */
+    private static int[] getLineRuleIndices(List<Rule> rules, RuleOptions[] ruleOptions, LineRule.LINES lines) {
+        return IntStream.range(0, rules.size())
+                .filter(i -> rules.get(i).getType() == Rule.TYPE.LINE)
+                .filter(i -> {
+                    LineRule.LINES ruleLines = ((LineRule)rules.get(i)).getLines(ruleOptions[i]);
+                    return ruleLines == LineRule.LINES.ALL || ruleLines == lines;
+                })
+                .toArray();
+    }
 
     /**
      * Saves in the passed cache the problems with the proper level and rule Id
      *
      * @param cache the cache where to save the problems
-     * @param rule the rule that detected the problems
-     * @param conf the rule configuration
+     * @param cacheRules the indices of the rules of the problems in the cache
+     * @param ruleId the ID of the rule that detected the problems
+     * @param ruleIndex the index of the rule
+     * @param options the rule options
      * @param problems the problems to be saved
+     * @return <var>cacheRules</var> or a bigger copy of it if it was full
      */
-    private static void saveProblemsInCache(List<LintProblem> cache, Rule rule, Map<?, ?> conf, List<LintProblem> problems) {
+    private static int[] saveProblemsInCache(List<LintProblem> cache, int[] cacheRules, String ruleId, int ruleIndex, RuleOptions options, List<LintProblem> problems) {
+        int[] indices = cacheRules;
         for (LintProblem problem : problems) {
-            problem.setRuleId(rule.getId());
-            problem.setLevel((String)conf.get(LEVEL_KEY));
+            problem.setRuleId(ruleId);
+            problem.setLevel(options.getLevel());
+            if (cache.size() == indices.length) {
+                indices = Arrays.copyOf(indices, indices.length * 2);
+            }
+            indices[cache.size()] = ruleIndex;
             cache.add(problem);
         }
+        return indices;
     }
 
 
-    private static class DisableDirective {
-        protected List<String> rules;
-        protected List<String> allRules;
+    /**
+     * Execution plan of the check of a YAML content: tells which of the streams produced by the {@link Parser} are
+     * needed by the enabled rules. The other streams are not produced at all: the content is not tokenized if there
+     * is no token, comment or directive to check (its syntax is checked anyway), the comments are not extracted if
+     * there is no comment rule and no directive, and the lines are not split if there is no line rule and no
+     * directive.
+     */
+    static class Plan {
+        final boolean tokens;
+        final boolean comments;
+        final boolean lines;
+
+        Plan(boolean tokens, boolean comments, boolean lines) {
+            this.tokens = tokens;
+            this.comments = comments;
+            this.lines = lines;
+        }
+
+        /**
+         * Computes the plan of the check of the passed YAML content
+         *
+         * @param rules the enabled rules
+         * @param tokenRules the indices of the token rules per token ID
+         * @param buffer the YAML content to be checked
+         * @return the execution plan
+         */
+        static Plan of(List<Rule> rules, int[][] tokenRules, String buffer) {
+            return of(rules, tokenRules, buffer, 0, buffer.length());
+        }
 
-        DisableDirective(List<Rule> rules) {
-            this.rules = new ArrayList<>();
-            allRules = new ArrayList<>();
-            rules.forEach(rule -> allRules.add(rule.getId()));
+        /**
+         * Computes the plan of the check of a part of the passed YAML content
+         *
+         * @param rules the enabled rules
+         * @param tokenRules the indices of the token rules per token ID
+         * @param buffer the YAML content to be checked
+         * @param start the offset of the first line checked
+         * @param end the offset of the last line checked
+         * @return the execution plan
+         */
+        static Plan of(List<Rule> rules, int[][] tokenRules, String buffer, int start, int end) {
+            // Directives are taken into account only if there are rules to disable
+            boolean directives = !rules.isEmpty() && containsDirective(buffer, start, end);
+            boolean tokens = Arrays.stream(tokenRules).anyMatch(indices -> indices.length > 0);
+            boolean comments = directives || rules.stream().anyMatch(rule -> rule.getType() == Rule.TYPE.COMMENT);
+            boolean lines = directives || rules.stream().anyMatch(rule -> rule.getType() == Rule.TYPE.LINE);
+            return new Plan(tokens, comments, lines);
         }
 
-        public void processComment(final Parser.Comment token) {
-            String comment = token.toString();
+        /**
+         * Tells if only the syntax of the content has to be checked
+         *
+         * @return <code>true</code> if no stream is needed
+         */
+        boolean isSyntaxOnly() {
+            return !tokens && !comments && !lines;
+        }
 
-            Matcher disableMatcher = Pattern.compile("# yamllint disable(( rule:\\S+)*)\\s*$").matcher(comment);
-            Matcher enableMatcher = Pattern.compile("# yamllint enable(( rule:\\S+)*)\\s*$").matcher(comment);
-            if (disableMatcher.find()) {
-                String[] cRules = disableMatcher.group(1).trim().replace(RULE_TOKEN, "").split(" ");
-                if (cRules.length == 0 || "".equals(cRules[0])) {
-                    rules = new ArrayList<>(allRules);
-                } else {
-                    rules.addAll(Arrays.stream(cRules).filter(id -> allRules.contains(id)).collect(Collectors.toList()));
+        private static boolean containsDirective(String buffer, int start, int end) {
+            int endOfLine = buffer.indexOf('\n', end);
+            int last = ((endOfLine < 0) ? buffer.length() : endOfLine) - DIRECTIVE_PREFIX.length();
+            for (int i = start; i <= last; i++) {
+                if (buffer.charAt(i) == '#' && buffer.startsWith(DIRECTIVE_PREFIX, i)) {
+                    return true;
                 }
-            } else if (enableMatcher.find()) {
-                String[] cRules = enableMatcher.group(1).trim().replace(RULE_TOKEN, "").split(" ");
-                if (cRules.length == 0 || "".equals(cRules[0])) {
-                    rules.clear();
-                } else {
-                    for (String id : cRules) {
-                        rules.remove(id);
+            }
+            return false;
+        }
+    }
+
+
+    /**
+     * Position of a document in a YAML content
+     */
+    private static class Document {
+        final int start;
+        final int lineNo;
+        /**
+         * Mark of the last character before the document, <code>null</code> for the first document
+         */
+        final Mark markBefore;
+
+        Document(int start, int lineNo, Mark markBefore) {
+            this.start = start;
+            this.lineNo = lineNo;
+            this.markBefore = markBefore;
+        }
+    }
+
+    /**
+     * Window of a YAML content read by {@link #runStreaming(Reader, YamlLintConfig, File, Consumer)}: a document,
+     * preceded by the empty and comment lines and the last significant line before it, and followed by the start line
+     * of the next document if any
+     */
+    private static class Window {
+        final String text;
+        /**
+         * Number of the first line of the window in the content
+         */
+        final int line;
+        /**
+         * Position (in code points) of the window in the content
+         */
+        final int pointer;
+        /**
+         * Offset of the document in the window
+         */
+        final int docStart;
+        /**
+         * Number of the first line of the document in the content
+         */
+        final int docLine;
+        /**
+         * Offset of the start line of the next document in the window, -1 if there is none
+         */
+        final int nextStart;
+        /**
+         * Number of this line in the content, -1 if there is none
+         */
+        final int nextLine;
+
+        Window(String text, int line, int pointer, int docStart, int docLine, int nextStart, int nextLine) {
+            this.text = text;
+            this.line = line;
+            this.pointer = pointer;
+            this.docStart = docStart;
+            this.docLine = docLine;
+            this.nextStart = nextStart;
+            this.nextLine = nextLine;
+        }
+
+        /**
+         * Returns the text of this window followed by the part of the next window that comes after the start line of
+         * its document, which ends this window
+         *
+         * @param next the text of the next window, possibly not complete yet
+         * @param nextDocStart the offset of the document in the next window
+         * @return the text of both windows
+         */
+        String join(CharSequence next, int nextDocStart) {
+            return text + next.subSequence(nextDocStart + text.length() - nextStart, next.length());
+        }
+    }
+
+    /**
+     * Reads the lines of a content one by one, line breaks included
+     */
+    private static class LineReader {
+        private final Reader in;
+        private final char[] chars = new char[8 * 1024];
+        private int pos = 0;
+        private int limit = 0;
+
+        LineReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * Returns the next line
+         *
+         * @return the next line, ended by its line break except for the last line, or <code>null</code> if all the
+         * content has been read
+         * @throws IOException if the content cannot be read
+         */
+        String next() throws IOException {
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                if (pos == limit) {
+                    int read = in.read(chars, 0, chars.length);
+                    if (read < 0) {
+                        return (line.length() == 0) ? null : line.toString();
                     }
+                    pos = 0;
+                    limit = read;
                 }
+                int start = pos;
+                while (pos < limit && chars[pos] != '\n') {
+                    pos++;
+                }
+                if (pos < limit) {
+                    pos++;
+                    return line.append(chars, start, pos - start).toString();
+                }
+                line.append(chars, start, pos - start);
             }
         }
 
         /**
-         * Tells if a problem relates to a disabled rule
+         * Returns all the content that has not been read yet
          *
-         * @param problem a problem
-         * @return <code>true</code> if the rule is disabled for this problem, <code>false</code> is not
+         * @return the rest of the content
+         * @throws IOException if the content cannot be read
          */
-        public boolean isDisabledByDirective(LintProblem problem) {
-            return rules.contains(problem.getRuleId());
+        String rest() throws IOException {
+            String rest = new String(chars, pos, limit - pos) + IOUtils.toString(in);
+            pos = limit;
+            return rest;
         }
     }
 
     /**
-     * Extension to <code>disableDirective</code> for line-oriented rules
+     * Fork-join task that checks a range of documents of a YAML content, splitting it in halves until there is one
+     * document left. The problems found are merged in the order of the documents.
      */
-    private static class DisableLineDirective extends DisableDirective {
-        public DisableLineDirective(List<Rule> rules) {
-            super(rules);
+    private static class DocumentTask extends RecursiveTask<ProblemSink> {
+        private static final long serialVersionUID = 1L;
+
+        private final String buffer;
+        private final LineIndex lineIndex;
+        private final int[] codePoints;
+        private final List<Document> documents;
+        private final int from;
+        private final int to;
+        private final YamlLintConfig conf;
+        private final File file;
+
+        DocumentTask(String buffer, LineIndex lineIndex, int[] codePoints, List<Document> documents, int from, int to, YamlLintConfig conf, File file) {
+            this.buffer = buffer;
+            this.lineIndex = lineIndex;
+            this.codePoints = codePoints;
+            this.documents = documents;
+            this.from = from;
+            this.to = to;
+            this.conf = conf;
+            this.file = file;
         }
 
         @Override
-        public void processComment(final Parser.Comment token) {
-            String comment = token.toString();
-
-            Matcher disableMatcher = Pattern.compile("# yamllint disable-line(( rule:\\S+)*)\\s*$").matcher(comment);
-            if (disableMatcher.find()) {
-                String[] cRules = disableMatcher.group(1).trim().replace(RULE_TOKEN, "").split(" ");
-                if (cRules.length == 0 || "".equals(cRules[0])) {
-                    rules = new ArrayList<>(allRules);
-                } else {
-                    for (String id : cRules) {
-                        if (allRules.contains(id)) {
-                            rules.add(id);
-                        }
+        protected ProblemSink compute() {
+            if (to - from == 1) {
+                return runDocument(buffer, lineIndex, codePoints, documents.get(from), (to < documents.size()) ? documents.get(to) : null, conf, file);
+            }
+
+            int middle = (from + to) >>> 1;
+            DocumentTask left = new DocumentTask(buffer, lineIndex, codePoints, documents, from, middle, conf, file);
+            left.fork();
+            ProblemSink rightProblems = new DocumentTask(buffer, lineIndex, codePoints, documents, middle, to, conf, file).compute();
+            ProblemSink leftProblems = left.join();
+            if (leftProblems == null || rightProblems == null) {
+                return null;
+            }
+            leftProblems.addAll(rightProblems);
+            return leftProblems;
+        }
+    }
+
+
+    /**
+     * Keeps track of the problems added against the limits of the linting: tells which rules are no longer applied
+     * and whether the linting must stop
+     */
+    private static class Budget {
+        private final LintLimits limits;
+        private final int[] ruleProblems;
+        final boolean[] stopped;
+        boolean ended = false;
+        boolean failed = false;
+
+        Budget(LintLimits limits, int rules) {
+            this.limits = limits;
+            this.ruleProblems = new int[rules];
+            this.stopped = new boolean[rules];
+        }
+
+        /**
+         * Counts a problem that has been added
+         *
+         * @param problem the problem added
+         * @param rule the index of the rule that found the problem
+         * @param total the number of problems added so far
+         */
+        void count(LintProblem problem, int rule, int total) {
+            if (limits.isReachedForRule(++ruleProblems[rule])) {
+                stopped[rule] = true;
+            }
+            if (limits.isFailFast() && ERROR_LEVEL.equals(problem.getLevel())) {
+                failed = true;
+                ended = true;
+            }
+            if (limits.isReached(total)) {
+                ended = true;
+            }
+        }
+    }
+
+
+    /**
+     * Keeps track of the rules disabled by the yamllint directives found in the comments:
+     * <ul>
+     *     <li><code># yamllint disable [rule:id ...]</code> and <code># yamllint enable [rule:id ...]</code> disable
+     *     and enable rules until further notice</li>
+     *     <li><code># yamllint disable-line [rule:id ...]</code> disables rules for the current line if the comment
+     *     is inline, for the next line otherwise</li>
+     * </ul>
+     * Rules are identified by their index in the list of rules passed to the constructor.
+     */
+    private static class Directives {
+        private final List<String> ruleIds;
+        private final BitSet disabled;
+        private BitSet disabledForLine;
+        private BitSet disabledForNextLine;
+
+        Directives(List<Rule> rules) {
+            ruleIds = rules.stream().map(Rule::getId).collect(Collectors.toList());
+            disabled = new BitSet(ruleIds.size());
+            disabledForLine = new BitSet(ruleIds.size());
+            disabledForNextLine = new BitSet(ruleIds.size());
+        }
+
+        /**
+         * Updates the disabled rules according to the passed comment if it contains a directive
+         *
+         * @param comment a comment
+         */
+        public void processComment(final Parser.Comment comment) {
+            if (!mayBeDirective(comment)) {
+                return;
+            }
+
+            Matcher matcher = DIRECTIVE_PATTERN.matcher(comment.toString());
+            if (!matcher.find()) {
+                return;
+            }
+            String[] cRules = matcher.group(2).trim().replace(RULE_TOKEN, "").split(" ");
+            boolean allRules = cRules.length == 0 || "".equals(cRules[0]);
+            switch (matcher.group(1)) {
+                case DISABLE:
+                    set(disabled, allRules, cRules, true);
+                    break;
+                case ENABLE:
+                    set(disabled, allRules, cRules, false);
+                    break;
+                default:
+                    set(comment.isInline() ? disabledForLine : disabledForNextLine, allRules, cRules, true);
+                    break;
+            }
+        }
+
+        /**
+         * Tells if a rule is disabled for the current line
+         *
+         * @param ruleIndex the index of a rule
+         * @return <code>true</code> if the rule is disabled, <code>false</code> is not
+         */
+        public boolean isDisabled(int ruleIndex) {
+            return disabled.get(ruleIndex) || disabledForLine.get(ruleIndex);
+        }
+
+        /**
+         * Moves to the next line: the directives found for the next line now apply to the current line
+         */
+        public void nextLine() {
+            BitSet tmp = disabledForLine;
+            disabledForLine = disabledForNextLine;
+            disabledForNextLine = tmp;
+            disabledForNextLine.clear();
+        }
+
+        private void set(BitSet bits, boolean allRules, String[] cRules, boolean value) {
+            if (allRules) {
+                bits.set(0, ruleIds.size(), value);
+            } else {
+                for (String id : cRules) {
+                    int index = ruleIds.indexOf(id);
+                    if (index != -1) {
+                        bits.set(index, value);
                     }
                 }
             }
         }
+
+        /**
+         * Tells without allocating anything if the passed comment contains the directive prefix
+         *
+         * @param comment a comment
+         * @return <code>true</code> if the comment may contain a directive
+         */
+        private static boolean mayBeDirective(Parser.Comment comment) {
+            String buffer = comment.getBuffer();
+            int last = comment.getEnd() - DIRECTIVE_PREFIX.length();
+            for (int i = comment.getPointer(); i <= last; i++) {
+                if (buffer.charAt(i) == '#' && buffer.startsWith(DIRECTIVE_PREFIX, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
@@ -19,10 +19,14 @@ import org.yaml.snakeyaml.scanner.ScannerException;
 import org.yaml.snakeyaml.tokens.StreamEndToken;
 import org.yaml.snakeyaml.tokens.StreamStartToken;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Main YAMLLint parser utility class. Use the methods of this class to tokenize a YAML string.
@@ -49,6 +53,7 @@ public class Parser {
         private int start;
         private int end;
         private String buffer;
+        private LineIndex index;
 
 
         /**
@@ -66,6 +71,17 @@ public class Parser {
             this.buffer = buffer;
         }
 
+        /**
+         * Constructor
+         *
+         * @param index the index of the lines of the string in which the line can be found
+         * @param lineNo the line number in the index
+         */
+        public Line(LineIndex index, int lineNo) {
+            this(lineNo, index.getBuffer(), index.getStart(lineNo), index.getEnd(lineNo));
+            this.index = index;
+        }
+
         /**
          * Returns the actual line content
          *
@@ -106,6 +122,17 @@ public class Parser {
         public String getBuffer() {
             return buffer;
         }
+
+        /**
+         * Returns the index of the lines of the buffer, shared by all the lines of the buffer returned by the
+         * {@link Parser}
+         *
+         * @return the index of the lines of the buffer, or <code>null</code> for a line created with
+         * {@link #Line(int, String, int, int)}: an index is never built for a single line
+         */
+        public LineIndex getIndex() {
+            return index;
+        }
     }
 
     /**
@@ -136,6 +163,25 @@ public class Parser {
             this.nextnext = nextnext;
         }
 
+        /**
+         * Makes this object wrap another token, so that it can be reused as a cursor over the tokens of a scanner
+         *
+         * @param lineNo the line number at which we can find the token
+         * @param curr the token itself
+         * @param prev the previous token
+         * @param next the next token
+         * @param nextnext the next next token
+         * @return this object
+         */
+        Token set(int lineNo, org.yaml.snakeyaml.tokens.Token curr, org.yaml.snakeyaml.tokens.Token prev, org.yaml.snakeyaml.tokens.Token next, org.yaml.snakeyaml.tokens.Token nextnext) {
+            this.lineNo   = lineNo;
+            this.curr     = curr;
+            this.prev     = prev;
+            this.next     = next;
+            this.nextnext = nextnext;
+            return this;
+        }
+
         @Override
         public int getLineNo() {
             return lineNo;
@@ -190,6 +236,10 @@ public class Parser {
         private org.yaml.snakeyaml.tokens.Token tokenBefore;
         private org.yaml.snakeyaml.tokens.Token tokenAfter;
         private Comment commentBefore;
+        /**
+         * End index of the comment in <var>buffer</var>, computed on demand
+         */
+        private int end = -1;
 
 
         /**
@@ -217,27 +267,48 @@ public class Parser {
 
         @Override
         public String toString() {
-            int end = buffer.indexOf('\n', pointer);
-            if (end == -1) {
-                end = buffer.indexOf('\0', pointer);
-            }
-            if (end != -1) {
-                return buffer.substring(pointer, end);
-            }
-            return buffer.substring(pointer);
+            return buffer.substring(pointer, getEnd());
         }
 
         @Override
         public boolean equals(Object other) {
-            return other instanceof Comment &&
-                    lineNo == ((Comment)other).lineNo &&
-                    columnNo == ((Comment)other).columnNo &&
-                    toString().equals(other.toString());
+            if (!(other instanceof Comment)) {
+                return false;
+            }
+            Comment comment = (Comment)other;
+            int length = getEnd() - pointer;
+            return lineNo == comment.lineNo &&
+                    columnNo == comment.columnNo &&
+                    length == comment.getEnd() - comment.pointer &&
+                    buffer.regionMatches(pointer, comment.buffer, comment.pointer, length);
         }
 
         @Override
         public int hashCode() {
-            return (lineNo + ":" + columnNo + ":" + toString()).hashCode();
+            int hash = 31 * lineNo + columnNo;
+            for (int i = pointer, e = getEnd(); i < e; i++) {
+                hash = 31 * hash + buffer.charAt(i);
+            }
+            return hash;
+        }
+
+        /**
+         * Returns the end index (exclusive) of the comment in <var>buffer</var>: the comment ends at the first new
+         * line character or, if none, at the first <code>\0</code> character or at the end of the buffer
+         *
+         * @return the end index of the comment
+         */
+        public int getEnd() {
+            if (end == -1) {
+                end = buffer.indexOf('\n', pointer);
+                if (end == -1) {
+                    end = buffer.indexOf('\0', pointer);
+                }
+                if (end == -1) {
+                    end = buffer.length();
+                }
+            }
+            return end;
         }
 
         /**
@@ -330,24 +401,17 @@ public class Parser {
      * @return the list of lines found in the string
      */
     public static List<Line> getLines(final String buffer) {
-        List<Line> lines = new ArrayList<>();
-        int lineNo = 1;
-        int cur = 0;
-        int next = buffer.indexOf('\n');
-        while (next != -1) {
-            if (next > 0 && buffer.charAt(next - 1) == '\r') {
-                lines.add(new Line(lineNo, buffer, cur, next - 1));
-            } else {
-                lines.add(new Line(lineNo, buffer, cur, next));
-            }
-            cur = next + 1;
-            next = buffer.indexOf('\n', cur);
-            lineNo += 1;
-        }
-
-        lines.add(new Line(lineNo, buffer, cur, buffer.length()));
+        return toList(iterateLines(buffer));
+    }
 
-        return lines;
+    /**
+     * Returns an iterator over the lines of the passed string. Lines are identified as they are requested.
+     *
+     * @param buffer a string to be parsed
+     * @return an iterator over the lines of the string
+     */
+    public static Iterator<Line> iterateLines(final String buffer) {
+        return new LineIterator(new LineIndex(buffer), 1);
     }
 
     /**
@@ -358,20 +422,46 @@ public class Parser {
      * @return the comments found between the two tokens
      */
     public static List<Comment> commentsBetweenTokens(final org.yaml.snakeyaml.tokens.Token token1, final org.yaml.snakeyaml.tokens.Token token2) {
+        return commentsBetweenTokens(token1, token2, toString(token1.getEndMark().getBuffer()));
+    }
+
+    /**
+     * Finds all comments between two tokens. The comments found reference the passed buffer, that must be the
+     * string representation of the code points of the tokens' buffer (one character per code point, see
+     * {@link #toString(int[])}). Pass the same string for all the tokens of a YAML content so that it is built once.
+     *
+     * @param token1 a first token
+     * @param token2 a second token. May be {@code null}.
+     * @param buffer the string representation of the buffer of the tokens
+     * @return the comments found between the two tokens
+     */
+    public static List<Comment> commentsBetweenTokens(final org.yaml.snakeyaml.tokens.Token token1, final org.yaml.snakeyaml.tokens.Token token2, final String buffer) {
         List<Comment> comments = new ArrayList<>();
-        String buf;
+        addCommentsBetweenTokens(token1, token2, buffer, comments);
+        return comments;
+    }
+
+    /**
+     * Same as {@link #commentsBetweenTokens(org.yaml.snakeyaml.tokens.Token, org.yaml.snakeyaml.tokens.Token, String)}
+     * but adds the comments found to the passed collection, so that no list is created between the many tokens
+     * without comments
+     *
+     * @param token1 a first token
+     * @param token2 a second token. May be {@code null}.
+     * @param buffer the string representation of the buffer of the tokens
+     * @param comments the collection the comments found are added to
+     */
+    private static void addCommentsBetweenTokens(final org.yaml.snakeyaml.tokens.Token token1, final org.yaml.snakeyaml.tokens.Token token2,
+                                                 final String buffer, final Collection<? super Comment> comments) {
+        int end;
         if (token2 == null) {
-            buf = toString(
-                    Arrays.copyOfRange(token1.getEndMark().getBuffer(), token1.getEndMark().getPointer(), token1.getEndMark().getBuffer().length)
-            );
+            end = buffer.length();
         } else if (token1.getEndMark().getLine() == token2.getStartMark().getLine() &&
                 !(token1 instanceof StreamStartToken) &&
                 !(token2 instanceof StreamEndToken)) {
-            return comments;
+            return;
         } else {
-            buf = toString(
-                    Arrays.copyOfRange(token1.getEndMark().getBuffer(), token1.getEndMark().getPointer(), token2.getStartMark().getPointer())
-            );
+            end = token2.getStartMark().getPointer();
         }
 
         int lineNo = token1.getEndMark().getLine() + 1;
@@ -379,24 +469,27 @@ public class Parser {
         int pointer = token1.getEndMark().getPointer();
 
         Comment commentBefore = null;
-        int pos;
-        for (String line : buf.split("\n")) {
-            pos = line.indexOf('#');
+        while (pointer < end) {
+            int eol = pointer;
+            int pos = -1;
+            while (eol < end && buffer.charAt(eol) != '\n') {
+                if (pos == -1 && buffer.charAt(eol) == '#') {
+                    pos = eol;
+                }
+                eol++;
+            }
             if (pos != -1) {
-                Comment comment = new Comment(lineNo, columnNo + pos,
-                        toString(token1.getEndMark().getBuffer()), pointer + pos,
+                Comment comment = new Comment(lineNo, columnNo + pos - pointer, buffer, pos,
                         token1, token2, commentBefore);
                 comments.add(comment);
 
                 commentBefore = comment;
             }
 
-            pointer += line.length() + 1;
+            pointer = eol + 1;
             lineNo += 1;
             columnNo = 1;
         }
-
-        return comments;
     }
 
     /**
@@ -406,27 +499,28 @@ public class Parser {
      * @return the list of tokens and comments found in the string
      */
     public static List<Lined> getTokensOrComments(final String buffer) {
-        LintScanner yamlLoader = new LintScanner(new LintStreamReader(buffer));
-
-        List<Lined> tokensOrComments = new ArrayList<>();
-        try {
-            org.yaml.snakeyaml.tokens.Token prev = null;
-            org.yaml.snakeyaml.tokens.Token curr = yamlLoader.getToken();
-            while (curr != null) {
-                org.yaml.snakeyaml.tokens.Token next = yamlLoader.getToken();
-                org.yaml.snakeyaml.tokens.Token nextnext = yamlLoader.peekToken();
-
-                tokensOrComments.add(new Token(curr.getStartMark().getLine() + 1, curr, prev, next, nextnext));
+        return getTokensOrComments(new LintScanner(new LintStreamReader(buffer)));
+    }
 
-                tokensOrComments.addAll(commentsBetweenTokens(curr, next));
+    /**
+     * Identifies and returns the tokens and comments returned by the passed scanner
+     *
+     * @param yamlLoader a scanner of the YAML content to be parsed
+     * @return the list of tokens and comments found by the scanner
+     */
+    public static List<Lined> getTokensOrComments(final LintScanner yamlLoader) {
+        return toList(iterateTokensOrComments(yamlLoader));
+    }
 
-                prev = curr;
-                curr = next;
-            }
-        } catch (ScannerException e) {
-            // Do nothing, just skip the token
-        }
-        return tokensOrComments;
+    /**
+     * Returns an iterator over the tokens and comments returned by the passed scanner. Tokens are pulled from the
+     * scanner as the iterator is consumed.
+     *
+     * @param yamlLoader a scanner of the YAML content to be parsed
+     * @return an iterator over the tokens and comments found by the scanner
+     */
+    public static Iterator<Lined> iterateTokensOrComments(final LintScanner yamlLoader) {
+        return new TokenOrCommentIterator(yamlLoader, null, true, null, false);
     }
 
     /**
@@ -436,35 +530,274 @@ public class Parser {
      * @return all tokens, comments and lines found in the passed string
      */
     public static List<Lined> getTokensOrCommentsOrLines(final String buffer) {
-        List<Lined> objects = new ArrayList<>();
-        Iterator<Lined> tokensOrComments = getTokensOrComments(buffer).iterator();
-        Iterator<Line> lines = getLines(buffer).iterator();
-
-        Lined tokenOrComment = (tokensOrComments.hasNext())?tokensOrComments.next():null;
-        Line line = (lines.hasNext())?lines.next():null;
-        while (tokenOrComment != null || line != null) {
-            if (tokenOrComment == null || (line != null && tokenOrComment.getLineNo() > line.lineNo)) {
-                objects.add(line);
-                line = (lines.hasNext())?lines.next():null;
-            } else {
-                objects.add(tokenOrComment);
-                tokenOrComment = (tokensOrComments.hasNext())?tokensOrComments.next():null;
-            }
-        }
+        return getTokensOrCommentsOrLines(buffer, new LintScanner(new LintStreamReader(buffer)));
+    }
 
-        return objects;
+    /**
+     * Generator that mixes tokens and lines, ordering them by line number
+     *
+     * @param buffer a string to be parsed
+     * @param yamlLoader the scanner of the passed string
+     * @return all tokens, comments and lines found in the passed string
+     */
+    public static List<Lined> getTokensOrCommentsOrLines(final String buffer, final LintScanner yamlLoader) {
+        return toList(iterateTokensOrCommentsOrLines(buffer, yamlLoader));
+    }
+
+    /**
+     * Returns an iterator that mixes tokens and lines, ordering them by line number. Elements are produced as the
+     * iterator is consumed so that only a window of tokens is kept in memory.
+     *
+     * @param buffer a string to be parsed
+     * @param yamlLoader the scanner of the passed string
+     * @return an iterator over the tokens, comments and lines found in the passed string
+     */
+    public static Iterator<Lined> iterateTokensOrCommentsOrLines(final String buffer, final LintScanner yamlLoader) {
+        return iterate(buffer, yamlLoader, true, true, true);
+    }
+
+    /**
+     * Returns an iterator over the streams of elements of the passed string that have been requested, ordering them
+     * by line number. The streams that are not requested are not produced at all: the content is not scanned if
+     * neither the tokens nor the comments are requested and the lines are not split if the lines are not requested.
+     * As comments are looked for between tokens, the tokens are also returned when the comments are requested.
+     *
+     * @param buffer a string to be parsed
+     * @param yamlLoader the scanner of the passed string
+     * @param tokens {@code true} to get the tokens of the string
+     * @param comments {@code true} to get the comments of the string
+     * @param lines {@code true} to get the lines of the string
+     * @return an iterator over the requested elements found in the passed string
+     */
+    public static Iterator<Lined> iterate(final String buffer, final LintScanner yamlLoader, boolean tokens, boolean comments, boolean lines) {
+        return iterate(buffer, yamlLoader, tokens, comments, lines, null, 1, null, false);
     }
 
+    /**
+     * Same as {@link #iterate(String, LintScanner, boolean, boolean, boolean)} but starts at the passed line of the
+     * string. The scanner must have been positioned at the start of this line. If the token that precedes this line
+     * is passed, the stream start token returned first by the scanner is skipped and replaced by this token.
+     *
+     * @param buffer a string to be parsed
+     * @param yamlLoader the scanner of the passed string
+     * @param tokens {@code true} to get the tokens of the string
+     * @param comments {@code true} to get the comments of the string
+     * @param lines {@code true} to get the lines of the string
+     * @param lineIndex the index of the lines of the string, or {@code null} to build it if the lines are requested
+     * @param lineNo the number of the first line to be returned
+     * @param prev the token that precedes the first line, or {@code null} if the string is read from its start
+     * @param cursors {@code true} to return the tokens in a couple of {@link Token} objects reused all along the
+     *                iteration instead of a new object per token. A token returned by the iterator is then only valid
+     *                until the next token but one is returned: the caller must not keep it.
+     * @return an iterator over the requested elements found in the passed string from the passed line
+     */
+    @SuppressWarnings("unchecked")
+    static Iterator<Lined> iterate(final String buffer, final LintScanner yamlLoader, boolean tokens, boolean comments, boolean lines,
+                                   LineIndex lineIndex, int lineNo, org.yaml.snakeyaml.tokens.Token prev, boolean cursors) {
+        Iterator<Line> lineIterator = lines ? new LineIterator((lineIndex == null) ? new LineIndex(buffer) : lineIndex, lineNo) : null;
+        if (!tokens && !comments) {
+            // The iterator is read-only: it can safely be seen as an iterator over the supertype
+            return lines ? (Iterator<Lined>)(Iterator<? extends Lined>)lineIterator : Collections.emptyIterator();
+        }
+        Iterator<Lined> tokensOrComments = new TokenOrCommentIterator(yamlLoader, buffer, comments, prev, cursors);
+        return lines ? new MergingIterator(tokensOrComments, lineIterator) : tokensOrComments;
+    }
+
+
+    /**
+     * Consumes the passed iterator and returns its elements as a list
+     *
+     * @param iterator an iterator
+     * @param <T> the type of the elements
+     * @return the list of the elements returned by the iterator
+     */
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
 
     /**
-     * Converts the passed array of bytes represented by ints into a string
+     * Converts the passed array of code points into a string made of one character per code point, so that the
+     * indexes in the string and in the array match
      *
-     * @param array an array of bytes
+     * @param array an array of code points
      * @return a string
      */
-    private static String toString(int[] array) {
-        StringBuilder sb = new StringBuilder();
-        Arrays.stream(array).forEach(i -> sb.append((char)i));
-        return sb.toString();
+    public static String toString(int[] array) {
+        char[] chars = new char[array.length];
+        for (int i = 0; i < array.length; i++) {
+            chars[i] = (char)array[i];
+        }
+        return new String(chars);
+    }
+
+
+    /**
+     * Iterator over the lines of a string
+     */
+    private static class LineIterator implements Iterator<Line> {
+        private final LineIndex index;
+        private int lineNo;
+
+        /**
+         * Constructor
+         *
+         * @param index the index of the lines of a string
+         * @param lineNo the number of the first line to be returned
+         */
+        LineIterator(LineIndex index, int lineNo) {
+            this.index = index;
+            this.lineNo = lineNo;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return lineNo <= index.getLineCount();
+        }
+
+        @Override
+        public Line next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return new Line(index, lineNo++);
+        }
+    }
+
+    /**
+     * Iterator over the tokens returned by a scanner and the comments found between them
+     */
+    private static class TokenOrCommentIterator implements Iterator<Lined> {
+        private final LintScanner yamlLoader;
+        private final Deque<Lined> pending = new ArrayDeque<>();
+        private org.yaml.snakeyaml.tokens.Token prev;
+        private org.yaml.snakeyaml.tokens.Token curr = null;
+        private boolean started = false;
+        private final boolean comments;
+        /**
+         * Token objects reused in turn for the tokens returned, or {@code null} to create a new object per token. Two
+         * of them are needed since {@link MergingIterator} reads one element ahead.
+         */
+        private final Token[] cursors;
+        private int cursor = 0;
+        /**
+         * String view of the scanned content shared by all comments
+         */
+        private String buffer;
+
+        /**
+         * Constructor
+         *
+         * @param yamlLoader the scanner
+         * @param buffer the scanned string, if known. It is used as the view of the scanned content shared by the
+         *               comments if it has one character per code point. May be {@code null}.
+         * @param comments {@code false} not to look for the comments between the tokens
+         * @param prev the token that replaces the stream start token returned first by the scanner, or {@code null}
+         *             to keep the latter
+         * @param cursors {@code true} to reuse the {@link Token} objects returned
+         */
+        TokenOrCommentIterator(LintScanner yamlLoader, String buffer, boolean comments, org.yaml.snakeyaml.tokens.Token prev, boolean cursors) {
+            this.yamlLoader = yamlLoader;
+            this.buffer = buffer;
+            this.comments = comments;
+            this.prev = prev;
+            this.cursors = cursors ? new Token[] { new Token(0, null, null, null, null), new Token(0, null, null, null, null) } : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending.isEmpty()) {
+                fetch();
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Lined next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.poll();
+        }
+
+        /**
+         * Reads the next token from the scanner and queues it along with the comments that follow it
+         */
+        private void fetch() {
+            try {
+                if (!started) {
+                    started = true;
+                    if (prev != null) {
+                        // Skip the stream start token
+                        yamlLoader.getToken();
+                    }
+                    curr = yamlLoader.getToken();
+                }
+                if (curr == null) {
+                    return;
+                }
+                org.yaml.snakeyaml.tokens.Token next = yamlLoader.getToken();
+                org.yaml.snakeyaml.tokens.Token nextnext = yamlLoader.peekToken();
+
+                int lineNo = curr.getStartMark().getLine() + 1;
+                if (cursors == null) {
+                    pending.add(new Token(lineNo, curr, prev, next, nextnext));
+                } else {
+                    pending.add(cursors[cursor].set(lineNo, curr, prev, next, nextnext));
+                    cursor ^= 1;
+                }
+
+                if (comments) {
+                    if (buffer == null || buffer.length() != curr.getEndMark().getBuffer().length) {
+                        buffer = Parser.toString(curr.getEndMark().getBuffer());
+                    }
+                    addCommentsBetweenTokens(curr, next, buffer, pending);
+                }
+
+                prev = curr;
+                curr = next;
+            } catch (ScannerException e) {
+                // Do nothing, just skip the token and stop there
+                curr = null;
+            }
+        }
+    }
+
+    /**
+     * Iterator that mixes tokens or comments and lines, ordering them by line number
+     */
+    private static class MergingIterator implements Iterator<Lined> {
+        private final Iterator<Lined> tokensOrComments;
+        private final Iterator<Line> lines;
+        private Lined tokenOrComment;
+        private Line line;
+
+        MergingIterator(Iterator<Lined> tokensOrComments, Iterator<Line> lines) {
+            this.tokensOrComments = tokensOrComments;
+            this.lines = lines;
+            this.tokenOrComment = (tokensOrComments.hasNext())?tokensOrComments.next():null;
+            this.line = (lines.hasNext())?lines.next():null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return tokenOrComment != null || line != null;
+        }
+
+        @Override
+        public Lined next() {
+            Lined elem;
+            if (tokenOrComment == null && line == null) {
+                throw new NoSuchElementException();
+            } else if (tokenOrComment == null || (line != null && tokenOrComment.getLineNo() > line.lineNo)) {
+                elem = line;
+                line = (lines.hasNext())?lines.next():null;
+            } else {
+                elem = tokenOrComment;
+                tokenOrComment = (tokensOrComments.hasNext())?tokensOrComments.next():null;
+            }
+            return elem;
+        }
     }
 }
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects the problems found in a YAML content and keeps them ordered by line, column and rule, without duplicates.
+ * <p>
+ * Problems are compared on primitive keys only: the position of the problem and the index of the rule that found it
+ * in the list of enabled rules (syntax errors, with a negative index, come first). As the problems are added line
+ * after line, they nearly always come in order: they are then simply appended. The few that come late (for example
+ * problems reported by a rule on a previous line) are inserted at their place, which is usually close to the end.
+ */
+final class ProblemSink {
+    private LintProblem[] problems = new LintProblem[16];
+    private long[] positions = new long[16];
+    private int[] rules = new int[16];
+    private int size = 0;
+
+
+    /**
+     * Adds a problem, unless the same problem has already been added
+     *
+     * @param problem a problem
+     * @param ruleIndex the index of the rule that found the problem, or a negative number for syntax errors
+     * @return <code>true</code> if the problem has been added, <code>false</code> if it is a duplicate
+     */
+    boolean add(LintProblem problem, int ruleIndex) {
+        long position = getPosition(problem.getLine(), problem.getColumn());
+
+        // Look for the insertion point from the end
+        int index = size;
+        while (index > 0 && compare(positions[index - 1], rules[index - 1], position, ruleIndex) > 0) {
+            index--;
+        }
+
+        // Discard duplicates
+        for (int i = index - 1; i >= 0 && positions[i] == position && rules[i] == ruleIndex; i--) {
+            if (problems[i].getDesc().equals(problem.getDesc())) {
+                return false;
+            }
+        }
+
+        if (size == problems.length) {
+            problems = Arrays.copyOf(problems, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+            rules = Arrays.copyOf(rules, size * 2);
+        }
+        if (index < size) {
+            System.arraycopy(problems, index, problems, index + 1, size - index);
+            System.arraycopy(positions, index, positions, index + 1, size - index);
+            System.arraycopy(rules, index, rules, index + 1, size - index);
+        }
+        problems[index] = problem;
+        positions[index] = position;
+        rules[index] = ruleIndex;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes all the problems found at the passed position
+     *
+     * @param line a line number (starting at 1)
+     * @param column a column number (starting at 1)
+     */
+    void discard(int line, int column) {
+        long position = getPosition(line, column);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (positions[i] != position) {
+                problems[kept] = problems[i];
+                positions[kept] = positions[i];
+                rules[kept] = rules[i];
+                kept++;
+            }
+        }
+        Arrays.fill(problems, kept, size, null);
+        size = kept;
+    }
+
+    /**
+     * Keeps only the first problems
+     *
+     * @param max the maximum number of problems kept
+     */
+    void truncate(int max) {
+        if (max < size) {
+            Arrays.fill(problems, max, size, null);
+            size = max;
+        }
+    }
+
+    /**
+     * Removes the problems found at or after the passed line
+     *
+     * @param line a line number (starting at 1)
+     */
+    void truncateAtLine(int line) {
+        long position = getPosition(line, 0);
+        int kept = size;
+        while (kept > 0 && positions[kept - 1] >= position) {
+            kept--;
+        }
+        truncate(kept);
+    }
+
+    /**
+     * Adds all the problems of another sink
+     *
+     * @param other another sink
+     */
+    void addAll(ProblemSink other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.problems[i], other.rules[i]);
+        }
+    }
+
+    /**
+     * Returns the number of problems collected
+     *
+     * @return the number of problems
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the problems collected, in order
+     *
+     * @return a new list of problems
+     */
+    List<LintProblem> toList() {
+        return new ArrayList<>(Arrays.asList(problems).subList(0, size));
+    }
+
+
+    private static long getPosition(int line, int column) {
+        return ((long)line << 32) | (column & 0xffffffffL);
+    }
+
+    private static int compare(long position1, int rule1, long position2, int rule2) {
+        int result = Long.compare(position1, position2);
+        return (result != 0) ? result : Integer.compare(rule1, rule2);
+    }
+}
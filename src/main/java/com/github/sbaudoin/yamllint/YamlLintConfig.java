@@ -20,6 +20,7 @@ import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.error.YAMLException;
 import com.github.sbaudoin.yamllint.rules.Rule;
 import com.github.sbaudoin.yamllint.rules.RuleFactory;
+import com.github.sbaudoin.yamllint.rules.RuleOptions;
 import org.yaml.snakeyaml.reader.UnicodeReader;
 
 import java.io.File;
@@ -30,9 +31,15 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Class that represents the configuration for the YAML linter
+ * Class that represents the configuration for the YAML linter.
+ * <p>
+ * Each configuration has its own instances of the rules it enables, so that several configurations can coexist in
+ * the same JVM without overriding each other's settings. Once constructed, a configuration is not modified by the
+ * linter and may be shared by threads that lint concurrently, as long as it is not changed with
+ * {@link #extend(YamlLintConfig)} in the meantime.
  */
 public class YamlLintConfig {
     /**
@@ -68,6 +75,16 @@ public class YamlLintConfig {
      */
     protected Map<String, Object> ruleConf;
 
+    /**
+     * Rules of this configuration. These instances are not shared with other configurations. Key: ruleId; value: rule
+     */
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * Options of the enabled rules, compiled from <var>ruleConf</var>. Key: ruleId; value: rule options
+     */
+    private final Map<String, RuleOptions> ruleOptions = new ConcurrentHashMap<>();
+
     /**
      * List of regexp patterns used to tell if a file is to be ignored or not
      */
@@ -157,14 +174,17 @@ public class YamlLintConfig {
      * @return the list of rules to be checked for the file. All rules are returned if <var>file</var> is <code>null</code>.
      */
     public List<Rule> getEnabledRules(File file) {
-        List<Rule> rules = new ArrayList<>();
-        for (Map.Entry<String, Object> entry : ruleConf.entrySet()) {
-            Rule rule = RuleFactory.instance.getRule(entry.getKey());
-            if (rule != null && entry.getValue() != null && (file == null || !rule.ignores(file))) {
-                rules.add(rule);
+        List<Rule> enabledRules = new ArrayList<>();
+        for (String id : ruleConf.keySet()) {
+            // Make sure the rule has been configured before checking its ignore patterns
+            if (getRuleOptions(id) != null) {
+                Rule rule = getRule(id);
+                if (file == null || !rule.ignores(file)) {
+                    enabledRules.add(rule);
+                }
             }
         }
-        return rules;
+        return enabledRules;
     }
 
     /**
@@ -177,6 +197,41 @@ public class YamlLintConfig {
         return ruleConf.get(id);
     }
 
+    /**
+     * Returns the compiled options of the rule identified by its ID. The options are compiled by the configuration
+     * validation; they are otherwise validated and compiled on first use.
+     *
+     * @param id a rule ID
+     * @return the options of the rule or <code>null</code> if the rule is not found or is disabled
+     * @throws IllegalStateException if the rule configuration is invalid
+     * @see Rule#compileOptions(Map)
+     */
+    public RuleOptions getRuleOptions(String id) {
+        return ruleOptions.computeIfAbsent(id, key -> {
+            Rule rule = getRule(key);
+            if (rule == null) {
+                return null;
+            }
+            try {
+                Map<String, Object> conf = validateRuleConf(rule, ruleConf.get(key));
+                return (conf == null) ? null : rule.compileOptions(conf);
+            } catch (YamlLintConfigException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns the instance of the rule identified by its ID that belongs to this configuration
+     *
+     * @param id a rule ID
+     * @return the rule or <code>null</code> if no rule has this ID
+     * @see RuleFactory#createRule(String)
+     */
+    private Rule getRule(String id) {
+        return rules.computeIfAbsent(id, RuleFactory.instance::createRule);
+    }
+
     /**
      * Updates the attributes of this configuration instance with the one of the passed configuration. Existing entries are replaced (overridden).
      *
@@ -199,6 +254,8 @@ public class YamlLintConfig {
         }
 
         ruleConf = newConf;
+        rules.clear();
+        ruleOptions.clear();
 
         if (baseConfig.yamlFiles != null) {
             yamlFiles = baseConfig.yamlFiles;
@@ -255,6 +312,8 @@ public class YamlLintConfig {
 
         // ruleConf stores YAML conf; rules stores actual rules
         ruleConf = (Map<String, Object>)conf.getOrDefault(RULES_KEY, new HashMap<String, Object>());
+        rules.clear();
+        ruleOptions.clear();
 
         // Does this conf override another conf that we need to load?
         if (conf.containsKey(EXTENDS_KEY)) {
@@ -289,13 +348,18 @@ public class YamlLintConfig {
     protected void validate() throws YamlLintConfigException {
         for (Map.Entry<String, Object> entry : ruleConf.entrySet()) {
             String id = entry.getKey();
-            Rule rule = RuleFactory.instance.getRule(id);
+            Rule rule = getRule(id);
             if (rule == null) {
                 throw getInvalidConfigException(String.format("no such rule: \"%s\"", id));
             }
 
             Map<String, Object> newConf = validateRuleConf(rule, entry.getValue());
             ruleConf.put(id, newConf);
+            if (newConf == null) {
+                ruleOptions.remove(id);
+            } else {
+                ruleOptions.put(id, rule.compileOptions(newConf));
+            }
         }
     }
 
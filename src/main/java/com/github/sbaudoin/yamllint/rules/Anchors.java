@@ -18,9 +18,12 @@ package com.github.sbaudoin.yamllint.rules;
 import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.*;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to report duplicated anchors and aliases referencing undeclared anchors.
@@ -101,9 +104,6 @@ import java.util.stream.Stream;
  * </pre>
  */
 public class Anchors extends TokenRule {
-    private static final String ANCHORS_KEY = "anchors";
-
-
     /**
      * Name of the "forbid-undeclared-aliases" option
      */
@@ -128,33 +128,32 @@ public class Anchors extends TokenRule {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
+        Map<String, Anchor> anchors = ((State)state).anchors;
         List<LintProblem> problems = new ArrayList<>();
 
-        if (Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNDECLARED_ALIASES)) ||
-                Boolean.TRUE.equals(conf.get(OPTION_FORBID_DUPLICATED_ANCHORS)) ||
-                Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNUSED_ANCHORS))) {
+        if (opts.anyForbidden) {
             if (token instanceof StreamStartToken ||
                     token instanceof DocumentStartToken ||
                     token instanceof DocumentEndToken) {
-                context.put(ANCHORS_KEY, new HashMap<String, Object>());
+                anchors.clear();
             }
         }
 
-        if (Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNDECLARED_ALIASES)) && token instanceof AliasToken &&
-                !getContextMap(context).containsKey(((AliasToken)token).getValue())) {
+        if (opts.forbidUndeclaredAliases && token instanceof AliasToken &&
+                !anchors.containsKey(((AliasToken)token).getValue())) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1, token.getStartMark().getColumn() + 1,
                     String.format("found undeclared alias \"%s\"", ((AliasToken)token).getValue())));
         }
 
-        if (Boolean.TRUE.equals(conf.get(OPTION_FORBID_DUPLICATED_ANCHORS)) && token instanceof AnchorToken &&
-                getContextMap(context).containsKey(((AnchorToken)token).getValue())) {
+        if (opts.forbidDuplicatedAnchors && token instanceof AnchorToken &&
+                anchors.containsKey(((AnchorToken)token).getValue())) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1, token.getStartMark().getColumn() + 1,
                     String.format("found duplicated anchor \"%s\"", ((AnchorToken) token).getValue())));
         }
 
-        if (Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNUSED_ANCHORS))) {
+        if (opts.forbidUnusedAnchors) {
             // Unused anchors can only be detected at the end of Document.
             // End of document can be either
             //   - end of stream
@@ -166,45 +165,91 @@ public class Anchors extends TokenRule {
             if (next instanceof StreamEndToken ||
                     next instanceof DocumentStartToken ||
                     next instanceof DocumentEndToken) {
-                for (String k : getContextMap(context).keySet()) {
-                    Map<String, Object> info = (Map<String, Object>) getContextMap(context).get(k);
-                    if (Boolean.FALSE.equals(info.get("used"))) {
-                        problems.add(new LintProblem((Integer)info.get("line") + 1,
-                                (Integer)info.get("column") + 1,
-                            String.format("found unused anchor \"%s\"", k)));
+                for (Map.Entry<String, Anchor> entry : anchors.entrySet()) {
+                    if (!entry.getValue().used) {
+                        problems.add(new LintProblem(entry.getValue().line + 1,
+                                entry.getValue().column + 1,
+                            String.format("found unused anchor \"%s\"", entry.getKey())));
                     }
                 }
             } else if (token instanceof AliasToken) {
-                ((HashMap<String, Object>) (getContextMap(context).getOrDefault(
-                        ((AliasToken)token).getValue(), new HashMap<String, Object>()))).put("used", true);
+                Anchor anchor = anchors.get(((AliasToken)token).getValue());
+                if (anchor != null) {
+                    anchor.used = true;
+                }
             }
         }
 
-        if (Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNDECLARED_ALIASES)) ||
-                Boolean.TRUE.equals(conf.get(OPTION_FORBID_DUPLICATED_ANCHORS)) ||
-                Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNUSED_ANCHORS))) {
+        if (opts.anyForbidden) {
             if (token instanceof AnchorToken) {
-                getContextMap(context).put(((AnchorToken) token).getValue(),
-                        Stream.of(
-                                new AbstractMap.SimpleEntry<>("line", token.getStartMark().getLine()),
-                                new AbstractMap.SimpleEntry<>("column", token.getStartMark().getColumn()),
-                                new AbstractMap.SimpleEntry<>("used", false))
-                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+                anchors.put(((AnchorToken) token).getValue(), new Anchor(token.getStartMark().getLine(), token.getStartMark().getColumn()));
             }
         }
 
         return problems;
     }
 
+    @Override
+    public Object createState(RuleOptions options) {
+        return new State();
+    }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        Options opts = (Options)options;
+        if (!opts.anyForbidden) {
+            return EnumSet.noneOf(Token.ID.class);
+        }
+        if (opts.forbidUnusedAnchors) {
+            // Unused anchors are reported on the last token of each document
+            return EnumSet.allOf(Token.ID.class);
+        }
+        return EnumSet.of(Token.ID.StreamStart, Token.ID.DocumentStart, Token.ID.DocumentEnd, Token.ID.Anchor, Token.ID.Alias);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean forbidUndeclaredAliases;
+        private final boolean forbidDuplicatedAnchors;
+        private final boolean forbidUnusedAnchors;
+        private final boolean anyForbidden;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            forbidUndeclaredAliases = Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNDECLARED_ALIASES));
+            forbidDuplicatedAnchors = Boolean.TRUE.equals(conf.get(OPTION_FORBID_DUPLICATED_ANCHORS));
+            forbidUnusedAnchors = Boolean.TRUE.equals(conf.get(OPTION_FORBID_UNUSED_ANCHORS));
+            anyForbidden = forbidUndeclaredAliases || forbidDuplicatedAnchors || forbidUnusedAnchors;
+        }
+    }
+
+
+    /**
+     * Anchors declared in the current document, by name
+     */
+    private static class State {
+        private final Map<String, Anchor> anchors = new HashMap<>();
+    }
 
     /**
-     * Method used to simplify the syntax of the {@code check} method
-     *
-     * @param context a context map used to propagate info between rules
-     * @return a map used to store information about the tokens being checked
+     * Position of an anchor and whether it has been used by an alias
      */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> getContextMap(Map<String, Object> context) {
-        return (Map<String, Object>) context.get(ANCHORS_KEY);
+    private static class Anchor {
+        private final int line;
+        private final int column;
+        private boolean used = false;
+
+        Anchor(int line, int column) {
+            this.line = line;
+            this.column = column;
+        }
     }
 }
@@ -118,9 +118,9 @@ public class Braces extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
-        if ((Boolean.TRUE.equals(conf.get(OPTION_FORBID)) && token instanceof FlowMappingStartToken) ||
-                ("non-empty".equals(conf.get(OPTION_FORBID)) && token instanceof FlowMappingStartToken && !(next instanceof FlowMappingEndToken))) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
+        if (token instanceof FlowMappingStartToken && (opts.forbid || (opts.forbidNonEmpty && !(next instanceof FlowMappingEndToken)))) {
             return Collections.singletonList(
                     new LintProblem(
                             token.getStartMark().getLine() + 1,
@@ -132,20 +132,20 @@ public class Braces extends TokenRule {
         LintProblem problem = null;
         if (token instanceof FlowMappingStartToken && next instanceof FlowMappingEndToken) {
             problem = spacesAfter(token, next,
-                    (int)((((int)conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY)) != -1)?conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY):conf.get(OPTION_MIN_SPACES_INSIDE)),
-                    (int)((((int)conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY)) != -1)?conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY):conf.get(OPTION_MAX_SPACES_INSIDE)),
+                    opts.minSpacesInsideEmpty,
+                    opts.maxSpacesInsideEmpty,
                     "too few spaces inside empty braces",
                     "too many spaces inside empty braces");
         } else if (token instanceof FlowMappingStartToken) {
             problem = spacesAfter(token, next,
-                    (int)conf.get(OPTION_MIN_SPACES_INSIDE),
-                    (int)conf.get(OPTION_MAX_SPACES_INSIDE),
+                    opts.minSpacesInside,
+                    opts.maxSpacesInside,
                     "too few spaces inside braces",
                     "too many spaces inside braces");
         } else if (token instanceof FlowMappingEndToken && !(prev instanceof FlowMappingStartToken)) {
             problem = spacesBefore(token, prev,
-                    (int)conf.get(OPTION_MIN_SPACES_INSIDE),
-                    (int)conf.get(OPTION_MAX_SPACES_INSIDE),
+                    opts.minSpacesInside,
+                    opts.maxSpacesInside,
                     "too few spaces inside braces",
                     "too many spaces inside braces");
         }
@@ -156,4 +156,37 @@ public class Braces extends TokenRule {
         }
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.FlowMappingStart, Token.ID.FlowMappingEnd);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean forbid;
+        private final boolean forbidNonEmpty;
+        private final int minSpacesInside;
+        private final int maxSpacesInside;
+        private final int minSpacesInsideEmpty;
+        private final int maxSpacesInsideEmpty;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            forbid = Boolean.TRUE.equals(conf.get(OPTION_FORBID));
+            forbidNonEmpty = "non-empty".equals(conf.get(OPTION_FORBID));
+            minSpacesInside = (int)conf.get(OPTION_MIN_SPACES_INSIDE);
+            maxSpacesInside = (int)conf.get(OPTION_MAX_SPACES_INSIDE);
+            minSpacesInsideEmpty = ((int)conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY) != -1) ? (int)conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY) : minSpacesInside;
+            maxSpacesInsideEmpty = ((int)conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY) != -1) ? (int)conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY) : maxSpacesInside;
+        }
+    }
 }
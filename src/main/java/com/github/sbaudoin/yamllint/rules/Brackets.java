@@ -117,9 +117,9 @@ public class Brackets extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
-        if ((Boolean.TRUE.equals(conf.get(OPTION_FORBID)) && token instanceof FlowSequenceStartToken) ||
-                ("non-empty".equals(conf.get(OPTION_FORBID)) && token instanceof FlowSequenceStartToken && !(next instanceof FlowSequenceEndToken))) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
+        if (token instanceof FlowSequenceStartToken && (opts.forbid || (opts.forbidNonEmpty && !(next instanceof FlowSequenceEndToken)))) {
             return Collections.singletonList(
                     new LintProblem(
                             token.getStartMark().getLine() + 1,
@@ -132,20 +132,20 @@ public class Brackets extends TokenRule {
 
         if (token instanceof FlowSequenceStartToken && next instanceof FlowSequenceEndToken) {
             problem = spacesAfter(token, next,
-                    (int)((conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY).equals(-1))?conf.get(OPTION_MIN_SPACES_INSIDE):conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY)),
-                    (int)((conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY).equals(-1))?conf.get(OPTION_MAX_SPACES_INSIDE):conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY)),
+                    opts.minSpacesInsideEmpty,
+                    opts.maxSpacesInsideEmpty,
                     "too few spaces inside empty brackets",
                     "too many spaces inside empty brackets");
         } else if (token instanceof FlowSequenceStartToken) {
             problem = spacesAfter(token, next,
-                    (int)conf.get(OPTION_MIN_SPACES_INSIDE),
-                    (int)conf.get(OPTION_MAX_SPACES_INSIDE),
+                    opts.minSpacesInside,
+                    opts.maxSpacesInside,
                     "too few spaces inside brackets",
                     "too many spaces inside brackets");
         } else if (token instanceof FlowSequenceEndToken && !(prev instanceof FlowSequenceStartToken)) {
             problem = spacesBefore(token, prev,
-                    (int)conf.get(OPTION_MIN_SPACES_INSIDE),
-                    (int)conf.get(OPTION_MAX_SPACES_INSIDE),
+                    opts.minSpacesInside,
+                    opts.maxSpacesInside,
                     "too few spaces inside brackets",
                     "too many spaces inside brackets");
         }
@@ -156,4 +156,37 @@ public class Brackets extends TokenRule {
         }
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.FlowSequenceStart, Token.ID.FlowSequenceEnd);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean forbid;
+        private final boolean forbidNonEmpty;
+        private final int minSpacesInside;
+        private final int maxSpacesInside;
+        private final int minSpacesInsideEmpty;
+        private final int maxSpacesInsideEmpty;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            forbid = Boolean.TRUE.equals(conf.get(OPTION_FORBID));
+            forbidNonEmpty = "non-empty".equals(conf.get(OPTION_FORBID));
+            minSpacesInside = (int)conf.get(OPTION_MIN_SPACES_INSIDE);
+            maxSpacesInside = (int)conf.get(OPTION_MAX_SPACES_INSIDE);
+            minSpacesInsideEmpty = ((int)conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY) != -1) ? (int)conf.get(OPTION_MIN_SPACES_INSIDE_EMPTY) : minSpacesInside;
+            maxSpacesInsideEmpty = ((int)conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY) != -1) ? (int)conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY) : maxSpacesInside;
+        }
+    }
 }
@@ -22,8 +22,10 @@ import org.yaml.snakeyaml.tokens.Token;
 import org.yaml.snakeyaml.tokens.ValueToken;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to control the number of spaces before and after colons ({@code :}).
@@ -91,7 +93,8 @@ public class Colons extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
         if (token instanceof ValueToken && !(
@@ -99,7 +102,7 @@ public class Colons extends TokenRule {
                 token.getStartMark().getPointer() - prev.getEndMark().getPointer() == 1)) {
             LintProblem problem = spacesBefore(token, prev,
                     -1,
-                    (int)conf.get(OPTION_MAX_SPACES_BEFORE),
+                    opts.maxSpacesBefore,
                     null,
                     "too many spaces before colon");
             if (problem != null) {
@@ -108,7 +111,7 @@ public class Colons extends TokenRule {
 
             problem = spacesAfter(token, next,
                     -1,
-                    (int)conf.get(OPTION_MAX_SPACES_AFTER),
+                    opts.maxSpacesAfter,
                     null,
                     "too many spaces after colon");
             if (problem != null) {
@@ -119,7 +122,7 @@ public class Colons extends TokenRule {
         if (token instanceof KeyToken && isExplicitKey(token)) {
             LintProblem problem = spacesAfter(token, next,
                     -1,
-                    (int)conf.get(OPTION_MAX_SPACES_AFTER),
+                    opts.maxSpacesAfter,
                     null,
                     "too many spaces after question mark");
             if (problem != null) {
@@ -129,4 +132,29 @@ public class Colons extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.Key, Token.ID.Value);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final int maxSpacesBefore;
+        private final int maxSpacesAfter;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            maxSpacesBefore = (int)conf.get(OPTION_MAX_SPACES_BEFORE);
+            maxSpacesAfter = (int)conf.get(OPTION_MAX_SPACES_AFTER);
+        }
+    }
 }
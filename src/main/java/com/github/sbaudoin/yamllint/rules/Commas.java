@@ -20,8 +20,10 @@ import org.yaml.snakeyaml.tokens.FlowEntryToken;
 import org.yaml.snakeyaml.tokens.Token;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to control the number of spaces before and after commas ({@code ,}).
@@ -112,18 +114,19 @@ public class Commas extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
         if (token instanceof FlowEntryToken) {
-            if (prev != null && (int)conf.get(OPTION_MAX_SPACES_BEFORE) != -1 && prev.getEndMark().getLine() < token.getStartMark().getLine()) {
+            if (prev != null && opts.maxSpacesBefore != -1 && prev.getEndMark().getLine() < token.getStartMark().getLine()) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                         Math.max(1, token.getStartMark().getColumn()),
                         "too many spaces before comma"));
             } else {
                 LintProblem problem = spacesBefore(token, prev,
                         -1,
-                        (int)conf.get(OPTION_MAX_SPACES_BEFORE),
+                        opts.maxSpacesBefore,
                         null,
                         "too many spaces before comma");
                 if (problem != null) {
@@ -132,8 +135,8 @@ public class Commas extends TokenRule {
             }
 
             LintProblem problem = spacesAfter(token, next,
-                    (int)conf.get(OPTION_MIN_SPACES_AFTER),
-                    (int)conf.get(OPTION_MAX_SPACES_AFTER),
+                    opts.minSpacesAfter,
+                    opts.maxSpacesAfter,
                     "too few spaces after comma",
                     "too many spaces after comma");
             if (problem != null) {
@@ -143,4 +146,31 @@ public class Commas extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.FlowEntry);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final int maxSpacesBefore;
+        private final int minSpacesAfter;
+        private final int maxSpacesAfter;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            maxSpacesBefore = (int)conf.get(OPTION_MAX_SPACES_BEFORE);
+            minSpacesAfter = (int)conf.get(OPTION_MIN_SPACES_AFTER);
+            maxSpacesAfter = (int)conf.get(OPTION_MAX_SPACES_AFTER);
+        }
+    }
 }
@@ -25,14 +25,39 @@ import java.util.Map;
  * Class that represents rules related to comments ({@code # ...})
  */
 public abstract class CommentRule extends Rule {
+    private final boolean mapCheck = overrides(CommentRule.class, "check", Map.class, Parser.Comment.class);
+
+
     /**
-     * Checks the passed comment token and returns a list (possibly empty, but never {@code null})
+     * Checks the passed comment token and returns a list (possibly empty, but never {@code null}). This method is
+     * kept for the rules written against the configuration map: its default implementation compiles the
+     * configuration with {@link #compileOptions(Map)} and calls {@link #check(RuleOptions, Parser.Comment)}. A rule
+     * must override either this method or the latter.
      *
      * @param conf the rule configuration
      * @param comment the comment token to check
      * @return the problems found on this comment. If no problem is found, the list is empty, never {@code null}
      */
-    public abstract List<LintProblem> check(Map<Object, Object> conf, Parser.Comment comment);
+    public List<LintProblem> check(Map<Object, Object> conf, Parser.Comment comment) {
+        return check(compileOptions(conf), comment);
+    }
+
+    /**
+     * Checks the passed comment token and returns a list (possibly empty, but never {@code null}). This is the
+     * method called by the linter. Its default implementation calls {@link #check(Map, Parser.Comment)} with the
+     * configuration the options were compiled from, for the rules that override the latter.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @param comment the comment token to check
+     * @return the problems found on this comment. If no problem is found, the list is empty, never {@code null}
+     * @throws UnsupportedOperationException if the rule overrides none of the <code>check</code> methods
+     */
+    public List<LintProblem> check(RuleOptions options, Parser.Comment comment) {
+        if (!mapCheck) {
+            throw new UnsupportedOperationException("Rule " + getId() + " does not implement any check method");
+        }
+        return check(options.asMap(), comment);
+    }
 
     @Override
     public TYPE getType() {
@@ -84,21 +84,22 @@ public class Comments extends CommentRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Comment comment) {
+    public List<LintProblem> check(RuleOptions options, Parser.Comment comment) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
-        if (((int)conf.get(OPTION_MIN_SPACES_FROM_CONTENT)) != -1 && comment.isInline() &&
-                comment.getPointer() - comment.getTokenBefore().getEndMark().getPointer() < (int)conf.get(OPTION_MIN_SPACES_FROM_CONTENT)) {
+        if (opts.minSpacesFromContent != -1 && comment.isInline() &&
+                comment.getPointer() - comment.getTokenBefore().getEndMark().getPointer() < opts.minSpacesFromContent) {
             problems.add(new LintProblem(comment.getLineNo(), comment.getColumnNo(), "too few spaces before comment"));
         }
 
-        if ((boolean)conf.get(OPTION_REQUIRE_STARTING_SPACE)) {
+        if (opts.requireStartingSpace) {
             int textStart = comment.getPointer() + 1;
             while (textStart < comment.getBuffer().length() && comment.getBuffer().charAt(textStart) == '#') {
                 textStart += 1;
             }
             if (textStart < comment.getBuffer().length()) {
-                if ((boolean)conf.get(OPTION_IGNORE_SHEBANG) &&
+                if (opts.ignoreShebang &&
                         comment.getLineNo() == 1 && comment.getColumnNo() == 1 &&
                         comment.getBuffer().charAt(textStart) == '!') {
                     return problems;
@@ -112,4 +113,26 @@ public class Comments extends CommentRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean requireStartingSpace;
+        private final boolean ignoreShebang;
+        private final int minSpacesFromContent;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            requireStartingSpace = (boolean)conf.get(OPTION_REQUIRE_STARTING_SPACE);
+            ignoreShebang = (boolean)conf.get(OPTION_IGNORE_SHEBANG);
+            minSpacesFromContent = (int)conf.get(OPTION_MIN_SPACES_FROM_CONTENT);
+        }
+    }
 }
@@ -22,7 +22,6 @@ import org.yaml.snakeyaml.tokens.StreamStartToken;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Use this rule to force comments to be indented like content.
@@ -77,7 +76,7 @@ import java.util.Map;
  */
 public class CommentsIndentation extends CommentRule {
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Comment comment) {
+    public List<LintProblem> check(RuleOptions options, Parser.Comment comment) {
         List<LintProblem> problems = new ArrayList<>();
 
         // Only check block comments
@@ -19,8 +19,10 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.*;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to require or forbid the use of document end marker ({@code ...}).
@@ -89,10 +91,11 @@ public class DocumentEnd extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
-        if ((boolean)conf.get(OPTION_PRESENT)) {
+        if (opts.present) {
             if (token instanceof StreamEndToken && !(prev instanceof DocumentEndToken || prev instanceof StreamStartToken)) {
                 problems.add(new LintProblem(token.getStartMark().getLine(), 1,
                         "missing document end \"...\""));
@@ -110,4 +113,27 @@ public class DocumentEnd extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return ((Options)options).present ? EnumSet.of(Token.ID.StreamEnd, Token.ID.DocumentStart) : EnumSet.of(Token.ID.DocumentEnd);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean present;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            present = (boolean)conf.get(OPTION_PRESENT);
+        }
+    }
 }
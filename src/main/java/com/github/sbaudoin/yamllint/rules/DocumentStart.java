@@ -80,10 +80,11 @@ public class DocumentStart extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
-        if ((boolean)conf.get(OPTION_PRESENT)) {
+        if (opts.present) {
             if ((prev instanceof StreamStartToken || prev instanceof DocumentEndToken || prev instanceof  DirectiveToken) &&
                     !(token instanceof DocumentStartToken || token instanceof DirectiveToken || token instanceof StreamEndToken)) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1, 1,
@@ -99,4 +100,22 @@ public class DocumentStart extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean present;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            present = (boolean)conf.get(OPTION_PRESENT);
+        }
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.github.sbaudoin.yamllint.rules;
 
+import com.github.sbaudoin.yamllint.LineIndex;
 import com.github.sbaudoin.yamllint.LintProblem;
 import com.github.sbaudoin.yamllint.Parser;
 
@@ -82,9 +83,62 @@ public class EmptyLines extends LineRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+    public List<LintProblem> check(RuleOptions options, Parser.Line line) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
+        LineIndex index = line.getIndex();
+        if (index == null || index.hasMixedLineBreaks()) {
+            return checkBackwards(opts, line);
+        }
+
+        int lineNo = index.getLineNo(line.getStart());
+        int last = index.getLineCount();
+        if (index.isBlank(lineNo) && lineNo < last) {
+            // Only alert on the last blank line of a series
+            if (lineNo + 1 < last && index.isBlank(lineNo + 1)) {
+                return problems;
+            }
+
+            int blankLines = index.getBlankRun(lineNo);
+            int max = opts.max;
+
+            // Special case: start of document
+            if (blankLines == lineNo) {
+                max = opts.maxStart;
+            }
+
+            // Special case: end of document
+            // NOTE: The last line of a file is always supposed to end with a new
+            // line. See POSIX definition of a line at:
+            if (lineNo + 1 == last && index.isBlank(last)) {
+                // Allow the exception of the one - byte file containing '\n'
+                if (line.getEnd() == 0) {
+                    return problems;
+                }
+
+                max = opts.maxEnd;
+            }
+
+            if (blankLines > max) {
+                problems.add(new LintProblem(line.getLineNo(), 1, "too many blank lines (" + blankLines + " > " + max + ")"));
+            }
+        }
+
+        return problems;
+    }
+
+    /**
+     * Checks a line that does not share the index of the lines of its content, or a line of a content that mixes
+     * <code>\n</code> and <code>\r\n</code> line breaks. The blank lines are counted by reading the line breaks
+     * backwards from the line.
+     *
+     * @param opts the rule options
+     * @param line the line to be checked
+     * @return a list of problems, possibly empty
+     */
+    private List<LintProblem> checkBackwards(Options opts, Parser.Line line) {
+        List<LintProblem> problems = new ArrayList<>();
         if (line.getStart() == line.getEnd() && line.getEnd() < line.getBuffer().length()) {
             // Only alert on the last blank line of a series
             if ((line.getEnd() + 2 <= line.getBuffer().length() &&
@@ -106,12 +160,12 @@ public class EmptyLines extends LineRule {
                 start -= 1;
             }
 
-            int max = (int)conf.get(OPTION_MAX);
+            int max = opts.max;
 
             // Special case:start of document
             if (start == 0) {
                 blankLines += 1;  // first line doesn't have a preceding \n
-                max = (int)conf.get(OPTION_MAX_START);
+                max = opts.maxStart;
             }
 
             // Special case: end of document
@@ -126,7 +180,7 @@ public class EmptyLines extends LineRule {
                     return problems;
                 }
 
-                max = (int)conf.get(OPTION_MAX_END);
+                max = opts.maxEnd;
             }
 
             if (blankLines > max) {
@@ -136,4 +190,26 @@ public class EmptyLines extends LineRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final int max;
+        private final int maxStart;
+        private final int maxEnd;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            max = (int)conf.get(OPTION_MAX);
+            maxStart = (int)conf.get(OPTION_MAX_START);
+            maxEnd = (int)conf.get(OPTION_MAX_END);
+        }
+    }
 }
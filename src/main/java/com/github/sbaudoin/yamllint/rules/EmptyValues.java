@@ -19,8 +19,10 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.*;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to prevent nodes with empty content, that implicitly result in {@code null} values.
@@ -115,10 +117,11 @@ public class EmptyValues extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
-        if ((boolean)conf.get(OPTION_FORBID_IN_BLOCK_MAPPINGS)) {
+        if (opts.forbidInBlockMappings) {
             if (token instanceof ValueToken && (next instanceof KeyToken || next instanceof BlockEndToken)) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                         token.getEndMark().getColumn() + 1,
@@ -126,7 +129,7 @@ public class EmptyValues extends TokenRule {
             }
         }
 
-        if ((boolean)conf.get(OPTION_FORBID_IN_FLOW_MAPPINGS)) {
+        if (opts.forbidInFlowMappings) {
             if (token instanceof ValueToken && (next instanceof FlowEntryToken || next instanceof FlowMappingEndToken)) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                         token.getEndMark().getColumn() + 1,
@@ -134,7 +137,7 @@ public class EmptyValues extends TokenRule {
             }
         }
 
-        if ((boolean)conf.get(OPTION_FORBID_IN_BLOCK_SEQUENCES)) {
+        if (opts.forbidInBlockSequences) {
             if (token instanceof BlockEntryToken && (next instanceof KeyToken || next instanceof BlockEndToken || next instanceof BlockEntryToken)) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                         token.getEndMark().getColumn() + 1,
@@ -144,4 +147,31 @@ public class EmptyValues extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.Value, Token.ID.BlockEntry);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean forbidInBlockMappings;
+        private final boolean forbidInFlowMappings;
+        private final boolean forbidInBlockSequences;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            forbidInBlockMappings = (boolean)conf.get(OPTION_FORBID_IN_BLOCK_MAPPINGS);
+            forbidInFlowMappings = (boolean)conf.get(OPTION_FORBID_IN_FLOW_MAPPINGS);
+            forbidInBlockSequences = (boolean)conf.get(OPTION_FORBID_IN_BLOCK_SEQUENCES);
+        }
+    }
 }
@@ -19,8 +19,10 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.*;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to limit the permitted values for floating-point numbers.
@@ -115,7 +117,8 @@ public class FloatValues extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
         if (prev instanceof TagToken || !(token instanceof ScalarToken) || ((ScalarToken) token).getStyle().getChar() != null) {
@@ -123,26 +126,27 @@ public class FloatValues extends TokenRule {
         }
 
         String val = ((ScalarToken) token).getValue();
+        ScalarClassifier scalar = ScalarClassifier.classify(val);
 
-        if ((boolean)conf.get(OPTION_FORBID_NAN) && val.matches("(\\.nan|\\.NaN|\\.NAN)$")) {
+        if (opts.forbidNan && scalar.getYaml12Type() == ScalarClassifier.Type.NAN) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                     token.getStartMark().getColumn() + 1,
                     String.format("forbidden not a number value \"%s\"", val)));
         }
 
-        if ((boolean)conf.get(OPTION_FORBID_INF) && val.matches("[-+]?(\\.inf|\\.Inf|\\.INF)$")) {
+        if (opts.forbidInf && scalar.getYaml12Type() == ScalarClassifier.Type.INF) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                     token.getStartMark().getColumn() + 1,
                     String.format("forbidden infinite value \"%s\"", val)));
         }
 
-        if ((boolean)conf.get(OPTION_FORBID_SCIENTIFIC_NOTATION) && val.matches("[-+]?(\\.\\d+|\\d+(\\.\\d*)?)([eE][-+]?\\d+)$")) {
+        if (opts.forbidScientificNotation && scalar.getYaml12Type() == ScalarClassifier.Type.FLOAT && scalar.hasExponent()) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                     token.getStartMark().getColumn() + 1,
                     String.format("forbidden scientific notation \"%s\"", val)));
         }
 
-        if ((boolean)conf.get(OPTION_REQUIRE_NUMERAL_BEFORE_DECIMAL) && val.matches("[-+]?(\\.\\d+)([eE][-+]?\\d+)?$")) {
+        if (opts.requireNumeralBeforeDecimal && scalar.getYaml12Type() == ScalarClassifier.Type.FLOAT && scalar.hasLeadingDot()) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                     token.getStartMark().getColumn() + 1,
                     String.format("forbidden decimal missing 0 prefix \"%s\"", val)));
@@ -150,4 +154,33 @@ public class FloatValues extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.Scalar);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean forbidNan;
+        private final boolean forbidInf;
+        private final boolean forbidScientificNotation;
+        private final boolean requireNumeralBeforeDecimal;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            forbidNan = (boolean)conf.get(OPTION_FORBID_NAN);
+            forbidInf = (boolean)conf.get(OPTION_FORBID_INF);
+            forbidScientificNotation = (boolean)conf.get(OPTION_FORBID_SCIENTIFIC_NOTATION);
+            requireNumeralBeforeDecimal = (boolean)conf.get(OPTION_REQUIRE_NUMERAL_BEFORE_DECIMAL);
+        }
+    }
 }
@@ -19,8 +19,10 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.*;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to control the number of spaces after hyphens ({@code -}).
@@ -158,14 +160,15 @@ public class Hyphens extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
         if (token instanceof BlockEntryToken) {
-            if ((Integer)conf.get(OPTION_MAX_SPACES_AFTER) > 0) {
+            if (opts.maxSpacesAfter > 0) {
                 LintProblem problem = spacesAfter(token, next,
                         -1,
-                        (int) conf.get(OPTION_MAX_SPACES_AFTER),
+                        opts.maxSpacesAfter,
                         null,
                         "too many spaces after hyphen");
                 if (problem != null) {
@@ -173,9 +176,9 @@ public class Hyphens extends TokenRule {
                 }
             }
 
-            if ((Integer)conf.get(OPTION_MIN_SPACES_AFTER) > 0) {
+            if (opts.minSpacesAfter > 0) {
                 LintProblem problem = spacesAfter(token, next,
-                        (int) conf.get(OPTION_MIN_SPACES_AFTER),
+                        opts.minSpacesAfter,
                         -1,
                         "too few spaces after hyphen",
                         null);
@@ -185,7 +188,7 @@ public class Hyphens extends TokenRule {
             }
         }
 
-        if (Boolean.TRUE.equals(conf.get(OPTION_CHECK_SCALARS)) && (Integer)conf.get(OPTION_MIN_SPACES_AFTER) > 0 && token instanceof ScalarToken) {
+        if (opts.checkScalars && opts.minSpacesAfter > 0 && token instanceof ScalarToken) {
             // Token identified as a scalar so there is no space after the hyphen: no need to count
             if (((ScalarToken) token).getValue().startsWith("-")) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1,
@@ -195,4 +198,31 @@ public class Hyphens extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.BlockEntry, Token.ID.Scalar);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final int maxSpacesAfter;
+        private final int minSpacesAfter;
+        private final boolean checkScalars;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            maxSpacesAfter = (int)conf.get(OPTION_MAX_SPACES_AFTER);
+            minSpacesAfter = (int)conf.get(OPTION_MIN_SPACES_AFTER);
+            checkScalars = Boolean.TRUE.equals(conf.get(OPTION_CHECK_SCALARS));
+        }
+    }
 }
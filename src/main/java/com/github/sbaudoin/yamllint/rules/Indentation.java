@@ -223,10 +223,6 @@ public class Indentation extends TokenRule {
         VAL
     }
 
-    private static final String STACK_KEY = "stack";
-    private static final String CURRENT_LINE_KEY = "cur_line";
-    private static final String CURRENT_LINE_INDENT_KEY = "cur_line_indent";
-
     /**
      * Name of the "spaces" option
      */
@@ -255,11 +251,11 @@ public class Indentation extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
         List<LintProblem> problems = new ArrayList<>();
 
         try {
-            problems.addAll(checkToken(conf, token, prev, next, nextnext, context));
+            problems.addAll(checkToken((Options)options, token, prev, next, nextnext, (State)state));
         } catch (UnexpectedTokenException e) {
             problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                     token.getStartMark().getColumn() + 1,
@@ -269,16 +265,42 @@ public class Indentation extends TokenRule {
         return problems;
     }
 
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Object createState(RuleOptions options) {
+        State state = new State((Options)options);
+        state.stack.add(new Parent(LABEL.ROOT, 0));
+        return state;
+    }
+
+    /**
+     * The indentation found in a document does not depend on the documents before it, unless the indentation width
+     * or the indentation of the sequences is detected from the first indented block of the YAML content with the
+     * <code>consistent</code> value
+     *
+     * @param options the rule options
+     * @return <code>true</code> if none of the options is <code>consistent</code>
+     */
+    @Override
+    public boolean isDocumentScoped(RuleOptions options) {
+        Options opts = (Options)options;
+        return !OPTION_CONSISTENT.equals(opts.spaces) && !OPTION_CONSISTENT.equals(opts.indentSequences);
+    }
+
 
-    private int detectIndent(int baseIndent, int foundIndent, Map<String, Object> context) {
-        if (!(context.get(OPTION_SPACES) instanceof Integer)) {
-            context.put(OPTION_SPACES, foundIndent - baseIndent);
+    private int detectIndent(int baseIndent, int foundIndent, State state) {
+        if (!state.spacesDetected) {
+            state.spaces = foundIndent - baseIndent;
+            state.spacesDetected = true;
         }
-        return baseIndent + (int)context.get(OPTION_SPACES);
+        return baseIndent + state.spaces;
     }
 
-    @SuppressWarnings("unchecked")
-    private int computeExpectedIndent(int foundIndent, Token token, Map<String, Object> context) {
+    private int computeExpectedIndent(int foundIndent, Token token, State state) {
         Boolean plain = (Boolean)invokeSimpleMethod(token, "getPlain");
         DumperOptions.ScalarStyle style = (DumperOptions.ScalarStyle)invokeSimpleMethod(token, "getStyle");
 
@@ -287,12 +309,12 @@ public class Indentation extends TokenRule {
         } else if (style != null && (style.getChar() == '"' || style.getChar() == '\'')) {
             return token.getStartMark().getColumn() + 1;
         } else if (style != null && (style.getChar() == '>' || style.getChar() == '|')) {
-            List<Parent> stack = (List<Parent>)context.get(STACK_KEY);
+            List<Parent> stack = state.stack;
             if (stack.get(stack.size() - 1).type == LABEL.B_ENT) {
                 // - >
                 // multi
                 // line
-                return detectIndent(token.getStartMark().getColumn(), foundIndent, context);
+                return detectIndent(token.getStartMark().getColumn(), foundIndent, state);
             } else if (stack.get(stack.size() - 1).type == LABEL.KEY) {
                 if (!stack.get(stack.size() - 1).explicitKey) {
                     throw new UnexpectedTokenException();
@@ -304,28 +326,28 @@ public class Indentation extends TokenRule {
                 //   : >
                 //       multi - line
                 //       value
-                return detectIndent(token.getStartMark().getColumn(), foundIndent, context);
+                return detectIndent(token.getStartMark().getColumn(), foundIndent, state);
             } else if (stack.get(stack.size() - 1).type == LABEL.VAL) {
-                if (token.getStartMark().getLine() + 1 > (int)context.get(CURRENT_LINE_KEY)) {
+                if (token.getStartMark().getLine() + 1 > state.currentLine) {
                     // - key:
                     //     >
                     //       multi
                     //       line
-                    return detectIndent(stack.get(stack.size() - 1).indent, foundIndent, context);
+                    return detectIndent(stack.get(stack.size() - 1).indent, foundIndent, state);
                 } else if(stack.get(stack.size() - 2).explicitKey) {
                     // - ? key
                     //   : >
                     //       multi - line
                     //       value
-                    return detectIndent(token.getStartMark().getColumn(), foundIndent, context);
+                    return detectIndent(token.getStartMark().getColumn(), foundIndent, state);
                 } else {
                     // - key: >
                     //     multi
                     //     line
-                    return detectIndent(stack.get(stack.size() - 2).indent, foundIndent, context);
+                    return detectIndent(stack.get(stack.size() - 2).indent, foundIndent, state);
                 }
             } else {
-                return detectIndent(stack.get(stack.size() - 1).indent, foundIndent, context);
+                return detectIndent(stack.get(stack.size() - 1).indent, foundIndent, state);
             }
         }
 
@@ -341,7 +363,7 @@ public class Indentation extends TokenRule {
         }
     }
 
-    private List<LintProblem> checkScalarIndentation(Token token, Map<String, Object> context) {
+    private List<LintProblem> checkScalarIndentation(Token token, State state) {
         List<LintProblem> problems = new ArrayList<>();
 
         if (token.getStartMark().getLine() == token.getEndMark().getLine()) {
@@ -369,7 +391,7 @@ public class Indentation extends TokenRule {
             }
 
             if (expectedIndent == -1) {
-                expectedIndent = computeExpectedIndent(indent, token, context);
+                expectedIndent = computeExpectedIndent(indent, token, state);
             }
 
             if (indent != expectedIndent) {
@@ -381,17 +403,10 @@ public class Indentation extends TokenRule {
         return problems;
     }
 
-    private List<LintProblem> checkToken(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    private List<LintProblem> checkToken(Options opts, Token token, Token prev, Token next, Token nextnext, State state) {
         List<LintProblem> problems = new ArrayList<>();
 
-        if (!context.containsKey(STACK_KEY)) {
-            context.put(STACK_KEY, new ArrayList<>(Arrays.asList(new Parent(LABEL.ROOT, 0))));
-            context.put(CURRENT_LINE_KEY, -1);
-            context.put(OPTION_SPACES, conf.get(OPTION_SPACES));
-            context.put(OPTION_INDENT_SEQUENCES, conf.get(OPTION_INDENT_SEQUENCES));
-        }
-
-        List<Parent> stack = (List<Parent>)context.get(STACK_KEY);
+        List<Parent> stack = state.stack;
 
         // Step 1: Lint
 
@@ -400,22 +415,22 @@ public class Indentation extends TokenRule {
                 !(token instanceof ScalarToken &&
                 "".equals(invokeSimpleMethod(token, "getValue")));
         boolean firstInLine = (isVisible &&
-                token.getStartMark().getLine() + 1 > (int)context.get(CURRENT_LINE_KEY));
+                token.getStartMark().getLine() + 1 > state.currentLine);
 
-        Integer foundIndentation = null;
+        int foundIndentation = -1;
         if (firstInLine) {
             foundIndentation = token.getStartMark().getColumn();
-            Integer expected = stack.get(stack.size() - 1).indent;
+            int expected = stack.get(stack.size() - 1).indent;
 
             if (token instanceof FlowMappingEndToken || token instanceof FlowSequenceEndToken) {
                 expected = stack.get(stack.size() - 1).lineIndent;
             } else if (stack.get(stack.size() - 1).type == LABEL.KEY &&
                     stack.get(stack.size() - 1).explicitKey &&
                     !(token instanceof org.yaml.snakeyaml.tokens.ValueToken)) {
-                expected = detectIndent(expected, token, context);
+                expected = detectIndent(expected, token, state);
             }
 
-            if (!foundIndentation.equals(expected)) {
+            if (foundIndentation != expected) {
                 String message;
                 if (expected < 0) {
                     message = String.format("wrong indentation: expected at least %d", foundIndentation + 1);
@@ -426,22 +441,22 @@ public class Indentation extends TokenRule {
             }
         }
 
-        if (token instanceof org.yaml.snakeyaml.tokens.ScalarToken && (boolean)conf.get(OPTION_CHECK_MULTI_LINE_STRINGS)) {
-            problems.addAll(checkScalarIndentation(token, context));
+        if (token instanceof org.yaml.snakeyaml.tokens.ScalarToken && opts.checkMultiLineStrings) {
+            problems.addAll(checkScalarIndentation(token, state));
         }
 
         // Step 2. a:
 
         if (isVisible) {
-            context.put(CURRENT_LINE_KEY, getRealEndLine(token));
+            state.currentLine = getRealEndLine(token);
             if (firstInLine) {
-                context.put(CURRENT_LINE_INDENT_KEY, foundIndentation);
+                state.currentLineIndent = foundIndentation;
             }
         }
 
         // Step 2. b: Update state
 
-        Integer indent = null;
+        int indent;
         if (token instanceof BlockMappingStartToken) {
             //   - a: 1
             // or
@@ -467,10 +482,10 @@ public class Indentation extends TokenRule {
                 //   - {
                 //     a: 1, b: 2
                 //   }
-                indent = detectIndent((int)context.get(CURRENT_LINE_INDENT_KEY), next, context);
+                indent = detectIndent(state.currentLineIndent, next, state);
             }
 
-            stack.add(new Parent(LABEL.F_MAP, indent, (int)context.get(CURRENT_LINE_INDENT_KEY)));
+            stack.add(new Parent(LABEL.F_MAP, indent, state.currentLineIndent));
 
         } else if (token instanceof BlockSequenceStartToken) {
             //   - - a
@@ -507,7 +522,7 @@ public class Indentation extends TokenRule {
                 //   -
                 //     key:
                 //       value
-                indent = detectIndent(token.getStartMark().getColumn(), next, context);
+                indent = detectIndent(token.getStartMark().getColumn(), next, state);
             }
 
             stack.add(new Parent(LABEL.B_ENT, indent));
@@ -520,10 +535,10 @@ public class Indentation extends TokenRule {
                 //   - [
                 //   a, b
                 // ]
-                indent = detectIndent((int)context.get(CURRENT_LINE_INDENT_KEY), next, context);
+                indent = detectIndent(state.currentLineIndent, next, state);
             }
 
-            stack.add(new Parent(LABEL.F_SEQ, indent,(int)context.get(CURRENT_LINE_INDENT_KEY)));
+            stack.add(new Parent(LABEL.F_SEQ, indent,state.currentLineIndent));
 
         } else if (token instanceof KeyToken) {
             indent = stack.get(stack.size() - 1).indent;
@@ -560,7 +575,7 @@ public class Indentation extends TokenRule {
                     //   ? k
                     //   :
                     //     value
-                    indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
+                    indent = detectIndent(stack.get(stack.size() - 1).indent, next, state);
                 } else if (next.getStartMark().getLine() == prev.getStartMark().getLine()) {
                     //   k: value
                     indent = next.getStartMark().getColumn();
@@ -570,10 +585,10 @@ public class Indentation extends TokenRule {
                     //  yaml.scan()ning this:
                     //      '- lib:\n'
                     //      '  - var\n'
-                    if (context.get(OPTION_INDENT_SEQUENCES) instanceof Boolean && !(boolean)context.get(OPTION_INDENT_SEQUENCES)) {
+                    if (Boolean.FALSE.equals(state.indentSequences)) {
                         indent = stack.get(stack.size() - 1).indent;
-                    } else if (context.get(OPTION_INDENT_SEQUENCES) instanceof Boolean && (boolean)context.get(OPTION_INDENT_SEQUENCES)) {
-                        if (OPTION_CONSISTENT.equals(context.get(OPTION_SPACES)) && next.getStartMark().getColumn() - stack.get(stack.size() - 1).indent == 0) {
+                    } else if (Boolean.TRUE.equals(state.indentSequences)) {
+                        if (!state.spacesDetected && next.getStartMark().getColumn() - stack.get(stack.size() - 1).indent == 0) {
                             //In this case, the block sequence item is not indented
                             // (while it should be), but we don't know yet the
                             // indentation it should have (because `spaces` is
@@ -582,31 +597,31 @@ public class Indentation extends TokenRule {
                             // So we choose an unknown value (-1).
                             indent = -1;
                         } else {
-                            indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
+                            indent = detectIndent(stack.get(stack.size() - 1).indent, next, state);
                         }
                     } else {  // 'whatever' or 'consistent'
                         if (next.getStartMark().getColumn() == stack.get(stack.size() - 1).indent) {
                             //   key:
                             //   - e1
                             //   - e2
-                            if (OPTION_CONSISTENT.equals(context.get(OPTION_INDENT_SEQUENCES))) {
-                                context.put(OPTION_INDENT_SEQUENCES, false);
+                            if (OPTION_CONSISTENT.equals(state.indentSequences)) {
+                                state.indentSequences = false;
                             }
                             indent = stack.get(stack.size() - 1).indent;
                         } else {
-                            if (OPTION_CONSISTENT.equals(context.get(OPTION_INDENT_SEQUENCES))) {
-                                context.put(OPTION_INDENT_SEQUENCES, true);
+                            if (OPTION_CONSISTENT.equals(state.indentSequences)) {
+                                state.indentSequences = true;
                             }
                             //   key:
                             //     - e1
                             //     - e2
-                            indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
+                            indent = detectIndent(stack.get(stack.size() - 1).indent, next, state);
                         }
                     }
                 } else {
                     //   k:
                     //     value
-                    indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
+                    indent = detectIndent(stack.get(stack.size() - 1).indent, next, state);
                 }
 
                 stack.add(new Parent(LABEL.VAL, indent));
@@ -667,12 +682,13 @@ public class Indentation extends TokenRule {
         return problems;
     }
 
-    private int detectIndent(int baseIndent, Token next, Map<String, Object> context) {
-        if (!(context.get(OPTION_SPACES) instanceof Integer)) {
-            context.put(OPTION_SPACES, next.getStartMark().getColumn() - baseIndent);
+    private int detectIndent(int baseIndent, Token next, State state) {
+        if (!state.spacesDetected) {
+            state.spaces = next.getStartMark().getColumn() - baseIndent;
+            state.spacesDetected = true;
         }
 
-        return baseIndent + (int)context.get(OPTION_SPACES);
+        return baseIndent + state.spaces;
     }
 
 
@@ -681,8 +697,8 @@ public class Indentation extends TokenRule {
      */
     public class Parent {
         private LABEL type;
-        private Integer indent;
-        private Integer lineIndent;
+        private int indent;
+        private int lineIndent;
         private boolean explicitKey;
         private boolean implicitBlockSeq;
 
@@ -693,7 +709,7 @@ public class Indentation extends TokenRule {
          * @param indent the indentation of this parent token
          */
         public Parent(LABEL type, int indent) {
-            this(type, indent, null);
+            this(type, indent, -1);
         }
 
         /**
@@ -701,9 +717,9 @@ public class Indentation extends TokenRule {
          *
          * @param type the type of parent token
          * @param indent the indentation of this parent token
-         * @param lineIndent the line number of this parent token
+         * @param lineIndent the indentation of the line of this parent token
          */
-        public Parent(LABEL type, int indent, Integer lineIndent) {
+        public Parent(LABEL type, int indent, int lineIndent) {
             this.type = type;
             this.indent = indent;
             this.lineIndent = lineIndent;
@@ -718,6 +734,61 @@ public class Indentation extends TokenRule {
     }
 
 
+    /**
+     * State of the rule while checking the tokens of a YAML content
+     */
+    static class State {
+        /**
+         * Stack of the parents of the current token
+         */
+        final List<Parent> stack = new ArrayList<>();
+        /**
+         * Line (1-based) on which the last visible token ended
+         */
+        int currentLine = -1;
+        /**
+         * Indentation of the line of the last visible token
+         */
+        int currentLineIndent = 0;
+        /**
+         * Indentation width, set or detected
+         */
+        int spaces;
+        /**
+         * Tells if the indentation width is known: <code>false</code> as long as it has not been detected for the
+         * <code>consistent</code> option
+         */
+        boolean spacesDetected;
+        /**
+         * Value of the <code>indent-sequences</code> option, possibly set to a boolean once detected for the
+         * <code>consistent</code> option
+         */
+        Object indentSequences;
+
+        State(Options opts) {
+            spacesDetected = opts.spaces instanceof Integer;
+            spaces = spacesDetected ? (int)opts.spaces : 0;
+            indentSequences = opts.indentSequences;
+        }
+    }
+
     private class UnexpectedTokenException extends RuntimeException {
     }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final Object spaces;
+        private final Object indentSequences;
+        private final boolean checkMultiLineStrings;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            spaces = conf.get(OPTION_SPACES);
+            indentSequences = conf.get(OPTION_INDENT_SEQUENCES);
+            checkMultiLineStrings = (boolean)conf.get(OPTION_CHECK_MULTI_LINE_STRINGS);
+        }
+    }
 }
@@ -20,7 +20,6 @@ import org.yaml.snakeyaml.tokens.ScalarToken;
 import org.yaml.snakeyaml.tokens.Token;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -57,15 +56,14 @@ import java.util.Optional;
  */
 public class KeyDuplicates extends KeyRule {
     @Override
-    protected Optional<LintProblem> checkKey(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context, final List<Parent> stack) {
-        if (stack.get(stack.size() - 1).keys.contains(((ScalarToken)next).getValue()) &&
+    protected Optional<LintProblem> checkKey(RuleOptions options, Token token, Token prev, Token next, Token nextnext, final List<Parent> stack) {
+        ScalarToken key = (ScalarToken)next;
+        if (stack.get(stack.size() - 1).addKey(key) != null &&
                 // `<<` is "merge key", see http://yaml.org/type/merge.html
-                !"<<".equals(((ScalarToken)next).getValue())) {
-            return Optional.of(new LintProblem(next.getStartMark().getLine() + 1, next.getStartMark().getColumn() + 1,
-                    "duplication of key '" + ((ScalarToken)next).getValue() + "' in mapping"));
-        } else {
-            stack.get(stack.size() - 1).keys.add(((ScalarToken)next).getValue());
-            return Optional.empty();
+                !"<<".equals(key.getValue())) {
+            return Optional.of(new LintProblem(key.getStartMark().getLine() + 1, key.getStartMark().getColumn() + 1,
+                    "duplication of key '" + key.getValue() + "' in mapping"));
         }
+        return Optional.empty();
     }
 }
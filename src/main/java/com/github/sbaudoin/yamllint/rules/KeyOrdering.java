@@ -19,14 +19,26 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.ScalarToken;
 import org.yaml.snakeyaml.tokens.Token;
 
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
 /**
- * Use this rule to enforce alphabetical ordering of keys in mappings. The sorting
+ * Use this rule to enforce alphabetical ordering of keys in mappings. By default, the sorting
  * order uses the Unicode code point number. As a result, the ordering is
  * case-sensitive and not accent-friendly (see examples below).
+ * <p>Options:</p>
+ * <ul>
+ *     <li>{@code ordering} defines how keys are compared: {@code code-point} (default), {@code case-insensitive},
+ *         {@code natural} (sequences of digits are compared by numeric value, so that {@code key2} comes before
+ *         {@code key10}) or {@code locale} (keys are compared with the collation rules of a language).</li>
+ *     <li>{@code locale} is the language tag of the collation rules used with {@code ordering: locale}, such as
+ *         {@code fr-FR}. Defaults to the default locale of the JVM.</li>
+ * </ul>
  *
  * <p>Examples:</p>
  * <p>With <code>key-ordering: {}</code>
@@ -64,16 +76,164 @@ import java.util.Optional;
  *     - haïr: true
  *       hais: true
  * </pre>
+ * <p>With <code>key-ordering: {ordering: natural}</code>
+ * the following code snippet would **PASS**:
+ * <pre>
+ *     - key2: v
+ *       key10: val
+ * </pre>
+ * <p>With <code>key-ordering: {ordering: locale, locale: fr-FR}</code>
+ * the following code snippet would **PASS**:
+ * <pre>
+ *     - hair: true
+ *       haïr: true
+ *       hais: true
+ * </pre>
  */
 public class KeyOrdering extends KeyRule {
+    /**
+     * Name of the "ordering" option
+     */
+    public static final String OPTION_ORDERING           = "ordering";
+    /**
+     * Name of the "locale" option
+     */
+    public static final String OPTION_LOCALE             = "locale";
+    /**
+     * Name of the "code-point" option value
+     */
+    public static final String ORDERING_CODE_POINT       = "code-point";
+    /**
+     * Name of the "case-insensitive" option value
+     */
+    public static final String ORDERING_CASE_INSENSITIVE = "case-insensitive";
+    /**
+     * Name of the "natural" option value
+     */
+    public static final String ORDERING_NATURAL          = "natural";
+    /**
+     * Name of the "locale" option value
+     */
+    public static final String ORDERING_LOCALE           = "locale";
+
+
+    /**
+     * Constructor. Sets default values to rule options.
+     */
+    public KeyOrdering() {
+        registerOption(OPTION_ORDERING, Arrays.asList(ORDERING_CODE_POINT, ORDERING_CASE_INSENSITIVE, ORDERING_NATURAL, ORDERING_LOCALE));
+        registerOption(OPTION_LOCALE, "");
+    }
+
     @Override
-    protected Optional<LintProblem> checkKey(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context, final List<Parent> stack) {
-        if (stack.get(stack.size() - 1).keys.stream().anyMatch(key -> key.compareTo(((ScalarToken)next).getValue()) > 0)) {
+    public String validate(Map<String, Object> conf) {
+        if (!"".equals(conf.get(OPTION_LOCALE)) && !ORDERING_LOCALE.equals(conf.get(OPTION_ORDERING))) {
+            return "\"locale\" can only be used with \"ordering: locale\"";
+        }
+        return null;
+    }
+
+    @Override
+    protected Optional<LintProblem> checkKey(RuleOptions options, Token token, Token prev, Token next, Token nextnext, final List<Parent> stack) {
+        Parent parent = stack.get(stack.size() - 1);
+        String key = ((ScalarToken)next).getValue();
+        // The keys met so far that are in order are all lower than or equal to the last one
+        if (parent.maxKey != null && ((Options)options).comparator.compare(parent.maxKey, key) > 0) {
             return Optional.of(new LintProblem(next.getStartMark().getLine() + 1, next.getStartMark().getColumn() + 1,
-                    "wrong ordering of key " + ((ScalarToken)next).getValue() + " in mapping"));
-        } else {
-            stack.get(stack.size() - 1).keys.add(((ScalarToken)next).getValue());
-            return Optional.empty();
+                    "wrong ordering of key " + key + " in mapping"));
+        }
+        parent.maxKey = key;
+        return Optional.empty();
+    }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+
+    /**
+     * Compares two strings, comparing the sequences of ASCII digits they contain by numeric value
+     *
+     * @param s1 a first string
+     * @param s2 a second string
+     * @return a negative integer, zero, or a positive integer as the first string is less than, equal to, or greater
+     * than the second one
+     */
+    static int compareNatural(String s1, String s2) {
+        int i = 0;
+        int j = 0;
+        while (i < s1.length() && j < s2.length()) {
+            char c1 = s1.charAt(i);
+            char c2 = s2.charAt(j);
+            if (isDigit(c1) && isDigit(c2)) {
+                // Skip the leading zeros: the longest number is then the greatest
+                while (i < s1.length() && s1.charAt(i) == '0') {
+                    i++;
+                }
+                while (j < s2.length() && s2.charAt(j) == '0') {
+                    j++;
+                }
+                int end1 = i;
+                while (end1 < s1.length() && isDigit(s1.charAt(end1))) {
+                    end1++;
+                }
+                int end2 = j;
+                while (end2 < s2.length() && isDigit(s2.charAt(end2))) {
+                    end2++;
+                }
+                if (end1 - i != end2 - j) {
+                    return (end1 - i) - (end2 - j);
+                }
+                for (; i < end1; i++, j++) {
+                    if (s1.charAt(i) != s2.charAt(j)) {
+                        return s1.charAt(i) - s2.charAt(j);
+                    }
+                }
+            } else if (c1 != c2) {
+                return c1 - c2;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return (s1.length() - i) - (s2.length() - j);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        /**
+         * Comparator of the keys. Collators are not thread-safe: the collator of the locale is created once and
+         * cloned for each thread.
+         */
+        private final Comparator<String> comparator;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            switch ((String)conf.get(OPTION_ORDERING)) {
+                case ORDERING_CASE_INSENSITIVE:
+                    comparator = String.CASE_INSENSITIVE_ORDER;
+                    break;
+                case ORDERING_NATURAL:
+                    comparator = KeyOrdering::compareNatural;
+                    break;
+                case ORDERING_LOCALE:
+                    String locale = (String)conf.get(OPTION_LOCALE);
+                    Collator collator = Collator.getInstance("".equals(locale) ? Locale.getDefault() : Locale.forLanguageTag(locale));
+                    ThreadLocal<Collator> collators = ThreadLocal.withInitial(() -> (Collator)collator.clone());
+                    comparator = (key1, key2) -> collators.get().compare(key1, key2);
+                    break;
+                default:
+                    comparator = Comparator.naturalOrder();
+                    break;
+            }
         }
     }
 }
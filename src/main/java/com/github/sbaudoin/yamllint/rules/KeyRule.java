@@ -19,25 +19,32 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.*;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Abstract rule used to factorize code for rules processing keys
  * ({@link KeyDuplicates} and {@link KeyOrdering})
  */
 public abstract class KeyRule extends TokenRule {
+    /**
+     * Key of the stack in the context map passed to {@link #checkKey(Map, Token, Token, Token, Token, Map, List)}
+     */
     private static final String STACK_KEY = "stack";
 
+    private final boolean mapCheckKey = overrides(KeyRule.class, "checkKey", Map.class, Token.class, Token.class, Token.class, Token.class, Map.class, List.class);
+
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
         List<LintProblem> problems = new ArrayList<>();
 
-        context.putIfAbsent(STACK_KEY, new ArrayList<Parent>());
-
-        List<Parent> stack = (List<Parent>)context.get(STACK_KEY);
+        State keyState = (State)state;
+        List<Parent> stack = keyState.stack;
 
         if (token instanceof BlockMappingStartToken || token instanceof FlowMappingStartToken) {
             stack.add(new Parent(TYPE.MAP));
@@ -51,16 +58,65 @@ public abstract class KeyRule extends TokenRule {
             // This check is done because KeyTokens can be found inside flow
             // sequences... strange, but allowed.
             if (!stack.isEmpty() && stack.get(stack.size() - 1).type == TYPE.MAP) {
-                checkKey(conf, token, prev, next, nextnext, context, stack).ifPresent(problems::add);
+                // The rules written against the configuration map keep their context map for the whole content
+                Optional<LintProblem> problem = mapCheckKey ?
+                        checkKey(options.asMap(), token, prev, next, nextnext, keyState.getContext(), stack) :
+                        checkKey(options, token, prev, next, nextnext, stack);
+                problem.ifPresent(problems::add);
             }
         }
 
         return problems;
     }
 
+    /**
+     * Returns the state of this rule, which holds the stack of the collections the current token is in
+     *
+     * @param options the rule options
+     * @return a new state with an empty stack
+     */
+    @Override
+    public Object createState(RuleOptions options) {
+        return new State();
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.BlockMappingStart, Token.ID.FlowMappingStart,
+                Token.ID.BlockSequenceStart, Token.ID.FlowSequenceStart,
+                Token.ID.BlockEnd, Token.ID.FlowMappingEnd, Token.ID.FlowSequenceEnd,
+                Token.ID.Key);
+    }
+
+
+    /**
+     * Method that does the actual check. A rule must override either this method or
+     * {@link #checkKey(Map, Token, Token, Token, Token, Map, List)}. The default implementation calls the latter with
+     * the configuration the options were compiled from and a context map that holds the stack.
+     *
+     * @param options the rule options
+     * @param token the token to be checked
+     * @param prev the previous token
+     * @param next the next token
+     * @param nextnext the next next token
+     * @param stack a list of all keys found in the YAML document
+     * @return the possible problem found during the check process
+     * @throws UnsupportedOperationException if the rule overrides none of the <code>checkKey</code> methods
+     */
+    protected Optional<LintProblem> checkKey(RuleOptions options, Token token, Token prev, Token next, Token nextnext, List<Parent> stack) {
+        if (!mapCheckKey) {
+            throw new UnsupportedOperationException("Rule " + getId() + " does not implement any checkKey method");
+        }
+        Map<String, Object> context = new HashMap<>();
+        context.put(STACK_KEY, stack);
+        return checkKey(options.asMap(), token, prev, next, nextnext, context, stack);
+    }
 
     /**
-     * Method that does the actual check
+     * Method that does the actual check, kept for the rules written against the configuration map. The linter calls
+     * it on the rules that override it, with a context map kept for the whole YAML content. Its default
+     * implementation compiles the configuration with {@link #compileOptions(Map)} and calls
+     * {@link #checkKey(RuleOptions, Token, Token, Token, Token, List)}.
      *
      * @param conf the rule configuration
      * @param token the token to be checked
@@ -70,18 +126,52 @@ public abstract class KeyRule extends TokenRule {
      * @param context a context map used to propagate info between rules
      * @param stack a list of all keys found in the YAML document
      * @return the possible problem found during the check process
+     * @deprecated override {@link #checkKey(RuleOptions, Token, Token, Token, Token, List)} instead
      */
-    protected abstract Optional<LintProblem> checkKey(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context, List<Parent> stack);
+    @Deprecated
+    protected Optional<LintProblem> checkKey(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context, List<Parent> stack) {
+        return checkKey(compileOptions(conf), token, prev, next, nextnext, stack);
+    }
 
 
     private enum TYPE { MAP, SEQ }
 
+    /**
+     * State of a key rule: the stack of the collections the current token is in and, for the rules written against
+     * the configuration map, their context map
+     */
+    private static class State {
+        final List<Parent> stack = new ArrayList<>();
+        private Map<String, Object> context;
+
+        /**
+         * Returns the context map, created on the first call with the stack in it
+         *
+         * @return the context map
+         */
+        Map<String, Object> getContext() {
+            if (context == null) {
+                context = new HashMap<>();
+                context.put(STACK_KEY, stack);
+            }
+            return context;
+        }
+    }
+
     /**
      * Wrapper class for the parent token
      */
     protected class Parent {
         TYPE type;
-        List<String> keys;
+        /**
+         * First occurrence of each key of the mapping, indexed by key value. It is created with the first key added,
+         * so never for a sequence.
+         */
+        Map<String, ScalarToken> keys;
+        /**
+         * Greatest key of the mapping met so far, {@code null} if none
+         */
+        String maxKey;
 
         /**
          * Constructor
@@ -90,7 +180,19 @@ public abstract class KeyRule extends TokenRule {
          */
         public Parent(TYPE type) {
             this.type = type;
-            this.keys = new ArrayList<>();
+        }
+
+        /**
+         * Adds a key to this mapping, unless a key with the same value has already been added
+         *
+         * @param key the scalar token of the key
+         * @return the first key with the same value if any, {@code null} otherwise
+         */
+        ScalarToken addKey(ScalarToken key) {
+            if (keys == null) {
+                keys = new HashMap<>();
+            }
+            return keys.putIfAbsent(key.getValue(), key);
         }
     }
 }
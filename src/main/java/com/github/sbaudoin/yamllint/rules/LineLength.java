@@ -117,13 +117,12 @@ public class LineLength extends LineRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+    public List<LintProblem> check(RuleOptions options, Parser.Line line) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
-        if (line.getEnd() - line.getStart() > (int)conf.get("max")) {
-            boolean anbw = (boolean)conf.get(OPTION_ALLOW_NON_BREAKABLE_WORDS);
-            conf.put(OPTION_ALLOW_NON_BREAKABLE_WORDS, anbw || (boolean)conf.get(OPTION_ALLOW_NON_BREAKABLE_INLINE_MAPPINGS));
-            if ((boolean)conf.get(OPTION_ALLOW_NON_BREAKABLE_WORDS)) {
+        if (line.getEnd() - line.getStart() > opts.max) {
+            if (opts.allowNonBreakableWords) {
                 int start = line.getStart();
                 while (start < line.getEnd() && line.getBuffer().charAt(start) == ' ') {
                     start += 1;
@@ -143,14 +142,14 @@ public class LineLength extends LineRule {
                         return problems;
                     }
 
-                    if ((boolean)conf.get(OPTION_ALLOW_NON_BREAKABLE_INLINE_MAPPINGS) && checkInlineMapping(line)) {
+                    if (opts.allowNonBreakableInlineMappings && checkInlineMapping(line)) {
                         return problems;
                     }
                 }
             }
 
-            problems.add(new LintProblem(line.getLineNo(), (int)conf.get(OPTION_MAX) + 1,
-                    "line too long (" + (line.getEnd() - line.getStart()) + " > " + conf.get(OPTION_MAX) + " characters)"));
+            problems.add(new LintProblem(line.getLineNo(), opts.max + 1,
+                    "line too long (" + (line.getEnd() - line.getStart()) + " > " + opts.max + " characters)"));
         }
 
         return problems;
@@ -178,4 +177,27 @@ public class LineLength extends LineRule {
 
         return false;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final int max;
+        private final boolean allowNonBreakableInlineMappings;
+        private final boolean allowNonBreakableWords;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            max = (int)conf.get(OPTION_MAX);
+            allowNonBreakableInlineMappings = (boolean)conf.get(OPTION_ALLOW_NON_BREAKABLE_INLINE_MAPPINGS);
+            // Allowing non breakable inline mappings implies allowing non breakable words
+            allowNonBreakableWords = (boolean)conf.get(OPTION_ALLOW_NON_BREAKABLE_WORDS) || allowNonBreakableInlineMappings;
+        }
+    }
 }
@@ -26,13 +26,66 @@ import java.util.Map;
  */
 public abstract class LineRule extends Rule {
     /**
-     * Checks the line and returns the problems found on it
+     * Lines a line rule can check
+     */
+    public enum LINES {
+        /**
+         * All the lines
+         */
+        ALL,
+        /**
+         * The first line only
+         */
+        FIRST,
+        /**
+         * The last line only
+         */
+        LAST
+    }
+
+    private final boolean mapCheck = overrides(LineRule.class, "check", Map.class, Parser.Line.class);
+
+
+    /**
+     * Checks the line and returns the problems found on it. This method is kept for the rules written against the
+     * configuration map: its default implementation compiles the configuration with {@link #compileOptions(Map)} and
+     * calls {@link #check(RuleOptions, Parser.Line)}. A rule must override either this method or the latter.
      *
      * @param conf the rule configuration
      * @param line the line to be checked
      * @return the problems found on the line or an empty list if none found (the method never returns {@code null}
      */
-    public abstract List<LintProblem> check(Map<Object, Object> conf, Parser.Line line);
+    public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+        return check(compileOptions(conf), line);
+    }
+
+    /**
+     * Checks the line and returns the problems found on it. This is the method called by the linter. Its default
+     * implementation calls {@link #check(Map, Parser.Line)} with the configuration the options were compiled from,
+     * for the rules that override the latter.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @param line the line to be checked
+     * @return the problems found on the line or an empty list if none found (the method never returns {@code null}
+     * @throws UnsupportedOperationException if the rule overrides none of the <code>check</code> methods
+     */
+    public List<LintProblem> check(RuleOptions options, Parser.Line line) {
+        if (!mapCheck) {
+            throw new UnsupportedOperationException("Rule " + getId() + " does not implement any check method");
+        }
+        return check(options.asMap(), line);
+    }
+
+    /**
+     * Returns the lines checked by this rule with the passed options. The <code>check</code> methods are only called
+     * for these lines. The default implementation returns {@link LINES#ALL}.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @return the lines to be checked
+     */
+    public LINES getLines(RuleOptions options) {
+        return LINES.ALL;
+    }
 
     @Override
     public TYPE getType() {
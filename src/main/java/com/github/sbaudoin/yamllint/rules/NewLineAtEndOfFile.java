@@ -20,7 +20,6 @@ import com.github.sbaudoin.yamllint.Parser;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Use this rule to require a new line character ({@code \n}) at the end of files.
@@ -31,7 +30,7 @@ import java.util.Map;
  */
 public class NewLineAtEndOfFile extends LineRule {
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+    public List<LintProblem> check(RuleOptions options, Parser.Line line) {
         List<LintProblem> problems = new ArrayList<>();
 
         if (line.getEnd() == line.getBuffer().length() && line.getEnd() > line.getStart()) {
@@ -41,4 +40,9 @@ public class NewLineAtEndOfFile extends LineRule {
 
         return problems;
     }
+
+    @Override
+    public LINES getLines(RuleOptions options) {
+        return LINES.LAST;
+    }
 }
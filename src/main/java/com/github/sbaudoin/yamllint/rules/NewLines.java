@@ -48,25 +48,17 @@ public class NewLines extends LineRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+    public List<LintProblem> check(RuleOptions options, Parser.Line line) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
-        String newLineChar = null;
-        switch ((String)conf.get(OPTION_TYPE)) {
-            case "dos":
-                newLineChar = "\r\n";
-                break;
-            case "unix":
-                newLineChar = "\n";
-                break;
-            default:  // Is "platform"
-                newLineChar = System.getProperty("line.separator");  // Should be System.lineSeparator() but needed for unit tests to work...
-                break;
+        String newLineChar = opts.newLineChar;
+        if (newLineChar == null) {  // Is "platform"
+            newLineChar = System.getProperty("line.separator");  // Should be System.lineSeparator() but needed for unit tests to work...
         }
 
         // Check only first line
         if (line.getStart() == 0 && line.getBuffer().length() > line.getEnd()) {
-            assert newLineChar != null;  // Valid since the option values have been checked and 'type' should be of a supported value checked above
             int endIndex = (line.getEnd() + newLineChar.length() <= line.getBuffer().length())?(line.getEnd() + newLineChar.length()):(line.getEnd() + 1);
             if (!newLineChar.equals(line.getBuffer().substring(line.getEnd(), endIndex))) {
                 problems.add(new LintProblem(1, line.getEnd() - line.getStart() + 1,
@@ -77,4 +69,44 @@ public class NewLines extends LineRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public LINES getLines(RuleOptions options) {
+        return LINES.FIRST;
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final String newLineChar;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            newLineChar = getNewLineChar((String)conf.get(OPTION_TYPE));
+        }
+    }
+
+    /**
+     * Returns the new line character expected for the passed type
+     *
+     * @param type the value of the "type" option
+     * @return the new line character or <code>null</code> if it is the platform's one, which is resolved at check time
+     */
+    private static String getNewLineChar(String type) {
+        switch (type) {
+            case "dos":
+                return "\r\n";
+            case "unix":
+                return "\n";
+            default:  // Is "platform"
+                return null;
+        }
+    }
 }
@@ -21,8 +21,10 @@ import org.yaml.snakeyaml.tokens.TagToken;
 import org.yaml.snakeyaml.tokens.Token;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Use this rule to prevent values with octal numbers. In YAML, numbers that
@@ -60,9 +62,6 @@ import java.util.Map;
  * </pre>
  */
 public class OctalValues extends TokenRule {
-    private static final String IS_OCTAL_NUMBER_PATTERN = "^[0-7]+$";
-
-
     /**
      * Name of the "forbid-implicit-octal" option
      */
@@ -82,18 +81,21 @@ public class OctalValues extends TokenRule {
     }
 
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
         if (prev instanceof TagToken) {
             return problems;
         }
 
-        if ((boolean)conf.get(OPTION_FORBID_IMPLICIT_OCTAL)) {
+        if (opts.forbidImplicitOctal) {
             if (token instanceof ScalarToken) {
                 if (((ScalarToken)token).getStyle().getChar() == null) {
                     String val = ((ScalarToken)token).getValue();
-                    if (isDigit(val) && val.length() > 1 && val.charAt(0) =='0' && val.substring(1).matches(IS_OCTAL_NUMBER_PATTERN)) {
+                    // Numbers starting with 0 are octal numbers in YAML 1.1 but decimal numbers in YAML 1.2
+                    ScalarClassifier scalar = ScalarClassifier.classify(val);
+                    if (scalar.getYaml11Type() == ScalarClassifier.Type.OCTAL && scalar.getYaml12Type() == ScalarClassifier.Type.INT && !scalar.isSigned()) {
                         problems.add(new LintProblem(
                                 token.getStartMark().getLine() + 1, token.getEndMark().getColumn() + 1,
                                 String.format("forbidden implicit octal value \"%s\"", val)));
@@ -102,11 +104,11 @@ public class OctalValues extends TokenRule {
             }
         }
 
-        if ((boolean)conf.get(OPTION_FORBID_EXPLICIT_OCTAL)) {
+        if (opts.forbidExplicitOctal) {
             if (token instanceof ScalarToken) {
                 if (((ScalarToken)token).getStyle().getChar() == null) {
                     String val = ((ScalarToken)token).getValue();
-                    if (val.length() > 2 && "0o".equals(val.substring(0, 2)) && val.substring(2).matches(IS_OCTAL_NUMBER_PATTERN)) {
+                    if (ScalarClassifier.classify(val).getYaml12Type() == ScalarClassifier.Type.OCTAL) {
                         problems.add(new LintProblem(
                                 token.getStartMark().getLine() + 1, token.getEndMark().getColumn() + 1,
                                 String.format("forbidden explicit octal value \"%s\"", val)));
@@ -117,4 +119,29 @@ public class OctalValues extends TokenRule {
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.Scalar);
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean forbidImplicitOctal;
+        private final boolean forbidExplicitOctal;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            forbidImplicitOctal = (boolean)conf.get(OPTION_FORBID_IMPLICIT_OCTAL);
+            forbidExplicitOctal = (boolean)conf.get(OPTION_FORBID_EXPLICIT_OCTAL);
+        }
+    }
 }
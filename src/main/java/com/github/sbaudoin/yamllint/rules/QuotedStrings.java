@@ -19,9 +19,6 @@ import com.github.sbaudoin.yamllint.LintProblem;
 import com.github.sbaudoin.yamllint.LintScanner;
 import com.github.sbaudoin.yamllint.LintStreamReader;
 import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.nodes.NodeId;
-import org.yaml.snakeyaml.nodes.Tag;
-import org.yaml.snakeyaml.resolver.Resolver;
 import org.yaml.snakeyaml.scanner.ScannerException;
 import org.yaml.snakeyaml.tokens.*;
 
@@ -123,9 +120,15 @@ public class QuotedStrings extends TokenRule {
     private static final String MSG_NOT_QUOTED             = "string value is not quoted";
     private static final String MSG_NOT_QUOTED_WITH_QUOTES = "string value is not quoted with %s quotes";
     private static final List<String> FLOW_TOKENS          = Arrays.asList(",", "[", "]", "{", "}");
-    private static final String FLOW_NEST_COUNT_KEY        = "flow_nest_count";
 
-    private static final String OCTAL_INT_RE = "^([-+]?0b[0-1_]+|[-+]?0o?[0-7_]+|[-+]?0[0-7_]+|[-+]?(?:0|[1-9][0-9_]*)|[-+]?0x[0-9a-fA-F_]+|[-+]?[1-9][0-9_]*(?::[0-5]?\\d)+)$";
+    /**
+     * Characters that cannot start a plain scalar, or only under conditions
+     */
+    private static final String INDICATORS = "-?:,[]{}#&*!|>'\"%@`";
+    /**
+     * Maximum number of values whose need for quotes is remembered while checking a YAML content
+     */
+    private static final int MAX_CACHED_VALUES = 4096;
 
 
     /**
@@ -195,18 +198,15 @@ public class QuotedStrings extends TokenRule {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
+        State flow = (State)state;
         List<LintProblem> problems = new ArrayList<>();
 
-        if (!context.containsKey(FLOW_NEST_COUNT_KEY)) {
-            context.put(FLOW_NEST_COUNT_KEY, 0);
-        }
-
         if (token instanceof FlowMappingStartToken || token instanceof FlowSequenceStartToken) {
-            context.put(FLOW_NEST_COUNT_KEY, (int)context.get(FLOW_NEST_COUNT_KEY) + 1);
+            flow.nestCount++;
         } else if (token instanceof FlowMappingEndToken || token instanceof FlowSequenceEndToken) {
-            context.put(FLOW_NEST_COUNT_KEY, (int)context.get(FLOW_NEST_COUNT_KEY) - 1);
+            flow.nestCount--;
         }
 
         if (!(token instanceof ScalarToken &&
@@ -222,13 +222,8 @@ public class QuotedStrings extends TokenRule {
         }
 
         // Ignore numbers, booleans, etc.
-        Resolver resolver = new Resolver();
-        // https://stackoverflow.com/a/36514274
-        resolver.addImplicitResolver(Tag.INT,
-                Pattern.compile(OCTAL_INT_RE),
-                "-+0123456789");
-        Tag tag = resolver.resolve(NodeId.scalar, ((ScalarToken) token).getValue(), true);
-        if (((ScalarToken) token).getPlain() && tag != Tag.STR) {
+        boolean str = ScalarClassifier.classify(((ScalarToken) token).getValue()).getYaml11Type() == ScalarClassifier.Type.STR;
+        if (((ScalarToken) token).getPlain() && !str) {
             return problems;
         }
 
@@ -239,36 +234,33 @@ public class QuotedStrings extends TokenRule {
             return problems;
         }
 
-        String quoteType = (String) conf.get(OPTION_QUOTE_TYPE);
+        String quoteType = opts.quoteType;
         String msg = null;
 
-        if (conf.get(OPTION_REQUIRED) instanceof Boolean && Boolean.TRUE.equals(conf.get(OPTION_REQUIRED))) {
+        if (opts.required) {
             // Quotes are mandatory and need to match config
             if (((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.PLAIN ||
                     !(quoteMatch(quoteType, ((ScalarToken) token).getStyle()) ||
-                    ((boolean)conf.get(OPTION_ALLOW_QUOTED_QUOTES) && hasQuotedQuotes(token)))) {
+                    (opts.allowQuotedQuotes && hasQuotedQuotes(token)))) {
                 msg = String.format(MSG_NOT_QUOTED_WITH_QUOTES, quoteType);
             }
-        } else if (conf.get(OPTION_REQUIRED) instanceof Boolean && Boolean.FALSE.equals(conf.get(OPTION_REQUIRED))) {
+        } else if (opts.optional) {
             // Quotes are not mandatory but when used need to match config
             if (((ScalarToken) token).getStyle() != DumperOptions.ScalarStyle.PLAIN && !quoteMatch(quoteType, ((ScalarToken) token).getStyle()) &&
-                    !((boolean)conf.get(OPTION_ALLOW_QUOTED_QUOTES) &&hasQuotedQuotes(token))) {
+                    !(opts.allowQuotedQuotes && hasQuotedQuotes(token))) {
                 msg = String.format(MSG_NOT_QUOTED_WITH_QUOTES, quoteType);
             } else if (((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.PLAIN) {
-                boolean isExtraRequired = ((List<String>)conf.get(OPTION_EXTRA_REQUIRED)).stream().anyMatch(
-                        r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
+                boolean isExtraRequired = matchesAny(opts.extraRequired, ((ScalarToken) token).getValue());
                 if (isExtraRequired) {
                     msg = MSG_NOT_QUOTED;
                 }
             }
-        } else if (ONLY_WHEN_NEEDED.equals(conf.get(OPTION_REQUIRED))) {
+        } else if (opts.onlyWhenNeeded) {
             // Quotes are not strictly needed here
-            if (((ScalarToken) token).getStyle() != DumperOptions.ScalarStyle.PLAIN && tag == Tag.STR &&
-                    ((ScalarToken) token).getValue() != null && !quotesAreNeeded(((ScalarToken) token).getValue(), (int)context.get(FLOW_NEST_COUNT_KEY) > 0)) {
-                boolean isExtraRequired = ((List<String>)conf.get(OPTION_EXTRA_REQUIRED)).stream().anyMatch(
-                        r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
-                boolean isExtraAllowed = ((List<String>)conf.get(OPTION_EXTRA_ALLOWED)).stream().anyMatch(
-                        r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
+            if (((ScalarToken) token).getStyle() != DumperOptions.ScalarStyle.PLAIN && str &&
+                    ((ScalarToken) token).getValue() != null && !quotesAreNeeded(((ScalarToken) token).getValue(), flow)) {
+                boolean isExtraRequired = matchesAny(opts.extraRequired, ((ScalarToken) token).getValue());
+                boolean isExtraAllowed = matchesAny(opts.extraAllowed, ((ScalarToken) token).getValue());
                 if (!(isExtraRequired || isExtraAllowed)) {
                     msg = String.format("string value is redundantly quoted with %s quotes", quoteType);
                 }
@@ -277,14 +269,12 @@ public class QuotedStrings extends TokenRule {
             // But when used need to match config
             else if (((ScalarToken) token).getStyle() != DumperOptions.ScalarStyle.PLAIN &&
                     !quoteMatch(quoteType, ((ScalarToken) token).getStyle()) &&
-                    !((boolean)conf.get(OPTION_ALLOW_QUOTED_QUOTES) && hasQuotedQuotes(token))) {
+                    !(opts.allowQuotedQuotes && hasQuotedQuotes(token))) {
                 msg = String.format(MSG_NOT_QUOTED_WITH_QUOTES, quoteType);
             }
 
             else if (((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.PLAIN) {
-                boolean isExtraRequired = !((List<?>)conf.get(OPTION_EXTRA_REQUIRED)).isEmpty() &&
-                        ((List<String>)conf.get(OPTION_EXTRA_REQUIRED)).stream().anyMatch(
-                                r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
+                boolean isExtraRequired = matchesAny(opts.extraRequired, ((ScalarToken) token).getValue());
                 if (isExtraRequired) {
                     msg = MSG_NOT_QUOTED;
                 }
@@ -307,12 +297,56 @@ public class QuotedStrings extends TokenRule {
                 (QUOTE_STYLE_DOUBLE.equals(quoteType) && tokenStyle == DumperOptions.ScalarStyle.DOUBLE_QUOTED));
     }
 
-    private boolean quotesAreNeeded(String string, boolean isInsideAFlow) {
+    private boolean quotesAreNeeded(String string, State state) {
         // Quotes needed on strings containing flow tokens
-        if (isInsideAFlow && FLOW_TOKENS.stream().anyMatch(string::contains)) {
+        if (state.nestCount > 0 && FLOW_TOKENS.stream().anyMatch(string::contains)) {
             return true;
         }
+        if (isPlain(string)) {
+            return false;
+        }
+
+        // Scanning the string is much more costly than looking it up: values often repeat in a YAML content
+        Boolean needed = state.quotesNeeded.get(string);
+        if (needed == null) {
+            needed = !scansAsPlain(string);
+            if (state.quotesNeeded.size() < MAX_CACHED_VALUES) {
+                state.quotesNeeded.put(string, needed);
+            }
+        }
+        return needed;
+    }
+
+    /**
+     * Tells without scanning it if a string is read back as is when written as a plain scalar mapping value. This is
+     * the case of the strings made of printable ASCII characters and spaces that do not start with an indicator and
+     * contain no comment or mapping value indicator. The other strings may need to be scanned to find out.
+     *
+     * @param string a string value
+     * @return <code>true</code> if the string can be written as a plain scalar, <code>false</code> if unknown
+     */
+    static boolean isPlain(String string) {
+        int length = string.length();
+        if (length == 0 || string.charAt(0) == ' ' || INDICATORS.indexOf(string.charAt(0)) != -1 ||
+                string.charAt(length - 1) == ' ' || string.charAt(length - 1) == ':') {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < ' ' || c > '~' || (c == ' ' && (string.charAt(i - 1) == ':' || string.charAt(i + 1) == '#'))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    /**
+     * Tells if a string is read back as is when written as a plain scalar mapping value, by scanning it
+     *
+     * @param string a string value
+     * @return <code>true</code> if the string can be written as a plain scalar
+     */
+    private static boolean scansAsPlain(String string) {
         LintScanner loader = new LintScanner(new LintStreamReader("key: " + string));
         // Remove the 5 first tokens corresponding to 'key: ' (StreamStartToken, BlockMappingStartToken, KeyToken, ScalarToken(value = key), ValueToken)
         for (int i = 0; i < 5; i++) {
@@ -321,10 +355,10 @@ public class QuotedStrings extends TokenRule {
         try {
             Token a = loader.getToken();
             Token b = loader.getToken();
-            return !(a instanceof ScalarToken && ((ScalarToken) a).getStyle() == DumperOptions.ScalarStyle.PLAIN &&
-                    b instanceof BlockEndToken && string.equals(((ScalarToken) a).getValue()));
+            return a instanceof ScalarToken && ((ScalarToken) a).getStyle() == DumperOptions.ScalarStyle.PLAIN &&
+                    b instanceof BlockEndToken && string.equals(((ScalarToken) a).getValue());
         } catch (ScannerException e) {
-            return true;
+            return false;
         }
     }
 
@@ -333,4 +367,83 @@ public class QuotedStrings extends TokenRule {
                 ((((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.SINGLE_QUOTED && ((ScalarToken) token).getValue().contains("\"")) ||
                 (((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.DOUBLE_QUOTED && ((ScalarToken) token).getValue().contains("'"))));
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        // Flow collection tokens are needed to know whether a scalar is inside a flow collection
+        return EnumSet.of(Token.ID.FlowMappingStart, Token.ID.FlowMappingEnd, Token.ID.FlowSequenceStart, Token.ID.FlowSequenceEnd, Token.ID.Scalar);
+    }
+
+    @Override
+    public Object createState(RuleOptions options) {
+        return new State();
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final String quoteType;
+        private final boolean required;
+        private final boolean optional;
+        private final boolean onlyWhenNeeded;
+        private final boolean allowQuotedQuotes;
+        private final List<Pattern> extraRequired;
+        private final List<Pattern> extraAllowed;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            quoteType = (String)conf.get(OPTION_QUOTE_TYPE);
+            required = Boolean.TRUE.equals(conf.get(OPTION_REQUIRED));
+            optional = Boolean.FALSE.equals(conf.get(OPTION_REQUIRED));
+            onlyWhenNeeded = ONLY_WHEN_NEEDED.equals(conf.get(OPTION_REQUIRED));
+            allowQuotedQuotes = (boolean)conf.get(OPTION_ALLOW_QUOTED_QUOTES);
+            extraRequired = compile((List<?>)conf.get(OPTION_EXTRA_REQUIRED));
+            extraAllowed = compile((List<?>)conf.get(OPTION_EXTRA_ALLOWED));
+        }
+    }
+
+    /**
+     * Nesting level of the flow collections the current token is in and the values whose need for quotes is known
+     */
+    private static class State {
+        private int nestCount = 0;
+        private final Map<String, Boolean> quotesNeeded = new HashMap<>();
+    }
+
+    /**
+     * Compiles a list of regexps
+     *
+     * @param regexps a list of regexps
+     * @return the compiled patterns
+     */
+    private static List<Pattern> compile(List<?> regexps) {
+        List<Pattern> patterns = new ArrayList<>(regexps.size());
+        for (Object regexp : regexps) {
+            patterns.add(Pattern.compile((String)regexp));
+        }
+        return patterns;
+    }
+
+    /**
+     * Tells if one of the passed patterns is found in a value
+     *
+     * @param patterns a list of patterns
+     * @param value a string value
+     * @return <code>true</code> if at least one of the patterns is found in <var>value</var>, <code>false</code> if not
+     */
+    private static boolean matchesAny(List<Pattern> patterns, String value) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(value).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -26,6 +26,11 @@ import java.util.*;
 /**
  * The class represents a coding rule. It is not intended to be extended directly; instead, you are encouraged to extend
  * the derivated classes {@link CommentRule}, {@link LineRule} and {@link TokenRule}.
+ * <p>
+ * A rule instance is configured once, when its configuration is validated, and may then be used by several threads
+ * at the same time. The <code>check</code> methods must therefore not change the fields of the rule: the state of a
+ * run must be kept in the state object created for each run by {@link TokenRule#createState(RuleOptions)} and passed
+ * to the token rules.
  *
  * @see CommentRule
  * @see LineRule
@@ -39,6 +44,7 @@ public abstract class Rule {
     private Map<String, Object> options = new HashMap<>();
     private Map<String, Object> defaults = new HashMap<>();
     private Map<String, Boolean> listedOptions = new HashMap<>();
+    private String id = null;
 
 
     /**
@@ -67,7 +73,10 @@ public abstract class Rule {
      * @return the rule ID
      */
     public String getId() {
-        return this.getClass().getName().replaceAll("^.*\\.([^.])", "$1").replaceAll("([A-Z])", "-$1").substring(1).toLowerCase();
+        if (id == null) {
+            id = this.getClass().getName().replaceAll("^.*\\.([^.])", "$1").replaceAll("([A-Z])", "-$1").substring(1).toLowerCase();
+        }
+        return id;
     }
 
     /**
@@ -193,6 +202,39 @@ public abstract class Rule {
         return null;
     }
 
+    /**
+     * Compiles the passed (validated) configuration into the options passed to the <code>check</code> methods of
+     * this rule. Rules with options override this method to return a subclass of {@link RuleOptions} that exposes
+     * the options as typed fields.
+     *
+     * @param conf the rule configuration
+     * @return the compiled options
+     */
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new RuleOptions(conf);
+    }
+
+    /**
+     * Tells if the passed method, declared by <var>base</var>, is overridden by this rule's class. The method may be
+     * public or protected.
+     *
+     * @param base the class that declares the method
+     * @param name the method name
+     * @param parameterTypes the method parameter types
+     * @return <code>true</code> if the method is overridden by this rule's class, <code>false</code> if not
+     */
+    boolean overrides(Class<?> base, String name, Class<?>... parameterTypes) {
+        for (Class<?> clazz = getClass(); clazz != null && clazz != base; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Look in the superclass
+            }
+        }
+        return false;
+    }
+
 
     /**
      * Determines the number of spaces between the passed token and the next one and compares this number
@@ -302,7 +344,7 @@ public abstract class Rule {
      * @return <code>true</code> if <var>i</var> is one of the characters listed above, <code>false</code> otherwise
      */
     protected boolean isWhitespace(int i) {
-        return Arrays.binarySearch(new int[] { 9, 10, 11, 12, 13, 32 }, i) >= 0;
+        return i == ' ' || (i >= 9 && i <= 13);
     }
 
     /**
@@ -24,7 +24,9 @@ import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
 
 /**
- * Factory that will instantiate the rules of this package. Rules are cached in order to save memory.
+ * Factory that will instantiate the rules of this package. The rules returned by {@link #getRule(String)} are cached
+ * in order to save memory and are therefore shared: they must not be configured. Use {@link #createRule(String)} to
+ * get an instance that can be configured.
  */
 public class RuleFactory {
     private static final Logger LOGGER = Logger.getLogger(RuleFactory.class.getName());
@@ -44,7 +46,7 @@ public class RuleFactory {
      * @param id the ID of the rule to be returned
      * @return the rule corresponding to the passed ID or <code>null</code> if not found
      */
-    public Rule getRule(String id) {
+    public synchronized Rule getRule(String id) {
         if (rules.containsKey(id)) {
             return rules.get(id);
         }
@@ -66,6 +68,27 @@ public class RuleFactory {
         return null;
     }
 
+    /**
+     * Returns a new instance of the rule identified by the passed ID. Unlike the instances returned by
+     * {@link #getRule(String)}, this instance is not shared and can be configured independently of the others.
+     *
+     * @param id the ID of the rule to be returned
+     * @return a new instance of the rule corresponding to the passed ID or <code>null</code> if not found
+     */
+    public Rule createRule(String id) {
+        Rule rule = getRule(id);
+        if (rule == null) {
+            return null;
+        }
+
+        try {
+            return rule.getClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.WARNING, "Unexpected error instantiating rule " + id, e);
+            return null;
+        }
+    }
+
 
     /**
      * Hide default constructor
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import com.github.sbaudoin.yamllint.Linter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable options of a rule, compiled once from the rule configuration by {@link Rule#compileOptions(Map)}.
+ * The rules that have options extend this class in order to expose them as typed fields, so that they do not have to
+ * look them up and unbox them for every token, comment or line they check.
+ *
+ * @see Rule#compileOptions(Map)
+ */
+public class RuleOptions {
+    private final Map<Object, Object> conf;
+    private final String level;
+
+
+    /**
+     * Constructor
+     *
+     * @param conf the (validated) rule configuration
+     */
+    public RuleOptions(Map<?, ?> conf) {
+        this.conf = Collections.unmodifiableMap(new HashMap<>(conf));
+        Object myLevel = conf.get(Linter.LEVEL_KEY);
+        this.level = (myLevel instanceof String) ? (String)myLevel : Linter.ERROR_LEVEL;
+    }
+
+
+    /**
+     * Returns the level of the problems reported with these options
+     *
+     * @return an error level
+     * @see Linter
+     */
+    public String getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the raw value of an option
+     *
+     * @param name an option name
+     * @return the option value or <code>null</code> if not set
+     */
+    public Object get(String name) {
+        return conf.get(name);
+    }
+
+    /**
+     * Returns the rule configuration these options were compiled from
+     *
+     * @return an unmodifiable map
+     */
+    public Map<Object, Object> asMap() {
+        return conf;
+    }
+}
@@ -0,0 +1,393 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classifies the values of plain scalars the way YAML parsers resolve them, without regular expressions. A value is
+ * resolved both as a YAML 1.1 parser (SnakeYAML, with the octal numbers of YAML 1.2 as well) and as a YAML 1.2 parser
+ * (core schema) would do, so that the value rules can tell the values whose meaning depends on the YAML version.
+ * <p>
+ * Most values are strings that are told apart by their first character only. The other values are read once, with
+ * the same length limits as the resolver of SnakeYAML.
+ */
+final class ScalarClassifier {
+    /**
+     * Type a plain scalar is resolved to
+     */
+    enum Type {
+        STR, NULL, BOOL, INT, OCTAL, HEX, FLOAT, INF, NAN, TIMESTAMP,
+        /**
+         * The {@code <<} merge key of YAML 1.1
+         */
+        MERGE,
+        /**
+         * The values {@code !}, {@code &} and {@code *}, reserved by YAML 1.1
+         */
+        YAML
+    }
+
+    /**
+     * Maximum length of the numbers resolved by SnakeYAML
+     */
+    private static final int MAX_NUMBER_LENGTH = 1024;
+    /**
+     * Maximum length of the timestamps resolved by SnakeYAML
+     */
+    private static final int MAX_TIMESTAMP_LENGTH = 50;
+    /**
+     * Characters that start the values of {@link #KEYWORDS}
+     */
+    private static final String KEYWORD_STARTS = "yYnNtTfFoO~<!&*.+- ";
+    /**
+     * Classification of the values that are resolved to something else than a number in any version
+     */
+    private static final Map<String, ScalarClassifier> KEYWORDS = new HashMap<>();
+    private static final ScalarClassifier STRING = new ScalarClassifier(Type.STR, Type.STR, 0);
+    private static final int SIGN        = 1;
+    private static final int EXPONENT    = 2;
+    private static final int LEADING_DOT = 4;
+
+    static {
+        for (String value : new String[] { "true", "True", "TRUE", "false", "False", "FALSE" }) {
+            KEYWORDS.put(value, new ScalarClassifier(Type.BOOL, Type.BOOL, 0));
+        }
+        for (String value : new String[] { "yes", "Yes", "YES", "no", "No", "NO", "on", "On", "ON", "off", "Off", "OFF" }) {
+            KEYWORDS.put(value, new ScalarClassifier(Type.BOOL, Type.STR, 0));
+        }
+        for (String value : new String[] { "", "~", "null", "Null", "NULL" }) {
+            KEYWORDS.put(value, new ScalarClassifier(Type.NULL, Type.NULL, 0));
+        }
+        for (String value : new String[] { ".nan", ".NaN", ".NAN" }) {
+            KEYWORDS.put(value, new ScalarClassifier(Type.NAN, Type.NAN, 0));
+        }
+        for (String value : new String[] { ".inf", ".Inf", ".INF" }) {
+            KEYWORDS.put(value, new ScalarClassifier(Type.INF, Type.INF, 0));
+            KEYWORDS.put("+" + value, new ScalarClassifier(Type.INF, Type.INF, SIGN));
+            KEYWORDS.put("-" + value, new ScalarClassifier(Type.INF, Type.INF, SIGN));
+        }
+        // SnakeYAML also resolves a single space to null
+        KEYWORDS.put(" ", new ScalarClassifier(Type.NULL, Type.STR, 0));
+        KEYWORDS.put("<<", new ScalarClassifier(Type.MERGE, Type.STR, 0));
+        for (String value : new String[] { "!", "&", "*" }) {
+            KEYWORDS.put(value, new ScalarClassifier(Type.YAML, Type.STR, 0));
+        }
+    }
+
+    private final Type yaml11Type;
+    private final Type yaml12Type;
+    private final int flags;
+
+
+    private ScalarClassifier(Type yaml11Type, Type yaml12Type, int flags) {
+        this.yaml11Type = yaml11Type;
+        this.yaml12Type = yaml12Type;
+        this.flags = flags;
+    }
+
+    /**
+     * Classifies the value of a plain scalar
+     *
+     * @param value the value of a plain scalar
+     * @return the classification of the value
+     */
+    static ScalarClassifier classify(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return KEYWORDS.get(value);
+        }
+        char c = value.charAt(0);
+        if (length <= 5 && KEYWORD_STARTS.indexOf(c) != -1) {
+            ScalarClassifier keyword = KEYWORDS.get(value);
+            if (keyword != null) {
+                return keyword;
+            }
+        }
+        if (!isDigit(c) && c != '.' && c != '-' && c != '+') {
+            return STRING;
+        }
+
+        int flags = (c == '-' || c == '+') ? SIGN : 0;
+        Type yaml12Type = resolveNumber12(value, flags);
+        if (yaml12Type == Type.FLOAT) {
+            flags |= (value.charAt((flags & SIGN) != 0 ? 1 : 0) == '.') ? LEADING_DOT : 0;
+            flags |= (value.indexOf('e') != -1 || value.indexOf('E') != -1) ? EXPONENT : 0;
+        }
+        Type yaml11Type = resolveNumber11(value, flags);
+        return (yaml11Type == Type.STR && yaml12Type == Type.STR) ? STRING : new ScalarClassifier(yaml11Type, yaml12Type, flags);
+    }
+
+    /**
+     * Returns the type a YAML 1.1 parser resolves the value to
+     *
+     * @return a type
+     */
+    Type getYaml11Type() {
+        return yaml11Type;
+    }
+
+    /**
+     * Returns the type a YAML 1.2 parser resolves the value to with the core schema
+     *
+     * @return a type
+     */
+    Type getYaml12Type() {
+        return yaml12Type;
+    }
+
+    /**
+     * Tells if the value is a number that starts with a sign
+     *
+     * @return <code>true</code> if the value starts with {@code +} or {@code -}
+     */
+    boolean isSigned() {
+        return (flags & SIGN) != 0;
+    }
+
+    /**
+     * Tells if the value is a YAML 1.2 float in scientific notation
+     *
+     * @return <code>true</code> if the value has an exponent
+     */
+    boolean hasExponent() {
+        return (flags & EXPONENT) != 0;
+    }
+
+    /**
+     * Tells if the value is a YAML 1.2 float with no numeral before the decimal point
+     *
+     * @return <code>true</code> if the value starts with a decimal point, after its sign if any
+     */
+    boolean hasLeadingDot() {
+        return (flags & LEADING_DOT) != 0;
+    }
+
+
+    /**
+     * Resolves a value that starts like a number with the core schema of YAML 1.2
+     *
+     * @param value a value that starts with a digit, a sign or a decimal point
+     * @param flags {@link #SIGN} if the value has a sign
+     * @return {@link Type#INT}, {@link Type#OCTAL}, {@link Type#HEX}, {@link Type#FLOAT} or {@link Type#STR}
+     */
+    private static Type resolveNumber12(String value, int flags) {
+        int length = value.length();
+        int i = ((flags & SIGN) != 0) ? 1 : 0;
+        if (i == 0 && length > 2 && value.charAt(0) == '0') {
+            if (value.charAt(1) == 'o') {
+                return (skipDigits(value, 2, 8, false) == length) ? Type.OCTAL : Type.STR;
+            } else if (value.charAt(1) == 'x') {
+                return (skipDigits(value, 2, 16, false) == length) ? Type.HEX : Type.STR;
+            }
+        }
+
+        // [-+]?(\.[0-9]+|[0-9]+(\.[0-9]*)?)([eE][-+]?[0-9]+)?
+        int integral = skipDigits(value, i, 10, false);
+        boolean dot = integral < length && value.charAt(integral) == '.';
+        int end = dot ? skipDigits(value, integral + 1, 10, false) : integral;
+        if (integral == i && (!dot || end == i + 1)) {
+            return Type.STR;
+        }
+        if (end == length) {
+            return dot ? Type.FLOAT : Type.INT;
+        }
+        return (skipExponent(value, end) == length) ? Type.FLOAT : Type.STR;
+    }
+
+    /**
+     * Resolves a value that starts like a number the way SnakeYAML does, accepting the octal numbers of YAML 1.2 as well
+     *
+     * @param value a value that starts with a digit, a sign or a decimal point
+     * @param flags {@link #SIGN} if the value has a sign
+     * @return {@link Type#INT}, {@link Type#OCTAL}, {@link Type#HEX}, {@link Type#FLOAT}, {@link Type#TIMESTAMP} or
+     * {@link Type#STR}
+     */
+    private static Type resolveNumber11(String value, int flags) {
+        int length = value.length();
+        if (length > MAX_NUMBER_LENGTH) {
+            return Type.STR;
+        }
+        int i = ((flags & SIGN) != 0) ? 1 : 0;
+        if (i == length) {
+            return Type.STR;
+        }
+        char c = value.charAt(i);
+        if (c == '.') {
+            // [-+]?\.[0-9_]+([eE][-+]?[0-9]+)?
+            int end = skipDigits(value, i + 1, 10, true);
+            return (end > i + 1 && skipExponent(value, end) == length) ? Type.FLOAT : Type.STR;
+        }
+        if (!isDigit(c)) {
+            return Type.STR;
+        }
+        if (c == '0' && i + 1 < length) {
+            char next = value.charAt(i + 1);
+            if (next == 'b') {
+                return (i + 2 < length && skipDigits(value, i + 2, 2, true) == length) ? Type.INT : Type.STR;
+            } else if (next == 'x') {
+                return (i + 2 < length && skipDigits(value, i + 2, 16, true) == length) ? Type.HEX : Type.STR;
+            } else if (next == 'o') {
+                return (i + 2 < length && skipDigits(value, i + 2, 8, true) == length) ? Type.OCTAL : Type.STR;
+            } else if (skipDigits(value, i + 1, 8, true) == length) {
+                return Type.OCTAL;
+            }
+        }
+
+        int integral = skipDigits(value, i, 10, true);
+        if (integral == length) {
+            // [-+]?(?:0|[1-9][0-9_]*): the other numbers starting with 0 are octal
+            return (c != '0' || integral == i + 1) ? Type.INT : Type.STR;
+        }
+        switch (value.charAt(integral)) {
+            case '.':
+                // [-+]?[0-9][0-9_]*\.[0-9_]*([eE][-+]?[0-9]+)?
+                return (skipExponent(value, skipDigits(value, integral + 1, 10, true)) == length) ? Type.FLOAT : Type.STR;
+            case 'e':
+            case 'E':
+                // [-+]?[0-9][0-9_]*[eE][-+]?[0-9]+
+                return (skipExponent(value, integral) == length) ? Type.FLOAT : Type.STR;
+            case ':':
+                // [-+]?[1-9][0-9_]*(?::[0-5]?[0-9])+ or [-+]?[0-9][0-9_]*(?::[0-5]?[0-9])+\.[0-9_]*
+                int end = integral;
+                while (end < length && value.charAt(end) == ':') {
+                    if (end + 1 >= length || !isDigit(value.charAt(end + 1))) {
+                        return Type.STR;
+                    }
+                    end += (end + 2 < length && value.charAt(end + 1) <= '5' && isDigit(value.charAt(end + 2))) ? 3 : 2;
+                }
+                if (end == length) {
+                    return (c != '0') ? Type.INT : Type.STR;
+                }
+                return (value.charAt(end) == '.' && skipDigits(value, end + 1, 10, true) == length) ? Type.FLOAT : Type.STR;
+            case '-':
+                return (i == 0 && integral == 4 && length <= MAX_TIMESTAMP_LENGTH && isTimestamp(value)) ? Type.TIMESTAMP : Type.STR;
+            default:
+                return Type.STR;
+        }
+    }
+
+    /**
+     * Tells if a value is a YAML 1.1 timestamp, i.e. a date or a date and a time
+     *
+     * @param value a value
+     * @return <code>true</code> if the value is a timestamp
+     */
+    private static boolean isTimestamp(String value) {
+        int length = value.length();
+        // [0-9][0-9][0-9][0-9]-[0-9][0-9]?-[0-9][0-9]?
+        if (skipDigits(value, 0, 10, false) != 4) {
+            return false;
+        }
+        int month = skipDigits(value, 5, 10, false);
+        if (month == 5 || month > 7 || month >= length || value.charAt(month) != '-') {
+            return false;
+        }
+        int day = skipDigits(value, month + 1, 10, false);
+        if (day == month + 1 || day > month + 3) {
+            return false;
+        }
+        if (day == length) {
+            // The date alone must have two-digit months and days
+            return month == 7 && day == 10;
+        }
+
+        // ([Tt]|[ \t]+)[0-9][0-9]?:[0-9][0-9]:[0-9][0-9](\.[0-9]*)?
+        int i = day;
+        if (value.charAt(i) == 'T' || value.charAt(i) == 't') {
+            i++;
+        } else {
+            i = skipBlanks(value, i);
+            if (i == day) {
+                return false;
+            }
+        }
+        int hour = skipDigits(value, i, 10, false);
+        if (hour == i || hour > i + 2 || !isTime(value, hour) || !isTime(value, hour + 3)) {
+            return false;
+        }
+        i = hour + 6;
+        if (i < length && value.charAt(i) == '.') {
+            i = skipDigits(value, i + 1, 10, false);
+        }
+        if (i == length) {
+            return true;
+        }
+
+        // [ \t]*(Z|[-+][0-9][0-9]?(:[0-9][0-9])?)
+        i = skipBlanks(value, i);
+        if (i < length && value.charAt(i) == 'Z') {
+            return i + 1 == length;
+        }
+        if (i >= length || (value.charAt(i) != '-' && value.charAt(i) != '+')) {
+            return false;
+        }
+        int zone = skipDigits(value, i + 1, 10, false);
+        if (zone == i + 1 || zone > i + 3) {
+            return false;
+        }
+        return zone == length || (isTime(value, zone) && zone + 3 == length);
+    }
+
+    /**
+     * Tells if a colon and two digits are found at a position of a value
+     */
+    private static boolean isTime(String value, int i) {
+        return i + 2 < value.length() && value.charAt(i) == ':' && isDigit(value.charAt(i + 1)) && isDigit(value.charAt(i + 2));
+    }
+
+    /**
+     * Skips the exponent of a float ({@code [eE][-+]?[0-9]+}) if found at a position of a value
+     *
+     * @return the position after the exponent, or the passed position if there is no exponent there
+     */
+    private static int skipExponent(String value, int i) {
+        if (i >= value.length() || (value.charAt(i) != 'e' && value.charAt(i) != 'E')) {
+            return i;
+        }
+        int start = (i + 1 < value.length() && (value.charAt(i + 1) == '-' || value.charAt(i + 1) == '+')) ? i + 2 : i + 1;
+        int end = skipDigits(value, start, 10, false);
+        return (end > start) ? end : i;
+    }
+
+    /**
+     * Skips the digits of a radix, and possibly underscores, from a position of a value
+     *
+     * @return the position of the first other character, or the length of the value
+     */
+    private static int skipDigits(String value, int i, int radix, boolean underscores) {
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (!((underscores && c == '_') || (c < 128 && Character.digit(c, radix) != -1))) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipBlanks(String value, int i) {
+        while (i < value.length() && (value.charAt(i) == ' ' || value.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
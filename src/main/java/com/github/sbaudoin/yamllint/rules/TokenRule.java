@@ -18,15 +18,39 @@ package com.github.sbaudoin.yamllint.rules;
 import com.github.sbaudoin.yamllint.LintProblem;
 import org.yaml.snakeyaml.tokens.Token;
 
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class that represents a token-oriented rule
+ * <p>
+ * A token rule keeps what it has learnt from the previous tokens in a state object. A new state is created by
+ * {@link #createState(RuleOptions)} for each YAML content checked and is then passed to each call to
+ * {@link #check(RuleOptions, Token, Token, Token, Token, Object)}. By default, this state is a context map.
+ * <p>
+ * A token rule also tells the linter the types of tokens it checks with {@link #getTokenIds(RuleOptions)}: the other
+ * tokens are not passed to the rule (they remain available as previous or next tokens).
  */
 public abstract class TokenRule extends Rule {
     /**
-     * Checks the passed token and returns some problems if any
+     * Key of the context map under which the state of the rule is stored when
+     * {@link #check(Map, Token, Token, Token, Token, Map)} is called on a rule with its own state type
+     */
+    static final String STATE_KEY = "state";
+
+    private final boolean mapCheck = overrides(TokenRule.class, "check", Map.class, Token.class, Token.class, Token.class, Token.class, Map.class);
+    private final boolean typedState = overrides(TokenRule.class, "createState", RuleOptions.class);
+
+
+    /**
+     * Checks the passed token and returns some problems if any. This method is kept for the rules written against
+     * the configuration map: its default implementation compiles the configuration with {@link #compileOptions(Map)}
+     * and calls {@link #check(RuleOptions, Token, Token, Token, Token, Object)}. A rule must override either this method
+     * or the latter. If the rule has its own state type, the state is created on the first call and kept in the
+     * context map.
      *
      * @param conf the rule configuration
      * @param token the token to be checked
@@ -36,7 +60,70 @@ public abstract class TokenRule extends Rule {
      * @param context a context map used to propagate info between rules
      * @return a list of problems. The list is empty if no problem found (it never returns {@code null})
      */
-    public abstract List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context);
+    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+        RuleOptions options = compileOptions(conf);
+        return check(options, token, prev, next, nextnext, typedState ? context.computeIfAbsent(STATE_KEY, k -> createState(options)) : context);
+    }
+
+    /**
+     * Creates the object in which the rule keeps its state while checking the tokens of one YAML content. Rules that
+     * need to keep track of the previous tokens should override this method to return a dedicated mutable object
+     * rather than storing boxed values in a map.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @return a new state object. The default implementation returns an empty context map.
+     */
+    public Object createState(RuleOptions options) {
+        return new HashMap<String, Object>();
+    }
+
+    /**
+     * Checks the passed token and returns some problems if any. This is the method called by the linter. Its default
+     * implementation calls {@link #check(Map, Token, Token, Token, Token, Map)} with the configuration the options were
+     * compiled from and the state as context map, for the rules that override the latter.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @param token the token to be checked
+     * @param prev the previous token
+     * @param next the next token
+     * @param nextnext the next next token
+     * @param state the state of the rule, as returned by {@link #createState(RuleOptions)}
+     * @return a list of problems. The list is empty if no problem found (it never returns {@code null})
+     * @throws UnsupportedOperationException if the rule overrides none of the <code>check</code> methods
+     */
+    @SuppressWarnings("unchecked")
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        if (!mapCheck) {
+            throw new UnsupportedOperationException("Rule " + getId() + " does not implement any check method");
+        }
+        return check(options.asMap(), token, prev, next, nextnext, (Map<String, Object>)state);
+    }
+
+    /**
+     * Returns the IDs of the tokens checked by this rule with the passed options. The <code>check</code> methods are
+     * only called for these tokens: the state of the rule is not updated with the others. The default implementation
+     * returns all the token IDs.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @return a set of token IDs
+     */
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.allOf(Token.ID.class);
+    }
+
+    /**
+     * Tells if the problems found by this rule in a document only depend on this document, i.e. if the state of the
+     * rule learnt from the tokens of the previous documents has no effect on the next documents. If so, a YAML
+     * content can be re-checked from the start of any of its documents. The default implementation returns
+     * <code>true</code>, except for the rules written against the configuration map, whose state kept in the context
+     * map is unknown: override it in rules whose state carries over from one document to the next.
+     *
+     * @param options the rule options, as returned by {@link #compileOptions(Map)}
+     * @return <code>true</code> if this rule can check a document independently of the previous ones
+     */
+    public boolean isDocumentScoped(RuleOptions options) {
+        return !mapCheck;
+    }
 
     @Override
     public TYPE getType() {
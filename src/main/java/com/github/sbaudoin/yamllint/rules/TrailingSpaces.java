@@ -20,7 +20,6 @@ import com.github.sbaudoin.yamllint.Parser;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Use this rule to forbid trailing spaces at the end of lines.
@@ -42,7 +41,7 @@ import java.util.Map;
  */
 public class TrailingSpaces extends LineRule {
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+    public List<LintProblem> check(RuleOptions options, Parser.Line line) {
         List<LintProblem> problems = new ArrayList<>();
 
         if (line.getEnd() == 0) {
@@ -43,6 +43,9 @@ import java.util.stream.Collectors;
  *     <li>{@code check-keys} disables verification for keys in mappings. By default,
  *         {@code truthy} rule applies to both keys and values. Set this option to {@code false}
  *         to prevent this.</li>
+ *     <li>{@code yaml-1.1-booleans} also checks the single-letter booleans of YAML 1.1:
+ *         {@code 'Y'}, {@code 'y'}, {@code 'N'} and {@code 'n'}, which may then be listed in
+ *         {@code allowed-values}. Default {@code false}.</li>
  * </ul>
  *
  * <p>Examples:</p>
@@ -114,6 +117,13 @@ import java.util.stream.Collectors;
  *     on:   On
  *     true: True
  * </pre>
+ *
+ * <p>With <code>truthy: {yaml-1.1-booleans: true}</code>
+ * the following code snippet would **FAIL**:
+ * <pre>
+ *     - y
+ *     - N
+ * </pre>
  */
 public class Truthy extends TokenRule {
     private static final List<String> TRUTHY_TOKENS = Arrays.asList("YES", "Yes", "yes",
@@ -122,50 +132,120 @@ public class Truthy extends TokenRule {
             "FALSE", "False", "false",
             "ON", "On", "on",
             "OFF", "Off", "off");
+    /**
+     * Single-letter booleans of YAML 1.1, only checked with the {@code yaml-1.1-booleans} option
+     */
+    private static final List<String> YAML_1_1_TOKENS = Arrays.asList("Y", "y", "N", "n");
+    /**
+     * Length of the longest truthy value
+     */
+    private static final int MAX_LENGTH = 5;
 
 
     /**
      * Name of the "allowed-values" option
      */
-    public static final String OPTION_ALLOWED_VALUES = "allowed-values";
+    public static final String OPTION_ALLOWED_VALUES    = "allowed-values";
     /**
      * Name of the "check-keys" option
      */
-    public static final String OPTION_CHECK_KEYS     = "check-keys";
+    public static final String OPTION_CHECK_KEYS        = "check-keys";
+    /**
+     * Name of the "yaml-1.1-booleans" option
+     */
+    public static final String OPTION_YAML_1_1_BOOLEANS = "yaml-1.1-booleans";
 
 
     /**
      * Constructor. Sets default values to rule options.
      */
     public Truthy() {
-        registerListOption(OPTION_ALLOWED_VALUES, TRUTHY_TOKENS, Arrays.asList("true", "false"));
+        List<String> allValues = new ArrayList<>(TRUTHY_TOKENS);
+        allValues.addAll(YAML_1_1_TOKENS);
+        registerListOption(OPTION_ALLOWED_VALUES, allValues, Arrays.asList("true", "false"));
         registerOption(OPTION_CHECK_KEYS, true);
+        registerOption(OPTION_YAML_1_1_BOOLEANS, false);
     }
 
 
-    @SuppressWarnings("unchecked")
     @Override
-    public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+    public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+        Options opts = (Options)options;
         List<LintProblem> problems = new ArrayList<>();
 
         if (prev instanceof TagToken) {
             return problems;
         }
 
-        if (!(boolean)conf.get(OPTION_CHECK_KEYS) && prev instanceof KeyToken && token instanceof ScalarToken) {
+        if (!opts.checkKeys && prev instanceof KeyToken && token instanceof ScalarToken) {
             return problems;
         }
 
         if (token instanceof ScalarToken) {
-            List<?> forbiddenTokens = TRUTHY_TOKENS.stream().filter(i -> !((List<?>)conf.get(OPTION_ALLOWED_VALUES)).contains(i)).collect(Collectors.toList());
-            if (forbiddenTokens.stream().anyMatch(truthy -> truthy.equals(((ScalarToken)token).getValue())) &&
+            if (opts.isForbidden(((ScalarToken)token).getValue()) &&
                     ((ScalarToken)token).getStyle() == DumperOptions.ScalarStyle.PLAIN) {
                 problems.add(new LintProblem(token.getStartMark().getLine() + 1,
                         token.getStartMark().getColumn() + 1,
-                        String.format("truthy value should be one of [%s]", String.join(", ", (List<String>)conf.get(OPTION_ALLOWED_VALUES)))));
+                        opts.message));
             }
         }
 
         return problems;
     }
+
+    @Override
+    public RuleOptions compileOptions(Map<?, ?> conf) {
+        return new Options(conf);
+    }
+
+    @Override
+    public Set<Token.ID> getTokenIds(RuleOptions options) {
+        return EnumSet.of(Token.ID.Scalar);
+    }
+
+
+    /**
+     * Returns the slot of a value in the table of the forbidden values. The truthy values all have a different slot.
+     *
+     * @param value a value of 1 to {@link #MAX_LENGTH} characters
+     * @return an index between 0 and 127
+     */
+    static int slot(String value) {
+        return (value.charAt(0) * 2 + value.charAt(value.length() - 1) + value.length()) & 127;
+    }
+
+
+    /**
+     * Compiled options of this rule
+     */
+    private static class Options extends RuleOptions {
+        private final boolean checkKeys;
+        /**
+         * Forbidden values indexed by slot, so that a value is looked up with a single comparison
+         */
+        private final String[] forbiddenValues = new String[128];
+        private final String message;
+
+        Options(Map<?, ?> conf) {
+            super(conf);
+            checkKeys = (boolean)conf.get(OPTION_CHECK_KEYS);
+            List<?> allowedValues = (List<?>)conf.get(OPTION_ALLOWED_VALUES);
+            List<String> values = new ArrayList<>(TRUTHY_TOKENS);
+            if ((boolean)conf.get(OPTION_YAML_1_1_BOOLEANS)) {
+                values.addAll(YAML_1_1_TOKENS);
+            }
+            values.stream().filter(i -> !allowedValues.contains(i)).forEach(i -> forbiddenValues[slot(i)] = i);
+            message = String.format("truthy value should be one of [%s]", allowedValues.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+
+        /**
+         * Tells if a value is a forbidden truthy value
+         *
+         * @param value a scalar value
+         * @return <code>true</code> if the value is forbidden
+         */
+        boolean isForbidden(String value) {
+            return !value.isEmpty() && value.length() <= MAX_LENGTH && value.equals(forbiddenValues[slot(value)]);
+        }
+    }
 }
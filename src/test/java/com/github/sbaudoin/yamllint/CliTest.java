@@ -19,7 +19,9 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
@@ -110,6 +112,127 @@ class CliTest {
                 new HashSet<>(Arrays.asList(std.toString().trim().split(System.lineSeparator()))));
     }
 
+    @Test
+    void testJobs() throws Exception {
+        String dirPath = "src" + File.separator + "test" + File.separator + "resources";
+
+        // Reference: files linted one after the other
+        Cli cli = new Cli();
+        ByteArrayOutputStream std = new ByteArrayOutputStream();
+        cli.setStdOutputStream(std);
+        int statusCode = catchSystemExit(() -> cli.run(new String[] { "-j", "1", dirPath }));
+        assertEquals(1, statusCode);
+        String expected = std.toString();
+        assertTrue(expected.contains("cli2.yml") && expected.contains("cli3.yaml"));
+
+        for (String jobs : Arrays.asList("2", "4", "16")) {
+            Cli parallelCli = new Cli();
+            ByteArrayOutputStream parallelStd = new ByteArrayOutputStream();
+            parallelCli.setStdOutputStream(parallelStd);
+            statusCode = catchSystemExit(() -> parallelCli.run(new String[] { "--jobs", jobs, dirPath }));
+            assertEquals(1, statusCode);
+            assertEquals(expected, parallelStd.toString());
+        }
+
+        // Exit code semantics
+        String subPath = dirPath + File.separator + "recursive" + File.separator + "sub";
+        Cli strictCli = new Cli();
+        strictCli.setStdOutputStream(new ByteArrayOutputStream());
+        assertEquals(2, catchSystemExit(() -> strictCli.run(new String[] { "-s", "-j", "3", subPath })));
+    }
+
+    @Test
+    void testWrongJobs() throws Exception {
+        for (String jobs : Arrays.asList("0", "-1", "abc", "99999999999")) {
+            Cli cli = new Cli();
+
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            cli.setErrOutputStream(err);
+
+            int statusCode = catchSystemExit(() -> cli.run(new String[] { "-j", jobs, "src" }));
+            assertEquals(1, statusCode);
+            assertTrue(err.toString().contains("Error: invalid number of jobs '" + jobs + "'"));
+        }
+    }
+
+    @Test
+    void testSyntaxOnly() throws Exception {
+        String path = "src" + File.separator + "test" + File.separator + "resources" + File.separator + "cli1.yml";
+
+        Cli cli = new Cli();
+
+        ByteArrayOutputStream std = new ByteArrayOutputStream();
+        cli.setStdOutputStream(std);
+
+        int statusCode = catchSystemExit(() -> cli.run(new String[] { "--syntax-only", "-f", "parsable", path }));
+        assertEquals(1, statusCode);
+        assertEquals(path + ":3:16::error:syntax error: mapping values are not allowed here" + System.lineSeparator(),
+                std.toString());
+
+        String validPath = "src" + File.separator + "test" + File.separator + "resources" + File.separator + "recursive" + File.separator + "sub" + File.separator + "cli3.yaml";
+        Cli validCli = new Cli();
+        ByteArrayOutputStream validStd = new ByteArrayOutputStream();
+        validCli.setStdOutputStream(validStd);
+        assertEquals(0, catchSystemExit(() -> validCli.run(new String[] { "--syntax-only", "-s", validPath })));
+        assertEquals("", validStd.toString());
+    }
+
+    @Test
+    void testLimits() throws Exception {
+        Path file = Files.createTempFile("yamllint", ".yml");
+        try {
+            Files.write(file, "---\na: 1  \nb: 2  \na: 3  \n".getBytes(StandardCharsets.UTF_8));
+            String path = file.toString();
+            String conf = "rules: {trailing-spaces: enable, key-duplicates: enable}";
+
+            Cli cli = new Cli();
+            ByteArrayOutputStream std = new ByteArrayOutputStream();
+            cli.setStdOutputStream(std);
+            int statusCode = catchSystemExit(() -> cli.run(new String[] { "-f", "parsable", "-d", conf, "--max-problems-per-rule", "1", path }));
+            assertEquals(1, statusCode);
+            assertEquals(path + ":2:5:trailing-spaces:error:trailing spaces" + System.lineSeparator() +
+                    path + ":4:1:key-duplicates:error:duplication of key 'a' in mapping" + System.lineSeparator(), std.toString());
+
+            Cli maxCli = new Cli();
+            ByteArrayOutputStream maxStd = new ByteArrayOutputStream();
+            maxCli.setStdOutputStream(maxStd);
+            statusCode = catchSystemExit(() -> maxCli.run(new String[] { "-f", "parsable", "-d", conf, "--max-problems", "1", path }));
+            assertEquals(1, statusCode);
+            assertEquals(path + ":2:5:trailing-spaces:error:trailing spaces" + System.lineSeparator(), maxStd.toString());
+
+            // A syntax error after the maximum number of problems still fails the file
+            Files.write(file, "---\na: yes\nb: yes\nc: yes\nd: [\n".getBytes(StandardCharsets.UTF_8));
+            Cli syntaxCli = new Cli();
+            ByteArrayOutputStream syntaxStd = new ByteArrayOutputStream();
+            syntaxCli.setStdOutputStream(syntaxStd);
+            statusCode = catchSystemExit(() -> syntaxCli.run(new String[] { "-f", "parsable", "--max-problems", "2", path }));
+            assertEquals(1, statusCode);
+            String[] syntaxLines = syntaxStd.toString().split(System.lineSeparator());
+            assertEquals(2, syntaxLines.length);
+            assertTrue(syntaxLines[1].startsWith(path + ":6:1::error:syntax error: "));
+        } finally {
+            Files.delete(file);
+        }
+
+        // Fail fast: the files after the first one with an error are not reported
+        Cli failFastCli = new Cli();
+        ByteArrayOutputStream failFastStd = new ByteArrayOutputStream();
+        failFastCli.setStdOutputStream(failFastStd);
+        int statusCode = catchSystemExit(() -> failFastCli.run(new String[] { "-f", "parsable", "--fail-fast", "-j", "2", "src" + File.separator + "test" + File.separator + "resources" }));
+        assertEquals(1, statusCode);
+        String[] lines = failFastStd.toString().split(System.lineSeparator());
+        assertTrue(Arrays.stream(lines).allMatch(line -> line.startsWith("src" + File.separator + "test" + File.separator + "resources" + File.separator + "cli1.yml:")));
+        assertTrue(lines[lines.length - 1].contains(":error:"));
+
+        for (String max : Arrays.asList("0", "-1", "abc")) {
+            Cli wrongCli = new Cli();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            wrongCli.setErrOutputStream(err);
+            assertEquals(1, catchSystemExit(() -> wrongCli.run(new String[] { "--max-problems", max, "src" })));
+            assertTrue(err.toString().contains("Error: invalid maximum number of problems '" + max + "'"));
+        }
+    }
+
     @Test
     void testStrict() throws Exception {
         final String dirPath = "src" + File.separator + "test" + File.separator + "resources" + File.separator + "recursive" + File.separator + "sub";
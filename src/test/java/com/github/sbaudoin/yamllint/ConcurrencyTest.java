@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyTest {
+    /**
+     * Configurations that configure the same rules differently
+     */
+    private static final String[] CONFIGS = {
+            "extends: default\n",
+            "extends: relaxed\n",
+            "extends: default\n" +
+                    "rules:\n" +
+                    "  line-length:\n" +
+                    "    max: 20\n" +
+                    "    level: warning\n" +
+                    "  indentation:\n" +
+                    "    spaces: 4\n" +
+                    "  document-start:\n" +
+                    "    ignore: .*example-2\\..*\n"
+    };
+
+
+    @Test
+    void testConcurrentRuns() throws Exception {
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(Paths.get("src", "test", "resources", "yaml-1.2-spec-examples"))) {
+            files = paths.sorted().collect(Collectors.toList());
+        }
+        files.add(Paths.get("src", "test", "resources", "cli1.yml"));
+
+        // Single-threaded reference results
+        YamlLintConfig[] configs = new YamlLintConfig[CONFIGS.length];
+        Map<String, List<String>> expected = new HashMap<>();
+        for (int i = 0; i < CONFIGS.length; i++) {
+            configs[i] = new YamlLintConfig(CONFIGS[i]);
+            for (Path file : files) {
+                expected.put(i + ":" + file, lint(configs[i], file));
+            }
+        }
+
+        // Same runs, concurrently, with shared configurations and with configurations created on the fly
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int round = 0; round < 4; round++) {
+            boolean shared = (round % 2 == 0);
+            for (int i = 0; i < CONFIGS.length; i++) {
+                int index = i;
+                for (Path file : files) {
+                    tasks.add(() -> {
+                        YamlLintConfig conf = shared ? configs[index] : new YamlLintConfig(CONFIGS[index]);
+                        String key = index + ":" + file;
+                        assertEquals(expected.get(key), lint(conf, file), key);
+                        return null;
+                    });
+                }
+            }
+        }
+        Collections.shuffle(tasks, new Random(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Lints a file and returns the problems found as strings that include all their attributes
+     *
+     * @param conf a lint configuration
+     * @param file the file to be linted
+     * @return the problems found
+     * @throws IOException if the file cannot be read
+     */
+    private List<String> lint(YamlLintConfig conf, Path file) throws IOException {
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        return Linter.run(content, conf, file.toFile()).stream()
+                .map(p -> p.getLine() + ":" + p.getColumn() + ":" + p.getLevel() + ":" + p.getRuleId() + ":" + p.getMessage())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineIndexTest {
+    @Test
+    void testBoundaries() {
+        LineIndex index = new LineIndex("");
+        assertEquals(1, index.getLineCount());
+        assertEquals(0, index.getStart(1));
+        assertEquals(0, index.getEnd(1));
+
+        index = new LineIndex("---\r\nkey: value\n  - item\n\n");
+        assertEquals(5, index.getLineCount());
+        assertEquals(0, index.getStart(1));
+        assertEquals(3, index.getEnd(1));
+        assertEquals(5, index.getStart(2));
+        assertEquals(15, index.getEnd(2));
+        assertEquals(24, index.getEnd(3));
+        assertEquals(25, index.getStart(4));
+        assertEquals(25, index.getEnd(4));
+        assertEquals(26, index.getStart(5));
+        assertEquals(26, index.getEnd(5));
+        assertTrue(index.hasMixedLineBreaks());
+        assertFalse(new LineIndex("a\r\n\r\n").hasMixedLineBreaks());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> new LineIndex("a").getStart(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new LineIndex("a").getEnd(2));
+    }
+
+    @Test
+    void testLineNo() {
+        LineIndex index = new LineIndex("ab\ncd\n\nef");
+        assertEquals(1, index.getLineNo(0));
+        assertEquals(1, index.getLineNo(2));
+        assertEquals(2, index.getLineNo(3));
+        assertEquals(3, index.getLineNo(6));
+        assertEquals(4, index.getLineNo(7));
+        assertEquals(4, index.getLineNo(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.getLineNo(10));
+
+        // Many lines
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        LineIndex big = new LineIndex(sb.toString());
+        assertEquals(1001, big.getLineCount());
+        assertEquals(501, big.getLineNo(sb.indexOf("line 500")));
+        assertEquals("line 500", sb.substring(big.getStart(501), big.getEnd(501)));
+    }
+
+    @Test
+    void testIndentAndBlankLines() {
+        LineIndex index = new LineIndex("\n\nkey:\n    - a\n  \n\n\n  b\n");
+        assertEquals(0, index.getIndent(1));
+        assertEquals(0, index.getIndent(3));
+        assertEquals(4, index.getIndent(4));
+        assertEquals(2, index.getIndent(5));
+
+        assertTrue(index.isBlank(1));
+        assertFalse(index.isBlank(5));
+        assertEquals(1, index.getBlankRun(1));
+        assertEquals(2, index.getBlankRun(2));
+        assertEquals(0, index.getBlankRun(3));
+        assertEquals(0, index.getBlankRun(5));
+        assertEquals(1, index.getBlankRun(6));
+        assertEquals(2, index.getBlankRun(7));
+        assertEquals(0, index.getBlankRun(8));
+        assertEquals(1, index.getBlankRun(9));
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LintContextTest {
+    @Test
+    void testAcquire() {
+        LintContext context = LintContext.acquire();
+        try {
+            // Nested runs get their own context
+            LintContext nested = LintContext.acquire();
+            assertNotSame(context, nested);
+            nested.release();
+        } finally {
+            context.release();
+        }
+
+        // The context of the thread is reused once released
+        LintContext again = LintContext.acquire();
+        again.release();
+        assertSame(context, again);
+    }
+
+    @Test
+    void testRead() throws IOException {
+        byte[] big = new byte[100 * 1024];
+        Arrays.fill(big, (byte)'a');
+        byte[] small = "key: value\n".getBytes();
+
+        LintContext context = LintContext.acquire();
+        try {
+            ByteBuffer bytes = context.read(new ByteArrayInputStream(big));
+            assertEquals(big.length, bytes.remaining());
+            assertEquals(ByteBuffer.wrap(big), bytes);
+
+            bytes = context.read(new ByteArrayInputStream(small));
+            assertEquals(small.length, bytes.remaining());
+            assertEquals(ByteBuffer.wrap(small), bytes);
+
+            bytes = context.read(new ByteArrayInputStream(new byte[0]));
+            assertEquals(0, bytes.remaining());
+        } finally {
+            context.release();
+        }
+    }
+
+    @Test
+    void testSuccessiveRuns() throws IOException, YamlLintConfigException {
+        YamlLintConfig conf = new YamlLintConfig("extends: default");
+        String longContent = "---\n" + String.join("", Collections.nCopies(2000, "- item   \n"));
+        String shortContent = "---\nkey: value\n";
+
+        assertEquals(2000, Linter.run(new ByteArrayInputStream(longContent.getBytes()), conf).size());
+        assertEquals(0, Linter.run(new ByteArrayInputStream(shortContent.getBytes()), conf).size());
+        assertEquals(Linter.run(longContent, conf).size(), Linter.run(new ByteArrayInputStream(longContent.getBytes()), conf).size());
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.scanner.ScannerException;
+import org.yaml.snakeyaml.tokens.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LintParserTest {
+    @Test
+    void testSameTokensAsScanner() {
+        String[] buffers = {
+                "key1: value\nkey2: [a, b, {c: d}]\n",
+                "---\n- a\nb: c\n",
+                "key: [a, b\n",
+                "? a\n? b\n: c\n  d: e\n",
+                "%YAML 1.1\n%YAML 1.1\n---\na\n"
+        };
+        for (String buffer : buffers) {
+            assertEquals(getTokens(new LintScanner(new LintStreamReader(buffer))),
+                    getTokens(new LintParser(new LintStreamReader(buffer))), buffer);
+        }
+    }
+
+    @Test
+    void testScannerError() {
+        LintParser parser = new LintParser(new LintStreamReader("key: 'value\n"));
+        assertThrows(ScannerException.class, () -> {
+            while (parser.getToken() != null) {
+                // Do nothing: we just want to go through all token
+            }
+        });
+        assertThrows(ScannerException.class, parser::hasMoreTokens);
+        LintProblem problem = parser.getSyntaxError();
+        assertNotNull(problem);
+        assertEquals(2, problem.getLine());
+        assertEquals(1, problem.getColumn());
+    }
+
+    @Test
+    void testHasMoreTokens() {
+        LintParser parser = new LintParser(new LintStreamReader("key1: value\nkey2: value"));
+        assertTrue(parser.hasMoreTokens()); // StreamStartToken
+        for (int i = 0; i < 11; i++) {
+            parser.getToken();
+        }
+        assertTrue(parser.hasMoreTokens());
+        parser.getToken(); // StreamEndToken
+        assertFalse(parser.hasMoreTokens());
+        assertNull(parser.peekToken());
+        assertNull(parser.getToken());
+    }
+
+    @Test
+    void testGetSyntaxError() {
+        assertNull(new LintParser(new LintStreamReader("key1: value\nkey2: value")).getSyntaxError());
+
+        LintParser parser = new LintParser(new LintStreamReader("key1: value\nkey2: value: error\nkey3: value\n"));
+        LintProblem problem = parser.getSyntaxError();
+        assertEquals(2, problem.getLine());
+        assertEquals(12, problem.getColumn());
+        assertEquals("syntax error: mapping values are not allowed here", problem.getDesc());
+        assertEquals(Linter.ERROR_LEVEL, problem.getLevel());
+        // All tokens must still be available
+        assertNotNull(parser.getToken());
+
+        problem = new LintParser(new LintStreamReader("key1: value\nkey2: value\u0007\n")).getSyntaxError();
+        assertEquals(2, problem.getLine());
+        assertEquals(12, problem.getColumn());
+        assertEquals("syntax error: special characters are not allowed", problem.getDesc());
+    }
+
+
+    private static List<String> getTokens(LintScanner scanner) {
+        List<String> tokens = new ArrayList<>();
+        try {
+            Token token;
+            while ((token = scanner.getToken()) != null) {
+                tokens.add(token.getTokenId() + "@" + token.getStartMark().getIndex());
+            }
+        } catch (ScannerException e) {
+            tokens.add(e.getProblem());
+        }
+        return tokens;
+    }
+}
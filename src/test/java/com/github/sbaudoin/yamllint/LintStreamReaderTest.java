@@ -16,9 +16,13 @@
 package com.github.sbaudoin.yamllint;
 
 import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.error.Mark;
 
 import java.io.PipedReader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +59,39 @@ class LintStreamReaderTest {
         assertEquals('\u0000', reader.peek());
     }
 
+    @Test
+    void testForwardMarks() {
+        String s = "key: value\r\n- \u00e9t\u00e9\rx\u2028y\uFEFF\tz \uD83D\uDE00\n\u0085end";
+        int[] codePoints = LintStreamReader.toCodePoints(s);
+        assertEquals(s.codePointCount(0, s.length()), codePoints.length);
+
+        // Forwarding one code point at a time or all at once gives the same marks as computing them directly
+        LintStreamReader reader = new LintStreamReader(s);
+        for (int i = 0; i < codePoints.length; i++) {
+            assertEquals(reader.getMark(i).toString(), reader.getMark().toString());
+            assertEquals(reader.getMark(i).getColumn(), reader.getColumn());
+            assertEquals(reader.getMark(i).getLine(), reader.getLine());
+            reader.forward(1);
+        }
+        LintStreamReader other = new LintStreamReader(s);
+        other.forward(codePoints.length + 10);
+        assertEquals(reader.getLine(), other.getLine());
+        assertEquals(reader.getColumn(), other.getColumn());
+        assertEquals(codePoints.length, other.getIndex());
+        assertEquals(5, other.getLine());
+        assertEquals(3, other.getColumn());
+        assertEquals(-1, other.getNonPrintablePointer());
+        assertEquals(1, new LintStreamReader("a\u0001").getNonPrintablePointer());
+
+        // The mark of a position is only created once
+        assertSame(other.getMark(), other.getMark());
+        reader = new LintStreamReader(s);
+        Mark mark = reader.getMark();
+        reader.forward(1);
+        assertNotSame(mark, reader.getMark());
+        assertEquals(1, reader.getMark().getPointer());
+    }
+
     @Test
     void testPeekInt() {
         LintStreamReader reader = new LintStreamReader("test");
@@ -67,4 +104,31 @@ class LintStreamReaderTest {
         assertEquals('s', reader.peek(1));
         assertEquals('t', reader.peek(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDecodeUtf8() throws MalformedInputException {
+        String s = "a\u00e9\u4e2d\uD83D\uDE00";
+        assertArrayEquals(s.codePoints().toArray(), LintStreamReader.decodeUtf8(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8))));
+        assertArrayEquals(new int[0], LintStreamReader.decodeUtf8(ByteBuffer.allocate(0)));
+
+        // Truncated, overlong, invalid lead byte and encoded surrogate
+        for (byte[] bytes : new byte[][] {
+                { (byte)0xE4, (byte)0xB8 },
+                { (byte)0xC0, (byte)0xAF },
+                { (byte)0x80 },
+                { (byte)0xED, (byte)0xA0, (byte)0x80 } }) {
+            assertThrows(MalformedInputException.class, () -> LintStreamReader.decodeUtf8(ByteBuffer.wrap(bytes)));
+        }
+    }
+
+    @Test
+    void testBulkRead() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("key").append(i).append(": \uD83D\uDE00\n");
+        }
+        LintStreamReader reader = new LintStreamReader(new StringReader(sb.toString()));
+        assertArrayEquals(sb.codePoints().toArray(), reader.getMark().getBuffer());
+        assertEquals(sb.codePoints().count(), new LintStreamReader(sb.toString()).getMark().getBuffer().length);
+    }
+}
@@ -21,10 +21,23 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.github.sbaudoin.yamllint.rules.RuleTester.getFakeConfig;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class LinterTest {
     @Test
@@ -74,6 +87,399 @@ class LinterTest {
         assertEquals(0, Linter.run(conf, new File("foo.bar")).size());
     }
 
+    @Test
+    void testRunOnPath() throws IOException, YamlLintConfigException {
+        Path file = Files.createTempFile("yamllint", ".yml");
+        try {
+            String s = "---\n" +
+                    "- hétérogénéité\n" +
+                    "- \uD83D\uDE00  # comment\n";
+            Files.write(file, s.getBytes(StandardCharsets.UTF_8));
+            assertEquals(0, Linter.run(getFakeConfig(), file).size());
+
+            // Big enough to be memory-mapped
+            StringBuilder sb = new StringBuilder("---\n");
+            for (int i = 0; i < 20000; i++) {
+                sb.append("- \"お早う御座います ").append(i).append("\"\n");
+            }
+            sb.append("key: value: error\n");
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+            List<LintProblem> problems = Linter.run(getFakeConfig(), file);
+            assertEquals(1, problems.size());
+            assertEquals(20002, problems.get(0).getLine());
+            assertEquals(problems, Linter.run(sb, getFakeConfig()));
+
+            Files.write(file, new byte[] { 'a', ':', ' ', (byte)0xC3, (byte)0x28 });
+            assertThrows(MalformedInputException.class, () -> Linter.run(getFakeConfig(), file));
+
+            assertEquals(0, Linter.run(new YamlLintConfig("ignore: .*\\.yml$"), file).size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRunWithBom() throws IOException, YamlLintConfigException {
+        String s = "---\n" +
+                "key: value\n";
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        byte[] bom = new byte[utf8.length + 3];
+        bom[0] = (byte)0xEF;
+        bom[1] = (byte)0xBB;
+        bom[2] = (byte)0xBF;
+        System.arraycopy(utf8, 0, bom, 3, utf8.length);
+        assertEquals(0, Linter.run(new ByteArrayInputStream(bom), getFakeConfig()).size());
+        assertEquals(0, Linter.run(new ByteArrayInputStream(("\uFEFF" + s).getBytes(StandardCharsets.UTF_16BE)), getFakeConfig()).size());
+        assertEquals(0, Linter.run(new ByteArrayInputStream(("\uFEFF" + s).getBytes(StandardCharsets.UTF_16LE)), getFakeConfig()).size());
+    }
+
+    @Test
+    void testPlan() throws YamlLintConfigException {
+        String source = "a: 1  \n" +
+                "# yamllint disable rule:trailing-spaces\n" +
+                "b: [1 ,2]  \n";
+
+        // Only line rules: directives still apply
+        YamlLintConfig conf = new YamlLintConfig("rules:\n  trailing-spaces: enable\n");
+        List<LintProblem> problems = Linter.run(source, conf);
+        assertEquals(1, problems.size());
+        assertEquals("trailing-spaces", problems.get(0).getRuleId());
+        assertEquals(1, problems.get(0).getLine());
+
+        // Only token rules: neither comments nor lines needed
+        conf = new YamlLintConfig("rules:\n  commas: enable\n");
+        problems = Linter.run(source.replace("# yamllint", "#"), conf);
+        assertEquals(2, problems.size());
+        assertEquals("commas", problems.get(0).getRuleId());
+        assertEquals(3, problems.get(0).getLine());
+        assertEquals(6, problems.get(0).getColumn());
+        assertEquals(8, problems.get(1).getColumn());
+
+        // No rule: only the syntax is checked
+        conf = new YamlLintConfig("rules: {}");
+        assertEquals(0, Linter.run(source, conf).size());
+        problems = Linter.run("key: [value\n", conf);
+        assertEquals(1, problems.size());
+        assertEquals(Linter.ERROR_LEVEL, problems.get(0).getLevel());
+        assertEquals(problems.get(0), Linter.getSyntaxError("key: [value\n"));
+
+        assertTrue(Linter.Plan.of(Collections.emptyList(), new int[0][], source).isSyntaxOnly());
+        Linter.Plan plan = Linter.Plan.of(new YamlLintConfig("rules:\n  commas: enable\n").getEnabledRules(null), new int[][] { { 0 } }, source);
+        assertTrue(plan.tokens);
+        assertTrue(plan.comments);
+        assertTrue(plan.lines);
+        plan = Linter.Plan.of(new YamlLintConfig("rules:\n  commas: enable\n").getEnabledRules(null), new int[][] { { 0 } }, "a: 1\n");
+        assertTrue(plan.tokens);
+        assertFalse(plan.comments);
+        assertFalse(plan.lines);
+        plan = Linter.Plan.of(new YamlLintConfig("rules:\n  comments: enable\n").getEnabledRules(null), new int[][] { {} }, "a: 1\n");
+        assertFalse(plan.tokens);
+        assertTrue(plan.comments);
+        assertFalse(plan.lines);
+    }
+
+    @Test
+    void testGetSyntaxErrorOnStream() throws IOException {
+        assertNull(Linter.getSyntaxError(new ByteArrayInputStream("key: value\n".getBytes(StandardCharsets.UTF_8))));
+
+        LintProblem problem = Linter.getSyntaxError(new ByteArrayInputStream("key: [value\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Linter.getSyntaxError("key: [value\n"), problem);
+        assertEquals(2, problem.getLine());
+        assertEquals(Linter.ERROR_LEVEL, problem.getLevel());
+
+        problem = Linter.getSyntaxError(new ByteArrayInputStream("\uFEFFkey: [value\n".getBytes(StandardCharsets.UTF_16LE)));
+        assertEquals(Linter.getSyntaxError("key: [value\n"), problem);
+    }
+
+    @Test
+    void testLimits() throws YamlLintConfigException, IOException {
+        String source = "---\n" +
+                "a: 1  \n" +
+                "b: 2  \n" +
+                "c: [3 ,4]  \n" +
+                "d: 5  \n";
+        YamlLintConfig conf = new YamlLintConfig("rules:\n" +
+                "  commas: enable\n" +
+                "  trailing-spaces: {level: warning}\n");
+        List<LintProblem> all = Linter.run(source, conf);
+        assertEquals(6, all.size());
+        assertEquals(all, Linter.run(source, conf, null, LintLimits.NONE));
+
+        // Per file
+        assertEquals(all.subList(0, 3), Linter.run(source, conf, null, new LintLimits(3, 0, false)));
+        assertEquals(all, Linter.run(source, conf, null, new LintLimits(6, 0, false)));
+
+        // Per rule
+        List<LintProblem> problems = Linter.run(source, conf, null, new LintLimits(0, 2, false));
+        assertEquals(4, problems.size());
+        assertEquals(2, problems.stream().filter(problem -> "trailing-spaces".equals(problem.getRuleId())).count());
+        assertEquals(3, problems.get(1).getLine());
+        assertEquals("commas", problems.get(2).getRuleId());
+        assertEquals("commas", problems.get(3).getRuleId());
+
+        // Fail fast: stop at the first error
+        problems = Linter.run(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), conf, null, new LintLimits(0, 0, true));
+        assertEquals(3, problems.size());
+        assertEquals("commas", problems.get(2).getRuleId());
+        assertEquals(Linter.ERROR_LEVEL, problems.get(2).getLevel());
+
+        // The syntax error is still reported when the maximum number of problems is reached
+        problems = Linter.run(source + "e: [6\n", conf, null, new LintLimits(2, 0, false));
+        assertEquals(2, problems.size());
+        assertEquals(all.get(0), problems.get(0));
+        assertEquals(Linter.getSyntaxError(source + "e: [6\n"), problems.get(1));
+        problems = Linter.run("a: b: c\nd: 1  \n", conf, null, new LintLimits(1, 0, false));
+        assertEquals(1, problems.size());
+        assertEquals(Linter.ERROR_LEVEL, problems.get(0).getLevel());
+        assertNull(problems.get(0).getRuleId());
+
+        Path file = Files.createTempFile("yamllint", ".yml");
+        try {
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            assertEquals(all.subList(0, 1), Linter.run(conf, file, new LintLimits(1, 0, false)));
+        } finally {
+            Files.delete(file);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new LintLimits(-1, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> new LintLimits(0, -1, false));
+    }
+
+    @Test
+    void testRelint() throws YamlLintConfigException {
+        String source = "---\n" +
+                "# First document\n" +
+                "key: value  \n" +
+                "list: [1 ,2]\n" +
+                "---\n" +
+                "anchor: &a {x: 1}\n" +
+                "alias: *a\n" +
+                "key: yes\n" +
+                "key: no\n" +
+                "...\n" +
+                "--- # Third document\n" +
+                "- 'quoted'\n" +
+                "-   \"double\"\n" +
+                "- nested:\n" +
+                "      - 0777\n" +
+                "\n" +
+                "\n" +
+                "\n" +
+                "---\n" +
+                "last:\n" +
+                "  - .5\n" +
+                "  - {a: 1,b: 2}   # comment\n";
+        YamlLintConfig conf = new YamlLintConfig("extends: default\n" +
+                "rules:\n" +
+                "  indentation: {spaces: 2}\n" +
+                "  quoted-strings: enable\n" +
+                "  float-values: enable\n" +
+                "  octal-values: enable\n" +
+                "  anchors: enable\n" +
+                "  key-ordering: enable\n" +
+                "  document-end: enable\n");
+
+        // Reuse of the previous problems: a fake problem found in the first document is kept
+        List<LintProblem> previous = Linter.run(source, conf);
+        LintProblem fake = new LintProblem(2, 1, "fake", "comments");
+        List<LintProblem> withFake = new ArrayList<>(previous);
+        withFake.add(0, fake);
+        assertTrue(Linter.relint(source, conf, null, withFake, source.indexOf("anchor")).contains(fake));
+        // ... but not if the edit is in the first document
+        assertEquals(previous, Linter.relint(source, conf, null, withFake, source.indexOf("list")));
+
+        // Random edits: the result is always the same as with a full lint
+        String[] inserts = { "", " ", "\n", "x", ": ", "- ", "#", "# yamllint disable\n", "---\n", "[", "'", "&b ", "*a", "\t", "k: v\n" };
+        Random random = new Random(42);
+        String buffer = source;
+        for (int i = 0; i < 500; i++) {
+            int offset = random.nextInt(buffer.length() + 1);
+            int length = random.nextInt(Math.min(3, buffer.length() - offset) + 1);
+            String edited = buffer.substring(0, offset) + inserts[random.nextInt(inserts.length)] + buffer.substring(offset + length);
+            List<LintProblem> expected = Linter.run(edited, conf);
+            assertEquals(expected, Linter.relint(edited, conf, null, Linter.run(buffer, conf), offset), "edit at " + offset + " of:\n" + edited);
+            // Start again from the original content once in a while
+            buffer = (i % 10 == 9) ? source : edited;
+        }
+
+        // Tag handles declared before the document: declared again, and used in the document
+        String tags = "%TAG !m! !my-\n---\na: 1\n---\nb: 2\n...\n%TAG !m! !my-\n---\n!m!x c\n";
+        List<LintProblem> expected = Linter.run(tags, conf);
+        assertTrue(expected.stream().anyMatch(p -> p.getLine() == 7 && p.getDesc().contains("duplicate tag handle !m!")));
+        assertEquals(expected, Linter.relint(tags, conf, null, expected, tags.indexOf("!m!x")));
+        tags = "%TAG !m! !my-\n---\na: 1\n---\nb: !m!x 2\n";
+        expected = Linter.run(tags, conf);
+        assertTrue(expected.stream().noneMatch(p -> p.getRuleId() == null));
+        assertEquals(expected, Linter.relint(tags, conf, null, expected, tags.indexOf("!m!x")));
+
+        // Default configuration: indentation is detected on the whole content
+        YamlLintConfig defaultConf = new YamlLintConfig("extends: default");
+        previous = Linter.run(source, defaultConf);
+        withFake = new ArrayList<>(previous);
+        withFake.add(0, fake);
+        assertEquals(previous, Linter.relint(source, defaultConf, null, withFake, source.indexOf("anchor")));
+
+        // Single document: there is no resync point at the top-level keys, the content is checked as a whole
+        String single = "---\n" +
+                "key: value  \n" +
+                "list: [1 ,2]\n" +
+                "other:\n" +
+                "  - {a: 1,b: 2}\n" +
+                "last: yes\n";
+        previous = Linter.run(single, conf);
+        withFake = new ArrayList<>(previous);
+        withFake.add(0, fake);
+        assertEquals(previous, Linter.relint(single, conf, null, withFake, single.indexOf("last")));
+
+        assertThrows(IllegalArgumentException.class, () -> Linter.relint(source, conf, null, Collections.emptyList(), source.length() + 1));
+    }
+
+    @Test
+    void testRunParallel() throws YamlLintConfigException {
+        StringBuilder sb = new StringBuilder("key: value  \n");
+        for (int i = 0; i < 20; i++) {
+            sb.append("---\n")
+                    .append("# Document ").append(i).append('\n')
+                    .append("list: [1 ,2]\n")
+                    .append("anchor: &a {x: 1}\n")
+                    .append("alias: *a\n")
+                    .append("key: yes\n")
+                    .append("key: no\n")
+                    .append("- 'quoted'\n")
+                    .append("nested:\n")
+                    .append("      - 0777\n")
+                    .append("\n\n\n")
+                    .append((i % 3 == 0) ? "...\n" : "");
+        }
+        String source = sb.toString();
+        YamlLintConfig conf = new YamlLintConfig("extends: default\n" +
+                "rules:\n" +
+                "  indentation: {spaces: 2}\n" +
+                "  quoted-strings: enable\n" +
+                "  octal-values: enable\n" +
+                "  anchors: enable\n" +
+                "  key-ordering: enable\n" +
+                "  document-end: enable\n");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(Linter.run(source, conf), Linter.runParallel(source, conf, null, pool));
+            assertEquals(Linter.run(source, conf), Linter.runParallel(source, conf, null));
+
+            // Random edits, including syntax errors and contents that are checked at once
+            String[] inserts = { " ", "\n", "x", ": ", "- ", "#", "# yamllint disable\n", "---\n", "[", "'", "&b ", "*a", "\t", "\u2028", "\u0001", "%YAML 1.2\n" };
+            Random random = new Random(42);
+            String buffer = source;
+            for (int i = 0; i < 200; i++) {
+                int offset = random.nextInt(buffer.length() + 1);
+                buffer = buffer.substring(0, offset) + inserts[random.nextInt(inserts.length)] + buffer.substring(offset);
+                assertEquals(Linter.run(buffer, conf), Linter.runParallel(buffer, conf, null, pool), "insert at " + offset + " of:\n" + buffer);
+                if (i % 10 == 9) {
+                    buffer = source;
+                }
+            }
+
+            // Tag handles declared again in a later document
+            String tags = "%TAG !m! !my-\n---\na: 1\n---\nb: 2\n...\n%TAG !m! !my-\n---\n!m!x c\n";
+            List<LintProblem> problems = Linter.runParallel(tags, conf, null, pool);
+            assertEquals(Linter.run(tags, conf), problems);
+            assertTrue(problems.stream().anyMatch(p -> p.getLine() == 7 && p.getDesc().contains("duplicate tag handle !m!")));
+
+            // Default configuration: indentation is detected on the whole content
+            YamlLintConfig defaultConf = new YamlLintConfig("extends: default");
+            assertEquals(Linter.run(source, defaultConf), Linter.runParallel(source, defaultConf, null, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRunStreaming() throws YamlLintConfigException, IOException {
+        StringBuilder sb = new StringBuilder("# Header\nkey: value  \n");
+        for (int i = 0; i < 20; i++) {
+            sb.append("---\n")
+                    .append("list: [1 ,2]\n")
+                    .append("anchor: &a {x: 1}\n")
+                    .append("alias: *a\n")
+                    .append("key: yes\n")
+                    .append("key: no\n")
+                    .append("nested:\n")
+                    .append("      - 0777\n")
+                    .append("\n\n\n")
+                    .append("# Comment ").append(i).append('\n')
+                    .append((i % 3 == 0) ? "...\n" : "");
+        }
+        String source = sb.toString();
+        YamlLintConfig conf = new YamlLintConfig("extends: default\n" +
+                "rules:\n" +
+                "  indentation: {spaces: 2}\n" +
+                "  quoted-strings: enable\n" +
+                "  anchors: enable\n" +
+                "  key-ordering: enable\n" +
+                "  document-end: enable\n");
+
+        List<LintProblem> problems = new ArrayList<>();
+        Linter.runStreaming(new StringReader(source), conf, null, problems::add);
+        assertEquals(Linter.run(source, conf), problems);
+
+        // Random edits, including syntax errors and contents that are read at once from the edited document
+        String[] inserts = { " ", "\n", "x", ": ", "- ", "#", "# yamllint disable\n", "---\n", "[", "'", "&b ", "*a", "\t", "\r\n", "\u2028", "\u0001", "%YAML 1.2\n" };
+        Random random = new Random(42);
+        String buffer = source;
+        for (int i = 0; i < 200; i++) {
+            int offset = random.nextInt(buffer.length() + 1);
+            buffer = buffer.substring(0, offset) + inserts[random.nextInt(inserts.length)] + buffer.substring(offset);
+            problems.clear();
+            Linter.runStreaming(new StringReader(buffer), conf, null, problems::add);
+            assertEquals(Linter.run(buffer, conf), problems, "insert at " + offset + " of:\n" + buffer);
+            if (i % 10 == 9) {
+                buffer = source;
+            }
+        }
+
+        // Documents that depend on the previous ones: tag handles and syntax errors at the start of the next document
+        String tags = "%TAG !e! tag:example.com,2000:\n" +
+                "---\n" +
+                "a: !e!foo x\n" +
+                "...\n" +
+                "---\n" +
+                "b: 1\n" +
+                "...\n" +
+                "---\n" +
+                "c: !e!foo y\n" +
+                "...\n" +
+                "%TAG !e! tag:example.com,2000:\n" +
+                "---\n" +
+                "d: 1\n";
+        String errors = "---\n" +
+                "key: value\n" +
+                "list:\n" +
+                "  - a\n" +
+                "---\n" +
+                "\tbad: 1\n";
+        String[] pieces = { "---\n", "--- # document\n", "...\n", "%TAG !e! tag:example.com,2000:\n", "%YAML 1.2\n", "a: !e!foo 1\n",
+                " b: 2\n", "- x\n", "  - y\n", "k: [1,\n", "\tbad: 1\n", "'unclosed\n", "@bad\n", "# comment\n", "\n", "e: |\n  text\n" };
+        List<String> sources = new ArrayList<>(Arrays.asList(tags, errors, errors + "---\nkey: value\n"));
+        for (int i = 0; i < 300; i++) {
+            StringBuilder generated = new StringBuilder();
+            for (int j = random.nextInt(20); j >= 0; j--) {
+                generated.append(pieces[random.nextInt(pieces.length)]);
+            }
+            sources.add(generated.toString());
+        }
+        for (String content : sources) {
+            problems.clear();
+            Linter.runStreaming(new StringReader(content), conf, null, problems::add);
+            assertEquals(Linter.run(content, conf), problems, content);
+        }
+
+        // Default configuration: indentation is detected on the whole content
+        YamlLintConfig defaultConf = new YamlLintConfig("extends: default");
+        problems.clear();
+        Linter.runStreaming(new StringReader(source), defaultConf, null, problems::add);
+        assertEquals(Linter.run(source, defaultConf), problems);
+    }
+
     @Test
     void testGetProblemLevel() {
         assertEquals(Linter.NONE_LEVEL, Linter.getProblemLevel(0));
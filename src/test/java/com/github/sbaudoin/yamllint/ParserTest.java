@@ -18,7 +18,13 @@ package com.github.sbaudoin.yamllint;
 import org.junit.jupiter.api.Test;
 import org.yaml.snakeyaml.tokens.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -162,6 +168,77 @@ class ParserTest {
         assertTrue(e.get(12) instanceof Parser.Line);
     }
 
+    @Test
+    void testIterateTokensOrCommentsOrLines() {
+        String buffer = "---\n" +
+                "k: v  # k=v\n" +
+                "# comment\n" +
+                "l: [a, b]\n";
+        Iterator<Parser.Lined> it = Parser.iterateTokensOrCommentsOrLines(buffer, new LintScanner(new LintStreamReader(buffer)));
+        List<Parser.Lined> expected = Parser.getTokensOrCommentsOrLines(buffer);
+        for (Parser.Lined elem : expected) {
+            assertTrue(it.hasNext());
+            Parser.Lined actual = it.next();
+            assertEquals(elem.getClass(), actual.getClass());
+            assertEquals(elem.getLineNo(), actual.getLineNo());
+        }
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+
+        Iterator<Parser.Line> lines = Parser.iterateLines("a\r\nb\n");
+        assertEquals("a", lines.next().getContent());
+        assertEquals("b", lines.next().getContent());
+        assertEquals("", lines.next().getContent());
+        assertFalse(lines.hasNext());
+    }
+
+    @Test
+    void testIterate() {
+        String buffer = "---\n" +
+                "k: v  # k=v\n" +
+                "# comment\n" +
+                "l: [a, b]\n";
+        List<Parser.Lined> all = Parser.getTokensOrCommentsOrLines(buffer);
+
+        List<Parser.Lined> tokens = toList(Parser.iterate(buffer, new LintScanner(new LintStreamReader(buffer)), true, false, false));
+        assertEquals(all.stream().filter(Parser.Token.class::isInstance).count(), tokens.size());
+        assertTrue(tokens.stream().allMatch(Parser.Token.class::isInstance));
+
+        List<Parser.Lined> tokensOrComments = toList(Parser.iterate(buffer, new LintScanner(new LintStreamReader(buffer)), false, true, false));
+        assertEquals(all.stream().filter(elem -> !(elem instanceof Parser.Line)).count(), tokensOrComments.size());
+        assertEquals(2, tokensOrComments.stream().filter(Parser.Comment.class::isInstance).count());
+
+        List<Parser.Lined> lines = toList(Parser.iterate(buffer, new LintScanner(new LintStreamReader(buffer)), false, false, true));
+        assertEquals(Parser.getLines(buffer).stream().map(Parser.Line::getContent).collect(Collectors.toList()),
+                lines.stream().map(line -> ((Parser.Line)line).getContent()).collect(Collectors.toList()));
+
+        List<Parser.Lined> tokensAndLines = toList(Parser.iterate(buffer, new LintScanner(new LintStreamReader(buffer)), true, false, true));
+        assertEquals(all.stream().filter(elem -> !(elem instanceof Parser.Comment)).count(), tokensAndLines.size());
+        for (int i = 1; i < tokensAndLines.size(); i++) {
+            assertTrue(tokensAndLines.get(i - 1).getLineNo() <= tokensAndLines.get(i).getLineNo());
+        }
+
+        assertFalse(Parser.iterate(buffer, null, false, false, false).hasNext());
+
+        // Reused token objects wrap the same tokens as long as they are read in turn
+        Iterator<Parser.Lined> cursors = Parser.iterate(buffer, new LintScanner(new LintStreamReader(buffer)), true, true, true, null, 1, null, true);
+        Set<Parser.Lined> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Parser.Lined elem : all) {
+            Parser.Lined cursor = cursors.next();
+            assertEquals(elem.getClass(), cursor.getClass());
+            assertEquals(elem.getLineNo(), cursor.getLineNo());
+            if (elem instanceof Parser.Token) {
+                assertSame(((Parser.Token)elem).getCurr().getTokenId(), ((Parser.Token)cursor).getCurr().getTokenId());
+                assertEquals(((Parser.Token)elem).getCurr().getStartMark().getPointer(), ((Parser.Token)cursor).getCurr().getStartMark().getPointer());
+                assertEquals(((Parser.Token)elem).getPrev() == null, ((Parser.Token)cursor).getPrev() == null);
+                assertEquals(((Parser.Token)elem).getNextNext() == null, ((Parser.Token)cursor).getNextNext() == null);
+                instances.add(cursor);
+            }
+        }
+        assertFalse(cursors.hasNext());
+        assertEquals(2, instances.size());
+    }
+
     @Test
     void testCommentEquals() {
         String buffer = "---\n" +
@@ -170,5 +247,37 @@ class ParserTest {
         assertTrue(e.get(8) instanceof Parser.Comment);
         assertNotEquals(e.get(8), e.get(4));
         assertEquals(new Parser.Comment(2, 7, buffer, 10, null, null, null), e.get(8));
+        assertEquals(new Parser.Comment(2, 7, buffer, 10, null, null, null).hashCode(), e.get(8).hashCode());
+        assertEquals(new Parser.Comment(2, 7, "# k=v", 0, null, null, null), e.get(8));
+        assertNotEquals(new Parser.Comment(2, 7, buffer + "\n", 10, null, null, null), new Parser.Comment(2, 7, "# k=", 0, null, null, null));
+        assertEquals("# k=v", e.get(8).toString());
+        assertEquals(15, ((Parser.Comment)e.get(8)).getEnd());
+    }
+
+    @Test
+    void testCommentsShareBuffer() {
+        String buffer = "---\n" +
+                "# comment 1\n" +
+                "k: v  # k=v\n" +
+                "  # comment 2\n" +
+                "# comment 3\n";
+        List<Parser.Comment> comments = Parser.getTokensOrComments(buffer).stream()
+                .filter(Parser.Comment.class::isInstance).map(Parser.Comment.class::cast).collect(Collectors.toList());
+        assertEquals(4, comments.size());
+        assertEquals("# comment 1", comments.get(0).toString());
+        assertEquals("# k=v", comments.get(1).toString());
+        assertEquals("# comment 2", comments.get(2).toString());
+        assertEquals(5, comments.get(3).getLineNo());
+        assertEquals(3, comments.get(2).getColumnNo());
+        assertEquals(comments.get(2), comments.get(3).getCommentBefore());
+        for (Parser.Comment comment : comments) {
+            assertSame(comments.get(0).getBuffer(), comment.getBuffer());
+        }
+    }
+
+    private static List<Parser.Lined> toList(Iterator<Parser.Lined> it) {
+        List<Parser.Lined> list = new ArrayList<>();
+        it.forEachRemaining(list::add);
+        return list;
     }
 }
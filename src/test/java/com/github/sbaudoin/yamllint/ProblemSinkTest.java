@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemSinkTest {
+    @Test
+    void testOrder() {
+        ProblemSink sink = new ProblemSink();
+        sink.add(new LintProblem(2, 1, "desc-a", "rule-b"), 1);
+        sink.add(new LintProblem(3, 5, "desc-b", "rule-a"), 0);
+        sink.add(new LintProblem(1, 4, "desc-c", "rule-b"), 1);
+        sink.add(new LintProblem(3, 5, "desc-d", "rule-b"), 1);
+        sink.add(new LintProblem(3, 5, "desc-e", "rule-a"), 0);
+        sink.add(new LintProblem(3, 5, "syntax error"), -1);
+        sink.add(new LintProblem(3, 2, "desc-f", "rule-b"), 1);
+
+        assertEquals(7, sink.size());
+        assertEquals("1:4:desc-c (rule-b) 2:1:desc-a (rule-b) 3:2:desc-f (rule-b) 3:5:syntax error 3:5:desc-b (rule-a) 3:5:desc-e (rule-a) 3:5:desc-d (rule-b)",
+                sink.toList().stream().map(LintProblem::toString).collect(Collectors.joining(" ")));
+    }
+
+    @Test
+    void testDuplicates() {
+        ProblemSink sink = new ProblemSink();
+        sink.add(new LintProblem(1, 1, "desc-a", "rule-a"), 0);
+        sink.add(new LintProblem(1, 1, "desc-a", "rule-a"), 0);
+        sink.add(new LintProblem(1, 1, "desc-a", "rule-b"), 1);
+        sink.add(new LintProblem(1, 1, "desc-b", "rule-a"), 0);
+        sink.add(new LintProblem(1, 1, "desc-a", "rule-a"), 0);
+
+        assertEquals(3, sink.size());
+        assertEquals("1:1:desc-a (rule-a) 1:1:desc-b (rule-a) 1:1:desc-a (rule-b)",
+                sink.toList().stream().map(LintProblem::toString).collect(Collectors.joining(" ")));
+    }
+
+    @Test
+    void testDiscard() {
+        ProblemSink sink = new ProblemSink();
+        sink.add(new LintProblem(1, 1, "desc-a", "rule-a"), 0);
+        sink.add(new LintProblem(2, 3, "desc-b", "rule-a"), 0);
+        sink.add(new LintProblem(2, 3, "desc-c", "rule-b"), 1);
+        sink.add(new LintProblem(2, 4, "desc-d", "rule-b"), 1);
+
+        sink.discard(2, 3);
+        assertEquals(2, sink.size());
+        assertEquals("1:1:desc-a (rule-a) 2:4:desc-d (rule-b)",
+                sink.toList().stream().map(LintProblem::toString).collect(Collectors.joining(" ")));
+
+        sink.add(new LintProblem(2, 3, "syntax error"), -1);
+        assertEquals(new LintProblem(2, 3, null), sink.toList().get(1));
+    }
+
+    @Test
+    void testTruncate() {
+        ProblemSink sink = new ProblemSink();
+        assertTrue(sink.add(new LintProblem(1, 1, "desc-a", "rule-a"), 0));
+        assertTrue(sink.add(new LintProblem(3, 1, "desc-b", "rule-a"), 0));
+        assertTrue(sink.add(new LintProblem(2, 1, "desc-c", "rule-a"), 0));
+        assertFalse(sink.add(new LintProblem(2, 1, "desc-c", "rule-a"), 0));
+
+        sink.truncate(5);
+        assertEquals(3, sink.size());
+        sink.truncate(2);
+        assertEquals("1:1:desc-a (rule-a) 2:1:desc-c (rule-a)",
+                sink.toList().stream().map(LintProblem::toString).collect(Collectors.joining(" ")));
+        assertTrue(sink.add(new LintProblem(3, 1, "desc-b", "rule-a"), 0));
+        assertEquals(3, sink.size());
+    }
+
+    @Test
+    void testMerge() {
+        ProblemSink first = new ProblemSink();
+        first.add(new LintProblem(1, 1, "desc-a", "rule-a"), 0);
+        first.add(new LintProblem(2, 1, "desc-b", "rule-b"), 1);
+        first.add(new LintProblem(3, 1, "desc-c", "rule-a"), 0);
+        first.add(new LintProblem(4, 2, "desc-d", "rule-a"), 0);
+
+        first.truncateAtLine(3);
+        assertEquals(2, first.size());
+        first.truncateAtLine(5);
+        assertEquals(2, first.size());
+
+        ProblemSink second = new ProblemSink();
+        second.add(new LintProblem(3, 1, "desc-e", "rule-b"), 1);
+        second.add(new LintProblem(2, 1, "desc-b", "rule-b"), 1);
+        second.add(new LintProblem(2, 1, "desc-f", "rule-a"), 0);
+        first.addAll(second);
+        assertEquals("1:1:desc-a (rule-a) 2:1:desc-f (rule-a) 2:1:desc-b (rule-b) 3:1:desc-e (rule-b)",
+                first.toList().stream().map(LintProblem::toString).collect(Collectors.joining(" ")));
+    }
+
+    @Test
+    void testMany() {
+        List<LintProblem> expected = new ArrayList<>();
+        for (int line = 1; line <= 2000; line++) {
+            expected.add(new LintProblem(line, 1 + line % 7, "p" + line, "rule"));
+        }
+        List<LintProblem> shuffled = new ArrayList<>(expected);
+        Collections.shuffle(shuffled, new Random(42));
+
+        ProblemSink sink = new ProblemSink();
+        shuffled.forEach(p -> sink.add(p, 0));
+        assertEquals(expected, sink.toList());
+    }
+}
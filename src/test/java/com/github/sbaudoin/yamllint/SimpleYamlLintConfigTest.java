@@ -16,6 +16,7 @@
 package com.github.sbaudoin.yamllint;
 
 import com.github.sbaudoin.yamllint.rules.Rule;
+import com.github.sbaudoin.yamllint.rules.RuleOptions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
@@ -77,6 +78,68 @@ class SimpleYamlLintConfigTest {
         assertEquals(1, conf.getEnabledRules(null).size());
     }
 
+    @Test
+    void testRulesNotShared() throws YamlLintConfigException {
+        YamlLintConfig conf1 = new YamlLintConfig("rules:\n" +
+                "  line-length:\n" +
+                "    max: 20\n" +
+                "    level: warning\n" +
+                "    ignore: .*\\.txt$\n");
+        YamlLintConfig conf2 = new YamlLintConfig("rules:\n" +
+                "  line-length: enable\n");
+
+        Rule rule1 = conf1.getEnabledRules(null).get(0);
+        Rule rule2 = conf2.getEnabledRules(null).get(0);
+        assertNotSame(rule1, rule2);
+        assertEquals(Linter.WARNING_LEVEL, rule1.getLevel());
+        assertEquals(Linter.ERROR_LEVEL, rule2.getLevel());
+        assertTrue(rule1.ignores(new File("foo.txt")));
+        assertFalse(rule2.ignores(new File("foo.txt")));
+        assertEquals(0, conf1.getEnabledRules(new File("foo.txt")).size());
+        assertEquals(1, conf2.getEnabledRules(new File("foo.txt")).size());
+
+        String yaml = "key: this is a rather long line\n";
+        List<LintProblem> problems = Linter.run(yaml, conf1);
+        assertEquals(1, problems.size());
+        assertEquals(Linter.WARNING_LEVEL, problems.get(0).getLevel());
+        assertEquals(0, Linter.run(yaml, conf2).size());
+    }
+
+    @Test
+    void testGetRuleOptions() throws YamlLintConfigException {
+        YamlLintConfig conf = new YamlLintConfig("rules:\n" +
+                "  colons:\n" +
+                "    max-spaces-before: 0\n" +
+                "    level: warning\n" +
+                "  commas: disable\n");
+
+        RuleOptions options = conf.getRuleOptions("colons");
+        assertNotNull(options);
+        assertSame(options, conf.getRuleOptions("colons"));
+        assertEquals(Linter.WARNING_LEVEL, options.getLevel());
+        assertEquals(0, options.get("max-spaces-before"));
+        assertEquals(1, options.get("max-spaces-after"));
+        try {
+            options.asMap().put("max-spaces-after", 2);
+            fail("Rule options should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(true);
+        }
+        assertNull(conf.getRuleOptions("commas"));
+        assertNull(conf.getRuleOptions("unknown"));
+
+        // Options are compiled on demand if the configuration has not been validated
+        File confFile = Paths.get("src", "test", "resources", "config", "local", ".yamllint").toFile();
+        try (InputStream in = new FileInputStream(confFile)) {
+            conf = new YamlLintConfig(in);
+            assertEquals(Linter.ERROR_LEVEL, conf.getRuleOptions("colons").getLevel());
+            assertEquals(1, conf.getRuleOptions("colons").get("max-spaces-after"));
+            assertNull(conf.getRuleOptions("comments"));
+        } catch (IOException e) {
+            fail("Should not fail: valid conf file passed");
+        }
+    }
+
     @Test
     void testInvalidConf() {
         try {
@@ -41,6 +41,15 @@ class SyntaxErrorTest extends RuleTester {
                 "...\n", null, getLintProblem(3, 1));
     }
 
+    @Test
+    void testNonPrintableCharacters() throws YamlLintConfigException {
+        check("---\n" +
+                "key: val\u0007ue\n", null, getLintProblem(2, 9));
+        check("---\n" +
+                "key: value\n" +
+                "this is not: valid: YAML \u0001\n", null, getLintProblem(3, 19));
+    }
+
     @Test
     void testEmptyFlows() throws YamlLintConfigException {
         check("---\n" +
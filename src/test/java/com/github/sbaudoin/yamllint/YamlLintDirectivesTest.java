@@ -326,6 +326,43 @@ class YamlLintDirectivesTest extends RuleTester {
     }
 
 
+    @Test
+    void testNotADirective() throws YamlLintConfigException {
+        YamlLintConfig conf = getDefaultConf();
+
+        check("---\n" +
+                "# yamllint is great\n" +
+                "# yamllint  disable\n" +
+                "# yamllint disable-line rule:colons and more\n" +
+                "- bad   : colon\n" +
+                "- trailing spaces    \n" +
+                "# yamllint disable rule:unknown-rule\n" +
+                "- bad  : colon and spaces   \n",
+            conf,
+            getLintProblem(5, 8, "colons"),
+            getLintProblem(6, 18, "trailing-spaces"),
+            getLintProblem(8, 7, "colons"),
+            getLintProblem(8, 26, "trailing-spaces"));
+    }
+
+    @Test
+    void testRepeatedDirectives() throws YamlLintConfigException {
+        YamlLintConfig conf = getDefaultConf();
+
+        check("---\n" +
+                "# yamllint disable rule:colons\n" +
+                "# yamllint disable rule:colons rule:trailing-spaces\n" +
+                "- bad   : colon\n" +
+                "- trailing spaces    \n" +
+                "# yamllint enable rule:colons\n" +
+                "- bad  : colon and spaces   \n" +
+                "# yamllint enable\n" +
+                "- trailing spaces    \n",
+            conf,
+            getLintProblem(7, 7, "colons"),
+            getLintProblem(9, 18, "trailing-spaces"));
+    }
+
     private YamlLintConfig getConf(String... rules) throws YamlLintConfigException {
         StringBuilder sb = new StringBuilder("---\nextends: default\nrules:\n");
 
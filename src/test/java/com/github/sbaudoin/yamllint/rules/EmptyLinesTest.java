@@ -15,10 +15,16 @@
  */
 package com.github.sbaudoin.yamllint.rules;
 
+import com.github.sbaudoin.yamllint.Parser;
 import com.github.sbaudoin.yamllint.YamlLintConfig;
 import com.github.sbaudoin.yamllint.YamlLintConfigException;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 class EmptyLinesTest extends RuleTester {
     @Test
     void testDisabled() throws YamlLintConfigException {
@@ -42,6 +48,22 @@ class EmptyLinesTest extends RuleTester {
         check("\r\n\r\n\r\nsome text\r\n\r\n\r\n", conf);
     }
 
+    @Test
+    void testStandaloneLines() {
+        EmptyLines rule = new EmptyLines();
+        Map<Object, Object> conf = new HashMap<>();
+        rule.getOptions().keySet().forEach(option -> conf.put(option, rule.getDefaultOptionValue(option)));
+        RuleOptions options = rule.compileOptions(conf);
+        for (String buffer : new String[] { "\n", "a\n\n\n\nb\n", "\n\n\n\na\n\n\n", "a\r\n\r\n\r\n\r\nb\r\n", "a\n\r\n\n\r\nb\n\n" }) {
+            // Lines created outside the parser have no index: the result is the same as with the index
+            for (Parser.Line line : Parser.getLines(buffer)) {
+                Parser.Line standalone = new Parser.Line(line.getLineNo(), buffer, line.getStart(), line.getEnd());
+                assertNull(standalone.getIndex());
+                assertEquals(rule.check(options, line), rule.check(options, standalone), "line " + line.getLineNo() + " of " + buffer);
+            }
+        }
+    }
+
     @Test
     void testEmptyDocument() throws YamlLintConfigException {
         YamlLintConfig conf = getConfig("empty-lines: {max: 0, max-start: 0, max-end: 0}",
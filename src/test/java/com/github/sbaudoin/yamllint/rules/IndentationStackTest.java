@@ -43,11 +43,13 @@ class IndentationStackTest {
             }
         };
 
-        Map<String, Object> context = new HashMap<>();
+        Indentation rule = new Indentation();
+        RuleOptions options = rule.compileOptions(conf);
+        Indentation.State state = (Indentation.State)rule.createState(options);
         StringBuilder output = new StringBuilder();
         for (Parser.Lined elem : Parser.getTokensOrComments(source).stream().filter(t -> !(t instanceof Parser.Comment)).collect(Collectors.toList())) {
-            // Get the context
-            new Indentation().check(conf, ((Parser.Token)elem).getCurr(), ((Parser.Token)elem).getPrev(), ((Parser.Token)elem).getNext(), ((Parser.Token)elem).getNextNext(), context);
+            // Get the state
+            rule.check(options, ((Parser.Token)elem).getCurr(), ((Parser.Token)elem).getPrev(), ((Parser.Token)elem).getNext(), ((Parser.Token)elem).getNextNext(), state);
 
             String tokenType = ((Parser.Token)elem).getCurr().getClass().getSimpleName()
                     .replaceAll("Token", "")
@@ -57,7 +59,7 @@ class IndentationStackTest {
             if ("StreamStart".equals(tokenType) || "StreamEnd".equals(tokenType)) {
                 continue;
             }
-            output.append(String.format("%9s %s\n", tokenType, formatStack((List<?>)context.get("stack"))));
+            output.append(String.format("%9s %s\n", tokenType, formatStack(state.stack)));
         }
 
         return output.toString();
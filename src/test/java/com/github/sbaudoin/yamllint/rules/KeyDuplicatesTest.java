@@ -178,6 +178,17 @@ class KeyDuplicatesTest extends RuleTester {
                 "[a, b, c]]\n", conf, getSyntaxError(2, 10));
     }
 
+    @Test
+    void testLargeMapping() throws YamlLintConfigException {
+        YamlLintConfig conf = getConfig("key-duplicates: enable");
+        StringBuilder sb = new StringBuilder("---\n");
+        for (int i = 0; i < 50000; i++) {
+            sb.append("key").append(i).append(": ").append(i).append('\n');
+        }
+        sb.append("key123: again\n").append("seq:\n").append("  - key1: 1\n");
+        check(sb.toString(), conf, getLintProblem(50002, 1));
+    }
+
     @Test
     void testKeyTokensInFlowSequences() throws YamlLintConfigException {
         YamlLintConfig conf = getConfig("key-duplicates: enable");
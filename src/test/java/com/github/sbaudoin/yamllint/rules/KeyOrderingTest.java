@@ -19,6 +19,8 @@ import com.github.sbaudoin.yamllint.YamlLintConfig;
 import com.github.sbaudoin.yamllint.YamlLintConfigException;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 class KeyOrderingTest extends RuleTester {
     @Test
     void testDisabled() throws YamlLintConfigException {
@@ -120,6 +122,62 @@ class KeyOrderingTest extends RuleTester {
                 getLintProblem(3, 1));
     }
 
+    @Test
+    void testOrdering() throws YamlLintConfigException {
+        YamlLintConfig conf = getConfig("key-ordering: {ordering: case-insensitive}");
+        check("---\n" +
+                "T-shirt: 1\n" +
+                "t-shirt: 2\n" +
+                "T-shirts: 3\n" +
+                "t-shirts: 4\n", conf);
+        check("---\n" +
+                "b: 1\n" +
+                "A: 2\n", conf,
+                getLintProblem(3, 1));
+
+        conf = getConfig("key-ordering: {ordering: natural}");
+        check("---\n" +
+                "key2: 1\n" +
+                "key10: 2\n" +
+                "key010b: 3\n" +
+                "key10c: 4\n" +
+                "key10c1: 5\n", conf);
+        check("---\n" +
+                "key10: 1\n" +
+                "key9: 2\n" +
+                "{a1: 1, a01: 2, a0: 3}: 3\n", conf,
+                getLintProblem(3, 1), getLintProblem(4, 17));
+        assertTrue(KeyOrdering.compareNatural("a", "a1") < 0);
+        assertTrue(KeyOrdering.compareNatural("a01b", "a1a") > 0);
+        assertEquals(0, KeyOrdering.compareNatural("a01", "a1"));
+
+        conf = getConfig("key-ordering: {ordering: locale, locale: fr-FR}");
+        check("---\n" +
+                "hair: true\n" +
+                "haïr: true\n" +
+                "hais: true\n" +
+                "Hais: true\n" +
+                "haïssable: true\n", conf);
+        check("---\n" +
+                "hais: true\n" +
+                "haïr: true\n", conf,
+                getLintProblem(3, 1));
+
+        assertThrows(YamlLintConfigException.class, () -> getConfig("key-ordering: {ordering: alphabetical}"));
+        assertThrows(YamlLintConfigException.class, () -> getConfig("key-ordering: {locale: fr-FR}"));
+    }
+
+    @Test
+    void testLargeMapping() throws YamlLintConfigException {
+        YamlLintConfig conf = getConfig("key-ordering: {ordering: natural}");
+        StringBuilder sb = new StringBuilder("---\n");
+        for (int i = 0; i < 50000; i++) {
+            sb.append("key").append(i).append(": ").append(i).append('\n');
+        }
+        sb.append("key123: again\n");
+        check(sb.toString(), conf, getLintProblem(50002, 1));
+    }
+
     @Test
     void testKeyTokensInFlowSequences() throws YamlLintConfigException {
         YamlLintConfig conf = getConfig("key-ordering: enable");
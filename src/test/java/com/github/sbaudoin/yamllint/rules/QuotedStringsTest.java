@@ -19,6 +19,7 @@ import com.github.sbaudoin.yamllint.YamlLintConfig;
 import com.github.sbaudoin.yamllint.YamlLintConfigException;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -644,4 +645,29 @@ class QuotedStringsTest extends RuleTester {
                 "foo2: '[bar\"baz]'\n",
                 conf);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOnlyWhenNeededRepeatedValues() throws YamlLintConfigException {
+        YamlLintConfig conf = getConfig("quoted-strings: {required: only-when-needed}");
+        check("---\n" +
+                "- 'a: b'\n" +
+                "- 'a b'\n" +
+                "- 'a #b'\n" +
+                "- 'a: b'\n" +            // still OK
+                "- 'a b'\n" +             // fails again
+                "- 'a#b'\n" +             // fails
+                "- '-a'\n" +              // fails
+                "- '- a'\n",
+                conf, getLintProblem(3, 3), getLintProblem(6, 3), getLintProblem(7, 3), getLintProblem(8, 3));
+
+        assertTrue(QuotedStrings.isPlain("a b:c#d"));
+        assertFalse(QuotedStrings.isPlain(""));
+        assertFalse(QuotedStrings.isPlain("a: b"));
+        assertFalse(QuotedStrings.isPlain("a #b"));
+        assertFalse(QuotedStrings.isPlain("a:"));
+        assertFalse(QuotedStrings.isPlain("a "));
+        assertFalse(QuotedStrings.isPlain("*a"));
+        assertFalse(QuotedStrings.isPlain("a\tb"));
+        assertFalse(QuotedStrings.isPlain("\u00e9t\u00e9"));
+    }
+}
@@ -71,4 +71,15 @@ class RuleFactoryTest {
         sh.close();
         logger.addHandler(ch);
     }
+
+    @Test
+    void testCreateRule() {
+        Rule rule = RuleFactory.instance.createRule("line-length");
+        assertNotNull(rule);
+        assertEquals(LineLength.class, rule.getClass());
+        assertNotSame(RuleFactory.instance.getRule("line-length"), rule);
+        assertNotSame(rule, RuleFactory.instance.createRule("line-length"));
+
+        assertNull(RuleFactory.instance.createRule("this-rule-does-not-exist"));
+    }
 }
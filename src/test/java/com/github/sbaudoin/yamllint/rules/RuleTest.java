@@ -346,7 +346,7 @@ class RuleTest {
     void testCommentRule() {
         assertEquals(Rule.TYPE.COMMENT, new CommentRule() {
             @Override
-            public List<LintProblem> check(Map conf, Parser.Comment comment) {
+            public List<LintProblem> check(Map<Object, Object> conf, Parser.Comment comment) {
                 return null;
             }
         }.getType());
@@ -356,7 +356,7 @@ class RuleTest {
     void testLineRule() {
         assertEquals(Rule.TYPE.LINE, new LineRule() {
             @Override
-            public List<LintProblem> check(Map conf, Parser.Line line) {
+            public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
                 return null;
             }
         }.getType());
@@ -372,6 +372,210 @@ class RuleTest {
         }.getType());
     }
 
+    @Test
+    void testCheckBridge() {
+        Map<Object, Object> conf = new HashMap<>();
+        conf.put("opt", 1);
+        conf.put("level", Linter.WARNING_LEVEL);
+        Parser.Line line = new Parser.Line(1, "foo", 0, 3);
+
+        // Rule written against the configuration map called with compiled options
+        LineRule mapRule = new LineRule() {
+            @Override
+            public List<LintProblem> check(Map<Object, Object> conf, Parser.Line line) {
+                return Collections.singletonList(new LintProblem(line.getLineNo(), 1, "opt=" + conf.get("opt")));
+            }
+        };
+        RuleOptions options = mapRule.compileOptions(conf);
+        assertEquals(Linter.WARNING_LEVEL, options.getLevel());
+        assertEquals("opt=1", mapRule.check(options, line).get(0).getDesc());
+
+        // Rule written against the compiled options called with the configuration map
+        LineRule typedRule = new LineRule() {
+            @Override
+            public List<LintProblem> check(RuleOptions options, Parser.Line line) {
+                return Collections.singletonList(new LintProblem(line.getLineNo(), 1, "opt=" + options.get("opt")));
+            }
+        };
+        assertEquals("opt=1", typedRule.check(conf, line).get(0).getDesc());
+
+        // Rules that implement none of the check methods
+        try {
+            new LineRule() {}.check(conf, line);
+            fail("Rule without check method accepted");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(true);
+        }
+        try {
+            new CommentRule() {}.check(options, (Parser.Comment)null);
+            fail("Rule without check method accepted");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(true);
+        }
+        try {
+            new TokenRule() {}.check(options, null, null, null, null, new HashMap<>());
+            fail("Rule without check method accepted");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(true);
+        }
+
+        // Typed token rule
+        TokenRule tokenRule = new TokenRule() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+                ((Map<String, Object>)state).put("opt", options.get("opt"));
+                return new ArrayList<>();
+            }
+        };
+        Map<String, Object> context = new HashMap<>();
+        tokenRule.check(conf, null, null, null, null, context);
+        assertEquals(1, context.get("opt"));
+    }
+
+    @Test
+    void testTokenRuleState() {
+        Map<Object, Object> conf = new HashMap<>();
+        conf.put("opt", 2);
+
+        TokenRule statefulRule = new TokenRule() {
+            @Override
+            public Object createState(RuleOptions options) {
+                return new int[] { (int)options.get("opt") };
+            }
+
+            @Override
+            public List<LintProblem> check(RuleOptions options, Token token, Token prev, Token next, Token nextnext, Object state) {
+                ((int[])state)[0]++;
+                return new ArrayList<>();
+            }
+        };
+
+        // Typed state passed by the linter
+        int[] state = (int[])statefulRule.createState(statefulRule.compileOptions(conf));
+        statefulRule.check(statefulRule.compileOptions(conf), null, null, null, null, state);
+        statefulRule.check(statefulRule.compileOptions(conf), null, null, null, null, state);
+        assertEquals(4, state[0]);
+
+        // Typed state kept in the context map when called with the configuration map
+        Map<String, Object> context = new HashMap<>();
+        statefulRule.check(conf, null, null, null, null, context);
+        statefulRule.check(conf, null, null, null, null, context);
+        assertEquals(1, context.size());
+        assertEquals(4, ((int[])context.get(TokenRule.STATE_KEY))[0]);
+
+        // Default state
+        assertTrue(new TokenRule() {}.createState(statefulRule.compileOptions(conf)) instanceof Map);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testKeyRuleBridge() {
+        Map<Object, Object> conf = new HashMap<>();
+        conf.put("opt", 1);
+        List<Token> tokens = new ArrayList<>();
+        Scanner scanner = new ScannerImpl(new StreamReader("a: 1\nb: 2\n"), new LoaderOptions());
+        while (scanner.checkToken()) {
+            tokens.add(scanner.getToken());
+        }
+
+        // Key rule written against the configuration map: the context map is kept between the keys
+        KeyRule mapRule = new KeyRule() {
+            @Override
+            protected Optional<LintProblem> checkKey(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context, List<Parent> stack) {
+                context.merge("keys", 1, (a, b) -> (int)a + (int)b);
+                return Optional.of(new LintProblem(token.getStartMark().getLine() + 1, 1, "key " + context.get("keys") + ", opt=" + conf.get("opt") + ", stack=" + (context.get("stack") == stack)));
+            }
+        };
+        List<LintProblem> problems = checkKeys(mapRule, conf, tokens);
+        assertEquals(2, problems.size());
+        assertEquals("key 1, opt=1, stack=true", problems.get(0).getDesc());
+        assertEquals("key 2, opt=1, stack=true", problems.get(1).getDesc());
+
+        // Key rule written against the compiled options called through the deprecated method
+        KeyRule typedRule = new KeyRule() {
+            @Override
+            protected Optional<LintProblem> checkKey(RuleOptions options, Token token, Token prev, Token next, Token nextnext, List<Parent> stack) {
+                return Optional.of(new LintProblem(1, 1, "opt=" + options.get("opt")));
+            }
+        };
+        assertEquals("opt=1", typedRule.checkKey(conf, null, null, null, null, new HashMap<>(), new ArrayList<>()).get().getDesc());
+        assertEquals(2, checkKeys(typedRule, conf, tokens).size());
+
+        // Key rule that implements none of the check methods
+        try {
+            checkKeys(new KeyRule() {}, conf, tokens);
+            fail("Key rule without checkKey method accepted");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(true);
+        }
+    }
+
+    private List<LintProblem> checkKeys(KeyRule rule, Map<Object, Object> conf, List<Token> tokens) {
+        RuleOptions options = rule.compileOptions(conf);
+        Object state = rule.createState(options);
+        List<LintProblem> problems = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            problems.addAll(rule.check(options, tokens.get(i),
+                    i > 0 ? tokens.get(i - 1) : null,
+                    i + 1 < tokens.size() ? tokens.get(i + 1) : null,
+                    i + 2 < tokens.size() ? tokens.get(i + 2) : null,
+                    state));
+        }
+        return problems;
+    }
+
+    @Test
+    void testSubscriptions() {
+        Map<Object, Object> conf = new HashMap<>();
+
+        // Defaults: all tokens and all lines
+        TokenRule tokenRule = new TokenRule() {};
+        assertEquals(EnumSet.allOf(Token.ID.class), tokenRule.getTokenIds(tokenRule.compileOptions(conf)));
+        LineRule lineRule = new LineRule() {};
+        assertEquals(LineRule.LINES.ALL, lineRule.getLines(lineRule.compileOptions(conf)));
+
+        // Built-in rules
+        Braces braces = new Braces();
+        assertEquals(EnumSet.of(Token.ID.FlowMappingStart, Token.ID.FlowMappingEnd), braces.getTokenIds(braces.compileOptions(getDefaultConf(braces))));
+        Anchors anchors = new Anchors();
+        Map<Object, Object> anchorsConf = getDefaultConf(anchors);
+        assertFalse(anchors.getTokenIds(anchors.compileOptions(anchorsConf)).contains(Token.ID.Scalar));
+        anchorsConf.put(Anchors.OPTION_FORBID_UNUSED_ANCHORS, true);
+        assertTrue(anchors.getTokenIds(anchors.compileOptions(anchorsConf)).contains(Token.ID.Scalar));
+        anchorsConf.put(Anchors.OPTION_FORBID_UNUSED_ANCHORS, false);
+        anchorsConf.put(Anchors.OPTION_FORBID_UNDECLARED_ALIASES, false);
+        assertTrue(anchors.getTokenIds(anchors.compileOptions(anchorsConf)).isEmpty());
+        assertEquals(LineRule.LINES.FIRST, new NewLines().getLines(null));
+        assertEquals(LineRule.LINES.LAST, new NewLineAtEndOfFile().getLines(null));
+    }
+
+    @Test
+    void testDocumentScoped() {
+        TokenRule tokenRule = new TokenRule() {};
+        assertTrue(tokenRule.isDocumentScoped(tokenRule.compileOptions(new HashMap<>())));
+        // Rule written against the configuration map: its context map may be used across documents
+        TokenRule mapRule = new TokenRule() {
+            @Override
+            public List<LintProblem> check(Map<Object, Object> conf, Token token, Token prev, Token next, Token nextnext, Map<String, Object> context) {
+                return new ArrayList<>();
+            }
+        };
+        assertFalse(mapRule.isDocumentScoped(mapRule.compileOptions(new HashMap<>())));
+
+        KeyDuplicates keyDuplicates = new KeyDuplicates();
+        assertTrue(keyDuplicates.isDocumentScoped(keyDuplicates.compileOptions(getDefaultConf(keyDuplicates))));
+        Indentation indentation = new Indentation();
+        Map<Object, Object> indentationConf = getDefaultConf(indentation);
+        indentationConf.put(Indentation.OPTION_SPACES, Indentation.OPTION_CONSISTENT);
+        assertFalse(indentation.isDocumentScoped(indentation.compileOptions(indentationConf)));
+        indentationConf.put(Indentation.OPTION_SPACES, 2);
+        indentationConf.put(Indentation.OPTION_INDENT_SEQUENCES, true);
+        assertTrue(indentation.isDocumentScoped(indentation.compileOptions(indentationConf)));
+        indentationConf.put(Indentation.OPTION_INDENT_SEQUENCES, Indentation.OPTION_CONSISTENT);
+        assertFalse(indentation.isDocumentScoped(indentation.compileOptions(indentationConf)));
+    }
+
     @Test
     void testParameters() {
         Rule rule = getSimpleRule();
@@ -484,4 +688,16 @@ class RuleTest {
 
         return tokens;
     }
+
+    /**
+     * Returns a configuration with the default values of the options of the passed rule
+     *
+     * @param rule a rule
+     * @return the default configuration of the rule
+     */
+    private Map<Object, Object> getDefaultConf(Rule rule) {
+        Map<Object, Object> conf = new HashMap<>();
+        rule.getOptions().keySet().forEach(option -> conf.put(option, rule.getDefaultOptionValue(option)));
+        return conf;
+    }
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalarClassifierTest {
+    @Test
+    void testClassify() {
+        assertTypes("", ScalarClassifier.Type.NULL, ScalarClassifier.Type.NULL);
+        assertTypes("~", ScalarClassifier.Type.NULL, ScalarClassifier.Type.NULL);
+        assertTypes("foo", ScalarClassifier.Type.STR, ScalarClassifier.Type.STR);
+        assertTypes("True", ScalarClassifier.Type.BOOL, ScalarClassifier.Type.BOOL);
+        assertTypes("off", ScalarClassifier.Type.BOOL, ScalarClassifier.Type.STR);
+        assertTypes("y", ScalarClassifier.Type.STR, ScalarClassifier.Type.STR);
+        assertTypes("<<", ScalarClassifier.Type.MERGE, ScalarClassifier.Type.STR);
+        assertTypes("42", ScalarClassifier.Type.INT, ScalarClassifier.Type.INT);
+        assertTypes("-1_000", ScalarClassifier.Type.INT, ScalarClassifier.Type.STR);
+        assertTypes("0b1010", ScalarClassifier.Type.INT, ScalarClassifier.Type.STR);
+        assertTypes("190:20:30", ScalarClassifier.Type.INT, ScalarClassifier.Type.STR);
+        assertTypes("0:30", ScalarClassifier.Type.STR, ScalarClassifier.Type.STR);
+        assertTypes("017", ScalarClassifier.Type.OCTAL, ScalarClassifier.Type.INT);
+        assertTypes("018", ScalarClassifier.Type.STR, ScalarClassifier.Type.INT);
+        assertTypes("0o17", ScalarClassifier.Type.OCTAL, ScalarClassifier.Type.OCTAL);
+        assertTypes("0x1F", ScalarClassifier.Type.HEX, ScalarClassifier.Type.HEX);
+        assertTypes("1.5", ScalarClassifier.Type.FLOAT, ScalarClassifier.Type.FLOAT);
+        assertTypes("1e5", ScalarClassifier.Type.FLOAT, ScalarClassifier.Type.FLOAT);
+        assertTypes("190:20:30.15", ScalarClassifier.Type.FLOAT, ScalarClassifier.Type.STR);
+        assertTypes("-.INF", ScalarClassifier.Type.INF, ScalarClassifier.Type.INF);
+        assertTypes(".NaN", ScalarClassifier.Type.NAN, ScalarClassifier.Type.NAN);
+        assertTypes("2001-12-14", ScalarClassifier.Type.TIMESTAMP, ScalarClassifier.Type.STR);
+        assertTypes("2001-12-14 21:59:43.10 -5", ScalarClassifier.Type.TIMESTAMP, ScalarClassifier.Type.STR);
+        assertTypes("2001-1-14", ScalarClassifier.Type.STR, ScalarClassifier.Type.STR);
+
+        assertTrue(ScalarClassifier.classify("-.5e-3").isSigned());
+        assertTrue(ScalarClassifier.classify("-.5e-3").hasLeadingDot());
+        assertTrue(ScalarClassifier.classify("-.5e-3").hasExponent());
+        assertFalse(ScalarClassifier.classify("0.5").hasLeadingDot());
+        assertFalse(ScalarClassifier.classify("0.5").hasExponent());
+        assertFalse(ScalarClassifier.classify("1_0e5").hasExponent());
+    }
+
+    @Test
+    void testResolver() {
+        // The YAML 1.1 types are the ones of the SnakeYAML resolver with the octal numbers of YAML 1.2
+        Resolver resolver = new Resolver();
+        resolver.addImplicitResolver(Tag.INT,
+                Pattern.compile("^([-+]?0b[0-1_]+|[-+]?0o?[0-7_]+|[-+]?0[0-7_]+|[-+]?(?:0|[1-9][0-9_]*)|[-+]?0x[0-9a-fA-F_]+|[-+]?[1-9][0-9_]*(?::[0-5]?\\d)+)$"),
+                "-+0123456789");
+        String[] alphabets = { "0123456789_.:-+eExob", "0127:.-+ tTZ\t", "0123456789abcdefABCDEFxob_+-.", "yYnNoOtTfFrueals.infNaI+-~<!&* " };
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            String alphabet = alphabets[random.nextInt(alphabets.length)];
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(12); j >= 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String value = (random.nextInt(4) == 0) ? String.format("%04d-%02d-%d%s", random.nextInt(3000), random.nextInt(13), random.nextInt(32), sb) : sb.toString();
+            assertEquals(resolver.resolve(NodeId.scalar, value, true), getTag(ScalarClassifier.classify(value).getYaml11Type()), value);
+        }
+
+        StringBuilder number = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            number.append('1');
+        }
+        assertEquals(ScalarClassifier.Type.INT, ScalarClassifier.classify(number.toString()).getYaml11Type());
+        assertEquals(ScalarClassifier.Type.STR, ScalarClassifier.classify(number.append('1').toString()).getYaml11Type());
+    }
+
+
+    private void assertTypes(String value, ScalarClassifier.Type yaml11Type, ScalarClassifier.Type yaml12Type) {
+        assertEquals(yaml11Type, ScalarClassifier.classify(value).getYaml11Type(), value);
+        assertEquals(yaml12Type, ScalarClassifier.classify(value).getYaml12Type(), value);
+    }
+
+    private Tag getTag(ScalarClassifier.Type type) {
+        switch (type) {
+            case STR:
+                return Tag.STR;
+            case NULL:
+                return Tag.NULL;
+            case BOOL:
+                return Tag.BOOL;
+            case INT:
+            case OCTAL:
+            case HEX:
+                return Tag.INT;
+            case FLOAT:
+            case INF:
+            case NAN:
+                return Tag.FLOAT;
+            case TIMESTAMP:
+                return Tag.TIMESTAMP;
+            case MERGE:
+                return Tag.MERGE;
+            default:
+                return Tag.YAML;
+        }
+    }
+}
@@ -19,6 +19,10 @@ import com.github.sbaudoin.yamllint.YamlLintConfig;
 import com.github.sbaudoin.yamllint.YamlLintConfigException;
 import org.junit.jupiter.api.Test;
 
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 class TruthyTest extends RuleTester {
     @Test
     void testDisabled() throws YamlLintConfigException {
@@ -158,4 +162,38 @@ class TruthyTest extends RuleTester {
                 "      on: 0\n",
                 conf);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testYaml11Booleans() throws YamlLintConfigException {
+        YamlLintConfig conf = getConfig("truthy: {yaml-1.1-booleans: true}");
+        check("---\n" +
+                "- y\n" +
+                "- Y\n" +
+                "- n\n" +
+                "- N\n" +
+                "- x\n" +
+                "- 'y'\n" +
+                "- yes\n" +
+                "- true\n" +
+                "- \"\"\n", conf,
+                getLintProblem(2, 3), getLintProblem(3, 3), getLintProblem(4, 3),
+                getLintProblem(5, 3), getLintProblem(8, 3));
+
+        conf = getConfig("truthy: {yaml-1.1-booleans: true, allowed-values: [y, n]}");
+        check("---\n" +
+                "- y\n" +
+                "- n\n" +
+                "- Y\n" +
+                "- true\n", conf,
+                getLintProblem(4, 3), getLintProblem(5, 3));
+
+        conf = getConfig("truthy: enable");
+        check("---\n" +
+                "y: n\n", conf);
+
+        // All the truthy values have their own slot in the lookup table
+        assertEquals(22, Stream.of("YES", "Yes", "yes", "NO", "No", "no", "TRUE", "True", "true",
+                "FALSE", "False", "false", "ON", "On", "on", "OFF", "Off", "off", "Y", "y", "N", "n")
+                .mapToInt(Truthy::slot).distinct().count());
+    }
+}